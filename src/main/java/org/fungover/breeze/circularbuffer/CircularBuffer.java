@@ -10,6 +10,9 @@ import java.util.*;
  * current elements. When {@link OverflowStrategy#OVERWRITE} is used and the buffer is full,
  * adding a new element overwrites the oldest one. When {@link OverflowStrategy#REJECT} is used,
  * attempting to add an element to a full buffer throws an {@link IllegalStateException}.
+ * When {@link OverflowStrategy#GROW} is used, a full buffer reallocates its storage to the next
+ * power of two (up to a configured maximum capacity) and shrinks again once occupancy drops to a
+ * quarter of the current capacity, so memory follows load.
  *
  * <p>Thread-safety is configurable via the constructor flag. If {@code threadSafe} is {@code true},
  * all public operations are internally synchronized on {@code this}, ensuring that
@@ -32,6 +35,9 @@ import java.util.*;
  *
  * // Clear the buffer completely
  * cb.clear();
+ *
+ * // Create a growable buffer that starts at 16 slots and never exceeds 1024
+ * CircularBuffer<String> growable = new CircularBuffer<>(16, OverflowStrategy.GROW, false, 1024);
  * }</pre>
  *
  * @param <T> the type of elements stored in this buffer
@@ -39,9 +45,12 @@ import java.util.*;
  */
 public class CircularBuffer<T> implements Iterable<T> {
     private static final int DEFAULT_CAPACITY = 10;
+    private static final int MAX_ARRAY_CAPACITY = Integer.MAX_VALUE - 8;
 
-    private final T[] buffer;
-    private final int capacity;
+    private T[] buffer;
+    private int capacity;
+    private final int initialCapacity;
+    private final int maxCapacity;
     private final OverflowStrategy overflowStrategy;
     private final boolean threadSafe;
     private int count;
@@ -51,6 +60,8 @@ public class CircularBuffer<T> implements Iterable<T> {
     @SuppressWarnings("unchecked")
     public CircularBuffer() {
         this.capacity = DEFAULT_CAPACITY;
+        this.initialCapacity = DEFAULT_CAPACITY;
+        this.maxCapacity = DEFAULT_CAPACITY;
         this.overflowStrategy = OverflowStrategy.OVERWRITE;
         this.threadSafe = true;
         this.buffer = (T[]) new Object[this.capacity];
@@ -59,13 +70,33 @@ public class CircularBuffer<T> implements Iterable<T> {
         this.tail = 0;
     }
 
-    @SuppressWarnings("unchecked")
     public CircularBuffer(int capacity, OverflowStrategy overflowStrategy, boolean threadSafe) {
+        this(capacity, overflowStrategy, threadSafe,
+                overflowStrategy == OverflowStrategy.GROW ? Math.max(capacity, MAX_ARRAY_CAPACITY) : capacity);
+    }
+
+    /**
+     * Creates a buffer with an explicit upper bound on how far it may grow.
+     *
+     * @param capacity         the initial capacity, also the lower bound when shrinking
+     * @param overflowStrategy the strategy to apply when the buffer is full
+     * @param threadSafe       whether operations should be synchronized
+     * @param maxCapacity      the largest capacity a {@link OverflowStrategy#GROW} buffer may reach;
+     *                         must equal {@code capacity} for the other strategies
+     */
+    @SuppressWarnings("unchecked")
+    public CircularBuffer(int capacity, OverflowStrategy overflowStrategy, boolean threadSafe, int maxCapacity) {
         if (capacity <= 0)
             throw new IllegalArgumentException("Capacity must be greater than 0");
         if (overflowStrategy == null)
             throw new IllegalArgumentException("OverflowStrategy cannot be null");
+        if (maxCapacity < capacity)
+            throw new IllegalArgumentException("Max capacity cannot be less than capacity");
+        if (overflowStrategy != OverflowStrategy.GROW && maxCapacity != capacity)
+            throw new IllegalArgumentException("Max capacity only applies to GROW overflow strategy");
         this.capacity = capacity;
+        this.initialCapacity = capacity;
+        this.maxCapacity = maxCapacity;
         this.overflowStrategy = overflowStrategy;
         this.threadSafe = threadSafe;
         this.buffer = (T[]) new Object[capacity];
@@ -78,6 +109,7 @@ public class CircularBuffer<T> implements Iterable<T> {
      * Adds an element to the buffer, depending on the overflow strategy:
      * <br>OVERWRITE: overwrites oldest element inside buffer if full
      * <br>REJECT: cancels write and throws exception if buffer is full
+     * <br>GROW: enlarges the buffer, throwing an exception only once max capacity is reached
      *
      * @param element New element to be added to the buffer.
      */
@@ -93,7 +125,9 @@ public class CircularBuffer<T> implements Iterable<T> {
 
     private void addInternal(T element) {
         if (isFull()) {
-            if (overflowStrategy == OverflowStrategy.REJECT) {
+            if (overflowStrategy == OverflowStrategy.GROW && capacity < maxCapacity) {
+                resize(growCapacity());
+            } else if (overflowStrategy != OverflowStrategy.OVERWRITE) {
                 throw new IllegalStateException("Buffer is full");
             } else {
                 head = (head + 1) % capacity;
@@ -109,6 +143,7 @@ public class CircularBuffer<T> implements Iterable<T> {
      * Adds multiple elements to the buffer, depending on the overflow strategy:
      * <br>OVERWRITE: overwrites oldest element(s) inside buffer if full
      * <br>REJECT: cancels write and throws exception if buffer is full
+     * <br>GROW: enlarges the buffer, throwing an exception only once max capacity is reached
      *
      * @param elements New element(s) to be added to the buffer
      */
@@ -130,6 +165,7 @@ public class CircularBuffer<T> implements Iterable<T> {
      * Adds multiple elements to the buffer, depending on the overflow strategy:
      * <br>OVERWRITE: overwrites oldest element(s) inside buffer if full
      * <br>REJECT: cancels write and throws exception if buffer is full
+     * <br>GROW: enlarges the buffer, throwing an exception only once max capacity is reached
      *
      * @param elements New element(s) to be added to the buffer
      */
@@ -187,9 +223,55 @@ public class CircularBuffer<T> implements Iterable<T> {
         buffer[head] = null;
         head = (head + 1) % capacity;
         count--;
+        if (shouldShrink())
+            resize(shrinkCapacity());
         return element;
     }
 
+    /**
+     * Returns the next power of two above the current capacity, capped at max capacity.
+     */
+    private int growCapacity() {
+        long doubled = Long.highestOneBit(capacity) << 1;
+        return (int) Math.min(doubled, maxCapacity);
+    }
+
+    /**
+     * Returns the largest power of two below the current capacity, but never less than the
+     * initial capacity.
+     */
+    private int shrinkCapacity() {
+        return Math.max(initialCapacity, Integer.highestOneBit(capacity - 1));
+    }
+
+    /**
+     * Returns true if a GROW buffer has dropped to a quarter of its capacity and can shrink.
+     * The gap between the grow (full) and shrink (quarter) thresholds keeps resizing amortized O(1).
+     */
+    private boolean shouldShrink() {
+        return overflowStrategy == OverflowStrategy.GROW
+                && capacity > initialCapacity
+                && count <= capacity / 4;
+    }
+
+    /**
+     * Moves the elements into a new array of the given capacity, unwrapping the ring so that
+     * the oldest element ends up at index 0. At most two array copies are needed.
+     *
+     * @param newCapacity the capacity of the new storage, must be at least {@code count}
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int newCapacity) {
+        T[] resized = (T[]) new Object[newCapacity];
+        int firstPart = Math.min(count, capacity - head);
+        System.arraycopy(buffer, head, resized, 0, firstPart);
+        System.arraycopy(buffer, 0, resized, firstPart, count - firstPart);
+        buffer = resized;
+        capacity = newCapacity;
+        head = 0;
+        tail = count % newCapacity;
+    }
+
     /**
      * Removes and returns the specified number of oldest elements from the buffer.
      *
@@ -228,9 +310,15 @@ public class CircularBuffer<T> implements Iterable<T> {
         } else clearInternal();
     }
 
+    @SuppressWarnings("unchecked")
     private void clearInternal() {
-        for (int i = 0; i < capacity; i++) {
-            buffer[i] = null;
+        if (capacity != initialCapacity) {
+            buffer = (T[]) new Object[initialCapacity];
+            capacity = initialCapacity;
+        } else {
+            for (int i = 0; i < capacity; i++) {
+                buffer[i] = null;
+            }
         }
         head = 0;
         tail = 0;
@@ -257,7 +345,8 @@ public class CircularBuffer<T> implements Iterable<T> {
     }
 
     /**
-     * Returns the capacity of the buffer.
+     * Returns the current capacity of the buffer. For {@link OverflowStrategy#GROW} buffers this
+     * changes as the buffer grows and shrinks.
      */
     public int capacity() {
         if (threadSafe) {
@@ -267,6 +356,14 @@ public class CircularBuffer<T> implements Iterable<T> {
         } else return capacity;
     }
 
+    /**
+     * Returns the largest capacity this buffer may reach. Equals the initial capacity unless the
+     * overflow strategy is {@link OverflowStrategy#GROW}.
+     */
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
     /**
      * Returns element at specified index.
      *
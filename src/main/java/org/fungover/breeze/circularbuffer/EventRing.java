@@ -0,0 +1,419 @@
+package org.fungover.breeze.circularbuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A ring of pre-allocated, mutable event slots in the style of the LMAX Disruptor.
+ *
+ * <p>Unlike {@link CircularBuffer}, which stores references handed to it on every {@code add},
+ * an {@code EventRing} creates all of its events up front. Producers claim a sequence number,
+ * fill the event in that slot in place, and publish the sequence. Nothing is allocated on the
+ * publishing path, so the ring produces no garbage regardless of throughput.
+ *
+ * <p>Events are consumed by {@link Processor}s. Each processor tracks its own sequence and,
+ * when polled, handles every event that has been published since its last poll as one batch.
+ * A processor can depend on other processors, which lets events flow through several stages:
+ * a stage only sees an event after all of its dependencies have handled it. Producers never
+ * overwrite a slot until every final stage has moved past it.
+ *
+ * <p>The capacity must be a power of two so that a sequence maps to a slot with a bit mask
+ * rather than a modulo. Single-producer mode is cheaper; multi-producer mode allows any number
+ * of threads to claim and publish concurrently.
+ *
+ * <p>Typical usage example:
+ * <pre>{@code
+ * EventRing<LongEvent> ring = new EventRing<>(1024, LongEvent::new, false);
+ * EventRing.Processor<LongEvent> journal = ring.addProcessor((event, sequence, endOfBatch) -> write(event));
+ * EventRing.Processor<LongEvent> business = ring.addProcessor((event, sequence, endOfBatch) -> apply(event), journal);
+ *
+ * ring.publishEvent((event, sequence) -> event.value = 42);
+ *
+ * journal.processAvailable();  // handles every published event not yet journaled
+ * business.processAvailable(); // handles only events the journal stage has finished
+ * }</pre>
+ *
+ * @param <E> the type of the pre-allocated events
+ */
+public class EventRing<E> {
+    private static final long INITIAL_SEQUENCE = -1L;
+    private static final int SPINS_BEFORE_YIELD = 100;
+
+    private final Object[] slots;
+    private final int mask;
+    private final int indexShift;
+    private final boolean multiProducer;
+    private final AtomicIntegerArray availableRounds;
+    private final AtomicLong cursor = new AtomicLong(INITIAL_SEQUENCE);
+    private final AtomicLong cachedGatingSequence = new AtomicLong(INITIAL_SEQUENCE);
+    private final List<Processor<E>> processors = new ArrayList<>();
+    private volatile Processor<?>[] gatingProcessors = new Processor<?>[0];
+    private long claimed = INITIAL_SEQUENCE;
+
+    /**
+     * Creates a ring and fills every slot with an event from {@code eventFactory}.
+     *
+     * @param capacity      the number of slots, must be a power of two
+     * @param eventFactory  creates the events that are reused for the lifetime of the ring
+     * @param multiProducer true if more than one thread will claim and publish sequences
+     * @throws IllegalArgumentException if capacity is not a positive power of two or the factory is null
+     */
+    public EventRing(int capacity, Supplier<? extends E> eventFactory, boolean multiProducer) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        if (eventFactory == null)
+            throw new IllegalArgumentException("Event factory cannot be null");
+        this.slots = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = eventFactory.get();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.multiProducer = multiProducer;
+        if (multiProducer) {
+            this.availableRounds = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                availableRounds.set(i, -1);
+            }
+        } else {
+            this.availableRounds = null;
+        }
+    }
+
+    /**
+     * Handles events taken from the ring by a {@link Processor}.
+     *
+     * @param <E> the type of the events
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+        /**
+         * Called once for every event in a batch, in sequence order.
+         *
+         * @param event      the event in the slot; must not be retained after the call returns
+         * @param sequence   the sequence number of the event
+         * @param endOfBatch true for the last event of the current batch
+         */
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Fills a claimed event in place before it is published.
+     *
+     * @param <E> the type of the events
+     */
+    @FunctionalInterface
+    public interface EventTranslator<E> {
+        /**
+         * Writes data into the pre-allocated event.
+         *
+         * @param event    the event in the claimed slot
+         * @param sequence the claimed sequence number
+         */
+        void translateTo(E event, long sequence);
+    }
+
+    /**
+     * Registers a processor that handles events after all of its dependencies have handled them.
+     * Processors must be registered before the first sequence is claimed.
+     *
+     * @param handler      the handler invoked for every event
+     * @param dependencies processors of earlier stages, or none for a first stage
+     * @return the new processor
+     * @throws IllegalStateException if sequences have already been claimed
+     */
+    @SafeVarargs
+    public final synchronized Processor<E> addProcessor(EventHandler<? super E> handler, Processor<E>... dependencies) {
+        if (handler == null)
+            throw new IllegalArgumentException("Handler cannot be null");
+        if (cursor.get() != INITIAL_SEQUENCE || claimed != INITIAL_SEQUENCE)
+            throw new IllegalStateException("Processors must be added before publishing");
+        Processor<?>[] stages = new Processor<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            if (dependencies[i].ring != this)
+                throw new IllegalArgumentException("Dependency belongs to another ring");
+            stages[i] = dependencies[i];
+        }
+        Processor<E> processor = new Processor<>(this, handler, stages);
+        processors.add(processor);
+
+        // Only the last stages gate the producers; earlier stages are always ahead of them.
+        List<Processor<E>> gating = new ArrayList<>(processors);
+        for (Processor<E> p : processors) {
+            for (Processor<?> dependency : p.dependencies) {
+                gating.remove(dependency);
+            }
+        }
+        gatingProcessors = gating.toArray(new Processor<?>[0]);
+        return processor;
+    }
+
+    /**
+     * Claims the next sequence, waiting until the slot has been released by every final stage.
+     *
+     * @return the claimed sequence
+     */
+    public long next() {
+        return next(1);
+    }
+
+    /**
+     * Claims the next {@code n} sequences, waiting until the slots have been released by every
+     * final stage. The claimed range is {@code [returned - n + 1, returned]}.
+     *
+     * @param n the number of sequences to claim
+     * @return the highest claimed sequence
+     * @throws IllegalArgumentException if n is less than 1 or greater than the capacity
+     */
+    public long next(int n) {
+        checkClaimSize(n);
+        if (multiProducer) {
+            long next;
+            int spins = 0;
+            while ((next = tryClaimMulti(n)) == INITIAL_SEQUENCE) {
+                spins = backOff(spins);
+            }
+            return next;
+        }
+        long next = claimed + n;
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > cachedGatingSequence.get()) {
+            long minimum;
+            int spins = 0;
+            while (wrapPoint > (minimum = minimumGatingSequence(claimed))) {
+                spins = backOff(spins);
+            }
+            cachedGatingSequence.set(minimum);
+        }
+        claimed = next;
+        return next;
+    }
+
+    /**
+     * Claims the next {@code n} sequences if there is room without waiting.
+     *
+     * @param n the number of sequences to claim
+     * @return the highest claimed sequence, or {@code -1} if the ring has no room for {@code n} events
+     * @throws IllegalArgumentException if n is less than 1 or greater than the capacity
+     */
+    public long tryNext(int n) {
+        checkClaimSize(n);
+        if (multiProducer) {
+            long next;
+            do {
+                next = tryClaimMulti(n);
+            } while (next == INITIAL_SEQUENCE && hasCapacity(cursor.get(), n));
+            return next;
+        }
+        if (!hasCapacity(claimed, n))
+            return INITIAL_SEQUENCE;
+        claimed += n;
+        return claimed;
+    }
+
+    /**
+     * Returns the event stored in the slot for the given sequence.
+     *
+     * @param sequence a claimed or published sequence
+     * @return the pre-allocated event for that slot
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a claimed sequence visible to the processors.
+     *
+     * @param sequence the sequence to publish
+     */
+    public void publish(long sequence) {
+        if (multiProducer) {
+            markAvailable(sequence);
+        } else {
+            cursor.lazySet(sequence);
+        }
+    }
+
+    /**
+     * Makes a claimed range of sequences visible to the processors.
+     *
+     * @param lo the lowest sequence of the range, inclusive
+     * @param hi the highest sequence of the range, inclusive
+     */
+    public void publish(long lo, long hi) {
+        if (multiProducer) {
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                markAvailable(sequence);
+            }
+        } else {
+            cursor.lazySet(hi);
+        }
+    }
+
+    /**
+     * Claims a slot, fills it with the translator and publishes it.
+     *
+     * @param translator writes the event data into the claimed slot
+     */
+    public void publishEvent(EventTranslator<? super E> translator) {
+        long sequence = next();
+        try {
+            translator.translateTo(get(sequence), sequence);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    /**
+     * Claims {@code n} slots, fills each with the translator and publishes them as one range.
+     *
+     * @param translator writes the event data into each claimed slot
+     * @param n          the number of events to publish
+     */
+    public void publishEvents(EventTranslator<? super E> translator, int n) {
+        long hi = next(n);
+        long lo = hi - n + 1;
+        try {
+            for (long sequence = lo; sequence <= hi; sequence++) {
+                translator.translateTo(get(sequence), sequence);
+            }
+        } finally {
+            publish(lo, hi);
+        }
+    }
+
+    /**
+     * Returns the number of slots in the ring.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the number of slots that can be claimed without waiting for any processor.
+     */
+    public long remainingCapacity() {
+        long produced = multiProducer ? cursor.get() : claimed;
+        return slots.length - (produced - minimumGatingSequence(produced));
+    }
+
+    private void checkClaimSize(int n) {
+        if (n < 1 || n > slots.length)
+            throw new IllegalArgumentException("n must be between 1 and capacity");
+    }
+
+    private boolean hasCapacity(long current, int n) {
+        long wrapPoint = current + n - slots.length;
+        long cached = cachedGatingSequence.get();
+        if (wrapPoint > cached || cached > current) {
+            long minimum = minimumGatingSequence(current);
+            cachedGatingSequence.set(minimum);
+            return wrapPoint <= minimum;
+        }
+        return true;
+    }
+
+    private long tryClaimMulti(int n) {
+        long current = cursor.get();
+        if (!hasCapacity(current, n))
+            return INITIAL_SEQUENCE;
+        long next = current + n;
+        return cursor.compareAndSet(current, next) ? next : INITIAL_SEQUENCE;
+    }
+
+    private long minimumGatingSequence(long defaultSequence) {
+        long minimum = defaultSequence;
+        for (Processor<?> processor : gatingProcessors) {
+            minimum = Math.min(minimum, processor.sequence.get());
+        }
+        return minimum;
+    }
+
+    private void markAvailable(long sequence) {
+        availableRounds.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    private boolean isAvailable(long sequence) {
+        return availableRounds.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * Returns the highest sequence in {@code [lowerBound, upperBound]} up to which every sequence
+     * has been published. In multi-producer mode sequences can be published out of order.
+     */
+    private long highestPublished(long lowerBound, long upperBound) {
+        if (!multiProducer)
+            return upperBound;
+        for (long sequence = lowerBound; sequence <= upperBound; sequence++) {
+            if (!isAvailable(sequence))
+                return sequence - 1;
+        }
+        return upperBound;
+    }
+
+    private static int backOff(int spins) {
+        if (spins < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        Thread.yield();
+        return spins;
+    }
+
+    /**
+     * A consumer stage of an {@link EventRing}. Each call to {@link #processAvailable()} hands
+     * every event that is ready for this stage to the handler as one contiguous batch.
+     *
+     * <p>A processor is meant to be polled by a single thread at a time.
+     *
+     * @param <E> the type of the events
+     */
+    public static final class Processor<E> {
+        private final EventRing<E> ring;
+        private final EventHandler<? super E> handler;
+        private final Processor<?>[] dependencies;
+        private final AtomicLong sequence = new AtomicLong(INITIAL_SEQUENCE);
+
+        private Processor(EventRing<E> ring, EventHandler<? super E> handler, Processor<?>[] dependencies) {
+            this.ring = ring;
+            this.handler = handler;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Handles all events that are published and have passed every dependency.
+         *
+         * @return the number of events handled, zero if none were ready
+         */
+        public int processAvailable() {
+            long next = sequence.get() + 1;
+            long available = ring.highestPublished(next, upperBound());
+            if (available < next)
+                return 0;
+            for (long s = next; s <= available; s++) {
+                handler.onEvent(ring.get(s), s, s == available);
+            }
+            sequence.lazySet(available);
+            return (int) (available - next + 1);
+        }
+
+        /**
+         * Returns the sequence of the last event this processor has handled, or -1 if none.
+         */
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        private long upperBound() {
+            long bound = ring.cursor.get();
+            for (int i = 0; i < dependencies.length; i++) {
+                bound = Math.min(bound, dependencies[i].sequence.get());
+            }
+            return bound;
+        }
+    }
+}
@@ -2,5 +2,6 @@ package org.fungover.breeze.circularbuffer;
 
 public enum OverflowStrategy {
     OVERWRITE,
-    REJECT
+    REJECT,
+    GROW
 }
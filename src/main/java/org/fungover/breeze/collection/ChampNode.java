@@ -0,0 +1,398 @@
+package org.fungover.breeze.collection;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A node of a compressed hash-array mapped prefix tree (CHAMP), shared by
+ * {@link FHashSet} and {@link FHashMap}.
+ * <p>
+ * Each level consumes {@value #BITS} bits of the hash. Two 32-bit bitmaps record which of the 32
+ * slots hold an entry inline ({@code dataMap}) and which hold a sub-node ({@code nodeMap}); the
+ * content array stores only the occupied slots, entries from the front and sub-nodes from the
+ * back. Entries are {@code width} slots wide: a key for sets, a key and a value for maps. Keys
+ * whose whole hash collides end up in a collision node past the last level, whose content is a
+ * plain list of entries.
+ * </p>
+ * <p>
+ * Updates copy only the nodes on the path to the changed entry. Removal moves a sub-node that is
+ * left with a single entry back into its parent, so a set of entries always has exactly one
+ * shape, and two tries can be compared structurally, skipping shared sub-nodes.
+ * </p>
+ * <p>
+ * Every node records the owner token of the transient that created it, or {@code null}. An
+ * update passed the same token changes such a node in place instead of copying it, so a batch
+ * of edits through one transient copies each node at most once. Once the transient is made
+ * persistent its token is never passed again, and its nodes are as immutable as any other.
+ * </p>
+ */
+final class ChampNode {
+
+    /**
+     * The number of hash bits consumed by each level.
+     */
+    static final int BITS = 5;
+
+    private static final int HASH_BITS = 32;
+
+    /**
+     * The empty node, used as the root of every empty set and map.
+     */
+    static final ChampNode EMPTY = new ChampNode(null, 0, 0, new Object[0]);
+
+    /**
+     * Describes what an update did, so the caller can maintain its size and hash code.
+     */
+    static final class Change {
+        boolean added;
+        Object oldValue;
+    }
+
+    private final Object owner;
+    int dataMap;
+    int nodeMap;
+    Object[] content;
+
+    private ChampNode(Object owner, int dataMap, int nodeMap, Object[] content) {
+        this.owner = owner;
+        this.dataMap = dataMap;
+        this.nodeMap = nodeMap;
+        this.content = content;
+    }
+
+    /**
+     * Looks up a key.
+     *
+     * @param key   The key to look up.
+     * @param hash  The hash code of the key.
+     * @param width The entry width, {@code 1} for sets and {@code 2} for maps.
+     * @return The value of the key (the stored key itself for sets), or {@code null} if absent.
+     */
+    Object find(Object key, int hash, int width) {
+        ChampNode node = this;
+        for (int shift = 0; ; shift += BITS) {
+            if (shift >= HASH_BITS) {
+                int index = node.collisionIndex(key, width);
+                return index < 0 ? null : node.content[index + width - 1];
+            }
+            int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                int index = width * index(node.dataMap, bit);
+                return key.equals(node.content[index]) ? node.content[index + width - 1] : null;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return null;
+            }
+            node = node.nodeAt(bit);
+        }
+    }
+
+    /**
+     * Returns a node that maps {@code key} to {@code value}, or this node if it already does.
+     * Nodes owned by {@code owner} are changed in place, so the result may be this node even
+     * though the key was added.
+     *
+     * @param owner  The owner token of the transient making the change, or {@code null}.
+     * @param key    The key to add.
+     * @param value  The value of the key; ignored for sets.
+     * @param hash   The hash code of the key.
+     * @param shift  The number of hash bits consumed above this node.
+     * @param width  The entry width.
+     * @param change Records whether the key was added or which value it replaced.
+     * @return The updated node.
+     */
+    ChampNode put(Object owner, Object key, Object value, int hash, int shift, int width, Change change) {
+        if (shift >= HASH_BITS) {
+            int index = collisionIndex(key, width);
+            if (index < 0) {
+                change.added = true;
+                Object[] copy = Arrays.copyOf(content, content.length + width);
+                setEntry(copy, content.length, key, value, width);
+                return update(owner, 0, 0, copy);
+            }
+            return replaceValue(owner, index, value, width, change);
+        }
+        int bit = bit(hash, shift);
+        if ((dataMap & bit) != 0) {
+            int index = width * index(dataMap, bit);
+            Object existing = content[index];
+            if (key.equals(existing)) {
+                return replaceValue(owner, index, value, width, change);
+            }
+            change.added = true;
+            ChampNode node = merge(owner, existing, content[index + width - 1], existing.hashCode(),
+                    key, value, hash, shift + BITS, width);
+            return dataToNode(owner, bit, index, node, width);
+        }
+        if ((nodeMap & bit) != 0) {
+            ChampNode node = nodeAt(bit);
+            ChampNode updated = node.put(owner, key, value, hash, shift + BITS, width, change);
+            return updated == node ? this : replaceNode(owner, bit, updated);
+        }
+        change.added = true;
+        int index = width * index(dataMap, bit);
+        Object[] copy = new Object[content.length + width];
+        System.arraycopy(content, 0, copy, 0, index);
+        setEntry(copy, index, key, value, width);
+        System.arraycopy(content, index, copy, index + width, content.length - index);
+        return update(owner, dataMap | bit, nodeMap, copy);
+    }
+
+    /**
+     * Returns a node without {@code key}, or this node if the key is absent. Nodes owned by
+     * {@code owner} are changed in place.
+     *
+     * @param owner  The owner token of the transient making the change, or {@code null}.
+     * @param key    The key to remove.
+     * @param hash   The hash code of the key.
+     * @param shift  The number of hash bits consumed above this node.
+     * @param width  The entry width.
+     * @param change Records the value of the removed key.
+     * @return The updated node.
+     */
+    ChampNode remove(Object owner, Object key, int hash, int shift, int width, Change change) {
+        if (shift >= HASH_BITS) {
+            int index = collisionIndex(key, width);
+            if (index < 0) {
+                return this;
+            }
+            change.oldValue = content[index + width - 1];
+            return update(owner, 0, 0, without(content, index, width));
+        }
+        int bit = bit(hash, shift);
+        if ((dataMap & bit) != 0) {
+            int index = width * index(dataMap, bit);
+            if (!key.equals(content[index])) {
+                return this;
+            }
+            change.oldValue = content[index + width - 1];
+            return update(owner, dataMap ^ bit, nodeMap, without(content, index, width));
+        }
+        if ((nodeMap & bit) == 0) {
+            return this;
+        }
+        ChampNode node = nodeAt(bit);
+        ChampNode updated = node.remove(owner, key, hash, shift + BITS, width, change);
+        if (updated.nodeMap == 0 && updated.content.length == width) {
+            return nodeToData(owner, bit, updated, width);
+        }
+        return updated == node ? this : replaceNode(owner, bit, updated);
+    }
+
+    /**
+     * Compares two tries holding entries of the same width. Shared sub-nodes are equal without
+     * being visited.
+     *
+     * @param other The other node.
+     * @param shift The number of hash bits consumed above both nodes.
+     * @param width The entry width.
+     * @return {@code true} if both nodes hold the same entries.
+     */
+    boolean equivalent(ChampNode other, int shift, int width) {
+        if (this == other) {
+            return true;
+        }
+        if (dataMap != other.dataMap || nodeMap != other.nodeMap || content.length != other.content.length) {
+            return false;
+        }
+        if (shift >= HASH_BITS) {
+            for (int i = 0; i < content.length; i += width) {
+                int index = other.collisionIndex(content[i], width);
+                if (index < 0 || !content[i + width - 1].equals(other.content[index + width - 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int dataLength = width * Integer.bitCount(dataMap);
+        for (int i = 0; i < dataLength; i++) {
+            if (!content[i].equals(other.content[i])) {
+                return false;
+            }
+        }
+        for (int i = dataLength; i < content.length; i++) {
+            if (!((ChampNode) content[i]).equivalent((ChampNode) other.content[i], shift + BITS, width)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int collisionIndex(Object key, int width) {
+        for (int i = 0; i < content.length; i += width) {
+            if (key.equals(content[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a node with the given bitmaps and content, changing this node in place if it is
+     * owned by {@code owner}.
+     */
+    private ChampNode update(Object owner, int dataMap, int nodeMap, Object[] content) {
+        if (owner != null && owner == this.owner) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+            return this;
+        }
+        return new ChampNode(owner, dataMap, nodeMap, content);
+    }
+
+    private boolean isOwnedBy(Object owner) {
+        return owner != null && owner == this.owner;
+    }
+
+    private ChampNode replaceValue(Object owner, int index, Object value, int width, Change change) {
+        if (width == 1 || content[index + 1] == value) {
+            return this;
+        }
+        change.oldValue = content[index + 1];
+        Object[] copy = isOwnedBy(owner) ? content : content.clone();
+        copy[index + 1] = value;
+        return update(owner, dataMap, nodeMap, copy);
+    }
+
+    private ChampNode replaceNode(Object owner, int bit, ChampNode node) {
+        Object[] copy = isOwnedBy(owner) ? content : content.clone();
+        copy[content.length - 1 - index(nodeMap, bit)] = node;
+        return update(owner, dataMap, nodeMap, copy);
+    }
+
+    /**
+     * Replaces the entry at {@code index} with a sub-node holding it and a new entry.
+     */
+    private ChampNode dataToNode(Object owner, int bit, int index, ChampNode node, int width) {
+        int nodeIndex = content.length - width - index(nodeMap, bit);
+        Object[] copy = new Object[content.length - width + 1];
+        System.arraycopy(content, 0, copy, 0, index);
+        System.arraycopy(content, index + width, copy, index, nodeIndex - index);
+        copy[nodeIndex] = node;
+        System.arraycopy(content, index + width + nodeIndex - index, copy, nodeIndex + 1,
+                content.length - width - nodeIndex);
+        return update(owner, dataMap ^ bit, nodeMap | bit, copy);
+    }
+
+    /**
+     * Replaces a sub-node that holds a single entry with that entry.
+     */
+    private ChampNode nodeToData(Object owner, int bit, ChampNode node, int width) {
+        int nodeIndex = content.length - 1 - index(nodeMap, bit);
+        int index = width * index(dataMap, bit);
+        Object[] copy = new Object[content.length - 1 + width];
+        System.arraycopy(content, 0, copy, 0, index);
+        System.arraycopy(node.content, 0, copy, index, width);
+        System.arraycopy(content, index, copy, index + width, nodeIndex - index);
+        System.arraycopy(content, nodeIndex + 1, copy, nodeIndex + width, content.length - nodeIndex - 1);
+        return update(owner, dataMap | bit, nodeMap ^ bit, copy);
+    }
+
+    /**
+     * Builds the smallest sub-tree holding two entries with different keys.
+     */
+    private static ChampNode merge(Object owner, Object key1, Object value1, int hash1,
+                                   Object key2, Object value2, int hash2, int shift, int width) {
+        if (shift >= HASH_BITS) {
+            Object[] content = new Object[2 * width];
+            setEntry(content, 0, key1, value1, width);
+            setEntry(content, width, key2, value2, width);
+            return new ChampNode(owner, 0, 0, content);
+        }
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            ChampNode node = merge(owner, key1, value1, hash1, key2, value2, hash2, shift + BITS, width);
+            return new ChampNode(owner, 0, bit1, new Object[]{node});
+        }
+        Object[] content = new Object[2 * width];
+        boolean firstIsLower = Integer.compareUnsigned(bit1, bit2) < 0;
+        setEntry(content, firstIsLower ? 0 : width, key1, value1, width);
+        setEntry(content, firstIsLower ? width : 0, key2, value2, width);
+        return new ChampNode(owner, bit1 | bit2, 0, content);
+    }
+
+    private static void setEntry(Object[] content, int index, Object key, Object value, int width) {
+        content[index] = key;
+        if (width == 2) {
+            content[index + 1] = value;
+        }
+    }
+
+    private static Object[] without(Object[] content, int index, int width) {
+        Object[] copy = new Object[content.length - width];
+        System.arraycopy(content, 0, copy, 0, index);
+        System.arraycopy(content, index + width, copy, index, content.length - index - width);
+        return copy;
+    }
+
+    private ChampNode nodeAt(int bit) {
+        return (ChampNode) content[content.length - 1 - index(nodeMap, bit)];
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    /**
+     * Iterates the entries of a trie depth first. The stack holds the sub-nodes still to be
+     * visited, so no recursion is needed.
+     *
+     * @param <E> The type of the elements produced from the entries.
+     */
+    abstract static class EntryIterator<E> implements Iterator<E> {
+        private final ArrayDeque<ChampNode> stack = new ArrayDeque<>();
+        private final int width;
+        private Object[] content;
+        private int index;
+        private int end;
+
+        EntryIterator(ChampNode root, int width) {
+            this.width = width;
+            stack.push(root);
+        }
+
+        /**
+         * Creates the element for an entry.
+         *
+         * @param key   The key of the entry.
+         * @param value The value of the entry, or the key for sets.
+         * @return The element to return from {@link #next()}.
+         */
+        abstract E entry(Object key, Object value);
+
+        @Override
+        public boolean hasNext() {
+            while (index >= end) {
+                ChampNode node = stack.poll();
+                if (node == null) {
+                    return false;
+                }
+                content = node.content;
+                index = 0;
+                end = node.nodeMap == 0 && node.dataMap == 0
+                        ? content.length
+                        : width * Integer.bitCount(node.dataMap);
+                for (int i = end; i < content.length; i++) {
+                    stack.push((ChampNode) content[i]);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E element = entry(content[index], content[index + width - 1]);
+            index += width;
+            return element;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package org.fungover.breeze.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Micro benchmarks comparing the persistent collections with the copy-on-write structures they
+ * replace. Each method returns the average time of one operation in nanoseconds.
+ */
+final class CollectionBenchmarkUtils {
+
+    private CollectionBenchmarkUtils() {
+    }
+
+    /**
+     * Benchmarks {@link FSet#add} on a set of {@code size} elements, which copies only the path
+     * to the new element.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of additions to average
+     * @return average time per addition in nanoseconds
+     */
+    static long benchmarkPersistentAdd(int size, int iterations) {
+        FSet<Integer> set = new FSet<>();
+        for (int value = 0; value < size; value++) {
+            set = set.add(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = size + i;
+            long startTime = System.nanoTime();
+            set.add(value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks an addition that copies the whole {@link RedBlackTree} before inserting, as
+     * {@link FSet#add} did before the set was backed by a persistent tree.
+     *
+     * @param size       number of elements in the tree
+     * @param iterations number of additions to average
+     * @return average time per addition in nanoseconds
+     */
+    static long benchmarkCopyOnWriteAdd(int size, int iterations) {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int value = 0; value < size; value++) {
+            tree.insert(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = size + i;
+            long startTime = System.nanoTime();
+            new RedBlackTree<>(tree).insert(value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks {@link FSet#remove} on a set of {@code size} elements.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of removals to average
+     * @return average time per removal in nanoseconds
+     */
+    static long benchmarkPersistentRemove(int size, int iterations) {
+        FSet<Integer> set = new FSet<>();
+        for (int value = 0; value < size; value++) {
+            set = set.add(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = i % size;
+            long startTime = System.nanoTime();
+            set.remove(value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks a removal that rebuilds the {@link RedBlackTree} without the element, as
+     * {@link FSet#remove} did before the set was backed by a persistent tree.
+     *
+     * @param size       number of elements in the tree
+     * @param iterations number of removals to average
+     * @return average time per removal in nanoseconds
+     */
+    static long benchmarkCopyOnWriteRemove(int size, int iterations) {
+        RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int value = 0; value < size; value++) {
+            tree.insert(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = i % size;
+            long startTime = System.nanoTime();
+            new RedBlackTree<Integer>().removalBySkip(tree, value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks {@link FSet#union} of two interleaved sets of {@code size} elements each,
+     * which merges the two ordered sequences.
+     *
+     * @param size       number of elements in each set
+     * @param iterations number of unions to average
+     * @return average time per union in nanoseconds
+     */
+    static long benchmarkMergeUnion(int size, int iterations) {
+        FSet<Integer> evens = new FSet<>();
+        FSet<Integer> odds = new FSet<>();
+        for (int value = 0; value < size; value++) {
+            evens = evens.add(value * 2);
+            odds = odds.add(value * 2 + 1);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            evens.union(odds);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks a union that inserts both trees into a new {@link RedBlackTree} one element at a
+     * time, as {@link FSet#union} did before it merged ordered sequences.
+     *
+     * @param size       number of elements in each tree
+     * @param iterations number of unions to average
+     * @return average time per union in nanoseconds
+     */
+    static long benchmarkInsertionUnion(int size, int iterations) {
+        RedBlackTree<Integer> evens = new RedBlackTree<>();
+        RedBlackTree<Integer> odds = new RedBlackTree<>();
+        for (int value = 0; value < size; value++) {
+            evens.insert(value * 2);
+            odds.insert(value * 2 + 1);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            RedBlackTree<Integer> union = new RedBlackTree<>();
+            union.insertFromAnotherTree(evens);
+            union.insertFromAnotherTree(odds);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks {@link FSet#of} on {@code size} shuffled elements, which sorts them once and
+     * builds the tree bottom-up.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of constructions to average
+     * @return average time per construction in nanoseconds
+     */
+    static long benchmarkBulkBuild(int size, int iterations) {
+        List<Integer> values = shuffled(size);
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            FSet.of(values);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks building a set of {@code size} shuffled elements with one {@link FSet#add} per
+     * element.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of constructions to average
+     * @return average time per construction in nanoseconds
+     */
+    static long benchmarkRepeatedAdd(int size, int iterations) {
+        List<Integer> values = shuffled(size);
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            FSet<Integer> set = new FSet<>();
+            for (Integer value : values) {
+                set = set.add(value);
+            }
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    private static List<Integer> shuffled(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int value = 0; value < size; value++) {
+            values.add(value);
+        }
+        Collections.shuffle(values, new Random(42));
+        return values;
+    }
+
+    /**
+     * Benchmarks {@link FHashSet#add} on a set of {@code size} elements, which copies only the
+     * trie nodes on the path to the new element.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of additions to average
+     * @return average time per addition in nanoseconds
+     */
+    static long benchmarkPersistentHashAdd(int size, int iterations) {
+        FHashSet<Integer> set = FHashSet.empty();
+        for (int value = 0; value < size; value++) {
+            set = set.add(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = size + i;
+            long startTime = System.nanoTime();
+            set.add(value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks an addition that copies the whole {@link HashSet} first, as the value sets of
+     * the multimap did before they were backed by {@link FHashSet}.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of additions to average
+     * @return average time per addition in nanoseconds
+     */
+    static long benchmarkCopyOnWriteHashAdd(int size, int iterations) {
+        Set<Integer> set = new HashSet<>();
+        for (int value = 0; value < size; value++) {
+            set.add(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            int value = size + i;
+            long startTime = System.nanoTime();
+            new HashSet<>(set).add(value);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks building a hash set of {@code size} shuffled elements through one
+     * {@link FHashSet.Transient}, which edits the trie nodes it owns in place.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of constructions to average
+     * @return average time per construction in nanoseconds
+     */
+    static long benchmarkTransientHashBuild(int size, int iterations) {
+        List<Integer> values = shuffled(size);
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            FHashSet.Transient<Integer> set = FHashSet.<Integer>empty().toTransient();
+            for (Integer value : values) {
+                set.add(value);
+            }
+            set.persistent();
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks building a hash set of {@code size} shuffled elements with one
+     * {@link FHashSet#add} per element, which creates a new version for every element.
+     *
+     * @param size       number of elements in the set
+     * @param iterations number of constructions to average
+     * @return average time per construction in nanoseconds
+     */
+    static long benchmarkPersistentHashBuild(int size, int iterations) {
+        List<Integer> values = shuffled(size);
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            FHashSet<Integer> set = FHashSet.empty();
+            for (Integer value : values) {
+                set = set.add(value);
+            }
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks {@link FList.IndexedFList#append} on a list of {@code size} elements, which
+     * touches only the digits at the end of the finger tree in the common case.
+     *
+     * @param size       number of elements in the list
+     * @param iterations number of appends to average
+     * @return average time per append in nanoseconds
+     */
+    static long benchmarkIndexedAppend(int size, int iterations) {
+        FList.IndexedFList<Integer> list = new FList.IndexedFList<>();
+        for (int value = 0; value < size; value++) {
+            list = list.append(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            list.append(size + i);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+
+    /**
+     * Benchmarks {@link FList#append} on a cons list of {@code size} elements, which copies the
+     * whole list.
+     *
+     * @param size       number of elements in the list
+     * @param iterations number of appends to average
+     * @return average time per append in nanoseconds
+     */
+    static long benchmarkConsAppend(int size, int iterations) {
+        FList<Integer> list = FList.empty();
+        for (int value = size - 1; value >= 0; value--) {
+            list = list.prepend(value);
+        }
+        long totalTime = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            list.append(size + i);
+            long endTime = System.nanoTime();
+            totalTime += (endTime - startTime);
+        }
+        return totalTime / iterations;
+    }
+}
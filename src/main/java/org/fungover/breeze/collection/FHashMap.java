@@ -0,0 +1,360 @@
+package org.fungover.breeze.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * An immutable hash map based on a compressed hash-array mapped prefix tree (CHAMP).
+ * <p>
+ * Keys only need consistent {@code equals} and {@code hashCode} methods. Every update returns a
+ * new map that shares all untouched nodes with the previous one, so {@link #put} and
+ * {@link #remove} copy {@code O(log32 n)} small nodes. Iteration order follows the hash codes
+ * of the keys and is not otherwise specified.
+ * </p>
+ *
+ * @param <K> The type of keys in the map.
+ * @param <V> The type of values in the map.
+ */
+public final class FHashMap<K, V> {
+
+    private static final FHashMap<?, ?> EMPTY = new FHashMap<>(ChampNode.EMPTY, 0, 0);
+
+    private final ChampNode root;
+    private final int size;
+    private final int hash;
+
+    private FHashMap(ChampNode root, int size, int hash) {
+        this.root = root;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> The type of keys in the map.
+     * @param <V> The type of values in the map.
+     * @return The shared empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FHashMap<K, V> empty() {
+        return (FHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Associates a value with a key, returning a new map. If the key is already mapped to this
+     * exact value, this map is returned.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return A map containing the mapping.
+     * @throws NullPointerException if the key or the value is null.
+     */
+    public FHashMap<K, V> put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+        if (value == null) {
+            throw new NullPointerException("Value cannot be null");
+        }
+        int keyHash = key.hashCode();
+        ChampNode.Change change = new ChampNode.Change();
+        ChampNode updated = root.put(null, key, value, keyHash, 0, 2, change);
+        if (updated == root) {
+            return this;
+        }
+        int entryHash = keyHash ^ value.hashCode();
+        if (change.added) {
+            return new FHashMap<>(updated, size + 1, hash + entryHash);
+        }
+        return new FHashMap<>(updated, size, hash + entryHash - (keyHash ^ change.oldValue.hashCode()));
+    }
+
+    /**
+     * Removes the mapping for a key, returning a new map. If the key is absent, this map is
+     * returned.
+     *
+     * @param key The key to remove.
+     * @return A map without the key.
+     * @throws NullPointerException if the key is null.
+     */
+    public FHashMap<K, V> remove(K key) {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+        int keyHash = key.hashCode();
+        ChampNode.Change change = new ChampNode.Change();
+        ChampNode updated = root.remove(null, key, keyHash, 0, 2, change);
+        if (updated == root) {
+            return this;
+        }
+        return new FHashMap<>(updated, size - 1, hash - (keyHash ^ change.oldValue.hashCode()));
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key The key to look up.
+     * @return an {@code Optional} containing the value, or an empty {@code Optional} if the key is absent
+     */
+    public Optional<V> get(Object key) {
+        return Optional.ofNullable(find(key));
+    }
+
+    /**
+     * Checks whether the map contains a key.
+     *
+     * @param key The key to look for.
+     * @return true if the key is mapped, false otherwise.
+     */
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V find(Object key) {
+        return key == null ? null : (V) root.find(key, key.hashCode(), 2);
+    }
+
+    /**
+     * Returns the number of mappings in the map.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if the map has no mappings, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a read-only {@link Map} view of this map. The view needs no copying; any attempt
+     * to modify it throws {@link UnsupportedOperationException}.
+     *
+     * @return An unmodifiable map view.
+     */
+    public Map<K, V> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<K, V>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<K, V>> iterator() {
+                        return entryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public V get(Object key) {
+                return find(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return find(key) != null;
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+        };
+    }
+
+    private Iterator<Map.Entry<K, V>> entryIterator() {
+        return new ChampNode.EntryIterator<>(root, 2) {
+            @Override
+            @SuppressWarnings("unchecked")
+            Map.Entry<K, V> entry(Object key, Object value) {
+                return new AbstractMap.SimpleImmutableEntry<>((K) key, (V) value);
+            }
+        };
+    }
+
+    /**
+     * Returns a transient copy of this map for a batch of updates. This map is not affected.
+     *
+     * @return A new transient holding the mappings of this map.
+     */
+    public Transient<K, V> toTransient() {
+        return new Transient<>(root, size, hash);
+    }
+
+    /**
+     * A mutable view of an {@link FHashMap} for building or updating it in a batch.
+     * <p>
+     * The transient owns every trie node it creates and changes those nodes in place, so a
+     * batch of updates copies each node at most once. {@link #persistent()} freezes the result
+     * in constant time, after which the transient cannot be used. A transient is not
+     * thread-safe and should stay with one thread.
+     * </p>
+     *
+     * @param <K> The type of keys in the map.
+     * @param <V> The type of values in the map.
+     */
+    public static final class Transient<K, V> {
+        private Object owner = new Object();
+        private ChampNode root;
+        private int size;
+        private int hash;
+
+        private Transient(ChampNode root, int size, int hash) {
+            this.root = root;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        /**
+         * Associates a value with a key.
+         *
+         * @param key   The key.
+         * @param value The value.
+         * @return This transient.
+         * @throws NullPointerException  if the key or the value is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<K, V> put(K key, V value) {
+            ensureEditable();
+            if (key == null) {
+                throw new NullPointerException("Key cannot be null");
+            }
+            if (value == null) {
+                throw new NullPointerException("Value cannot be null");
+            }
+            int keyHash = key.hashCode();
+            ChampNode.Change change = new ChampNode.Change();
+            root = root.put(owner, key, value, keyHash, 0, 2, change);
+            if (change.added) {
+                size++;
+                hash += keyHash ^ value.hashCode();
+            } else if (change.oldValue != null) {
+                hash += (keyHash ^ value.hashCode()) - (keyHash ^ change.oldValue.hashCode());
+            }
+            return this;
+        }
+
+        /**
+         * Removes the mapping for a key.
+         *
+         * @param key The key to remove.
+         * @return This transient.
+         * @throws NullPointerException  if the key is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<K, V> remove(K key) {
+            ensureEditable();
+            if (key == null) {
+                throw new NullPointerException("Key cannot be null");
+            }
+            int keyHash = key.hashCode();
+            ChampNode.Change change = new ChampNode.Change();
+            root = root.remove(owner, key, keyHash, 0, 2, change);
+            if (change.oldValue != null) {
+                size--;
+                hash -= keyHash ^ change.oldValue.hashCode();
+            }
+            return this;
+        }
+
+        /**
+         * Returns the value mapped to a key.
+         *
+         * @param key The key to look up.
+         * @return an {@code Optional} containing the value, or an empty {@code Optional} if the key is absent
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        @SuppressWarnings("unchecked")
+        public Optional<V> get(Object key) {
+            ensureEditable();
+            return key == null ? Optional.empty() : Optional.ofNullable((V) root.find(key, key.hashCode(), 2));
+        }
+
+        /**
+         * Returns the number of mappings.
+         *
+         * @return The number of keys.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Freezes the transient into an immutable map. The transient cannot be used afterwards.
+         *
+         * @return An FHashMap with the mappings of the transient.
+         * @throws IllegalStateException if {@link #persistent()} has already been called.
+         */
+        public FHashMap<K, V> persistent() {
+            ensureEditable();
+            owner = null;
+            return new FHashMap<>(root, size, hash);
+        }
+
+        private void ensureEditable() {
+            if (owner == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+
+    /**
+     * Checks if two FHashMaps contain the same mappings. The tries are compared node by node,
+     * and nodes the two maps share are not visited.
+     *
+     * @param o The object to compare this map with.
+     * @return true if both maps contain the same mappings.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FHashMap<?, ?> other) || size != other.size || hash != other.hash) return false;
+        return root.equivalent(other.root, 0, 2);
+    }
+
+    /**
+     * Returns the sum of the hash codes of the entries, as for {@link Map#hashCode()}. It is
+     * maintained on every update, so this takes constant time.
+     *
+     * @return The hash code of the map.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "FHashMap {", "}");
+        Iterator<Map.Entry<K, V>> entries = entryIterator();
+        while (entries.hasNext()) {
+            Map.Entry<K, V> entry = entries.next();
+            joiner.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,324 @@
+package org.fungover.breeze.collection;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * An immutable hash set based on a compressed hash-array mapped prefix tree (CHAMP).
+ * <p>
+ * Unlike {@link FSet}, elements only need consistent {@code equals} and {@code hashCode}
+ * methods. Every update returns a new set that shares all untouched nodes with the previous one,
+ * so {@link #add} and {@link #remove} copy {@code O(log32 n)} small nodes. Iteration order
+ * follows the hash codes and is not otherwise specified.
+ * </p>
+ *
+ * @param <T> The type of elements in the set.
+ */
+public final class FHashSet<T> implements Iterable<T> {
+
+    private static final FHashSet<?> EMPTY = new FHashSet<>(ChampNode.EMPTY, 0, 0);
+
+    private final ChampNode root;
+    private final int size;
+    private final int hash;
+
+    private FHashSet(ChampNode root, int size, int hash) {
+        this.root = root;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the empty set.
+     *
+     * @param <T> The type of elements in the set.
+     * @return The shared empty set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FHashSet<T> empty() {
+        return (FHashSet<T>) EMPTY;
+    }
+
+    /**
+     * Creates a set with the elements of a collection, ignoring duplicates.
+     *
+     * @param elements The elements of the set.
+     * @param <T>      The type of elements in the set.
+     * @return A new FHashSet with the distinct elements.
+     * @throws NullPointerException if any element is null.
+     */
+    public static <T> FHashSet<T> of(Collection<? extends T> elements) {
+        Transient<T> set = FHashSet.<T>empty().toTransient();
+        for (T element : elements) {
+            set.add(element);
+        }
+        return set.persistent();
+    }
+
+    /**
+     * Adds an element, returning a new set. If the element is already present, this set is
+     * returned.
+     *
+     * @param element The element to add.
+     * @return A set containing the element.
+     * @throws NullPointerException if the element is null.
+     */
+    public FHashSet<T> add(T element) {
+        if (element == null) {
+            throw new NullPointerException("Cannot add null element to FHashSet");
+        }
+        int elementHash = element.hashCode();
+        ChampNode.Change change = new ChampNode.Change();
+        ChampNode updated = root.put(null, element, null, elementHash, 0, 1, change);
+        return updated == root ? this : new FHashSet<>(updated, size + 1, hash + elementHash);
+    }
+
+    /**
+     * Removes an element, returning a new set. If the element is absent, this set is returned.
+     *
+     * @param element The element to remove.
+     * @return A set without the element.
+     * @throws NullPointerException if the element is null.
+     */
+    public FHashSet<T> remove(T element) {
+        if (element == null) {
+            throw new NullPointerException("Cannot remove null element from FHashSet");
+        }
+        int elementHash = element.hashCode();
+        ChampNode.Change change = new ChampNode.Change();
+        ChampNode updated = root.remove(null, element, elementHash, 0, 1, change);
+        return updated == root ? this : new FHashSet<>(updated, size - 1, hash - elementHash);
+    }
+
+    /**
+     * Checks whether the set contains an element.
+     *
+     * @param element The element to look for.
+     * @return true if the element is in the set, false otherwise.
+     */
+    public boolean contains(Object element) {
+        return element != null && root.find(element, element.hashCode(), 1) != null;
+    }
+
+    /**
+     * Returns the number of elements in the set.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return true if the set has no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator over the elements.
+     *
+     * @return An iterator over the elements of the set.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ChampNode.EntryIterator<>(root, 1) {
+            @Override
+            @SuppressWarnings("unchecked")
+            T entry(Object key, Object value) {
+                return (T) key;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only {@link Set} view of this set. The view needs no copying; any attempt
+     * to modify it throws {@link UnsupportedOperationException}.
+     *
+     * @return An unmodifiable set view.
+     */
+    public Set<T> asSet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return FHashSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return FHashSet.this.contains(o);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+        };
+    }
+
+    /**
+     * Returns a transient copy of this set for a batch of updates. This set is not affected.
+     *
+     * @return A new transient holding the elements of this set.
+     */
+    public Transient<T> toTransient() {
+        return new Transient<>(root, size, hash);
+    }
+
+    /**
+     * A mutable view of an {@link FHashSet} for building or updating it in a batch.
+     * <p>
+     * The transient owns every trie node it creates and changes those nodes in place, so a
+     * batch of updates copies each node at most once instead of once per update. Nodes shared
+     * with the set it was created from are copied on the first change, as in the persistent set.
+     * {@link #persistent()} freezes the result in constant time, after which the transient
+     * cannot be used. A transient is not thread-safe and should stay with one thread.
+     * </p>
+     *
+     * @param <T> The type of elements in the set.
+     */
+    public static final class Transient<T> {
+        private Object owner = new Object();
+        private ChampNode root;
+        private int size;
+        private int hash;
+
+        private Transient(ChampNode root, int size, int hash) {
+            this.root = root;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        /**
+         * Adds an element.
+         *
+         * @param element The element to add.
+         * @return This transient.
+         * @throws NullPointerException  if the element is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> add(T element) {
+            ensureEditable();
+            if (element == null) {
+                throw new NullPointerException("Cannot add null element to FHashSet");
+            }
+            int elementHash = element.hashCode();
+            ChampNode.Change change = new ChampNode.Change();
+            root = root.put(owner, element, null, elementHash, 0, 1, change);
+            if (change.added) {
+                size++;
+                hash += elementHash;
+            }
+            return this;
+        }
+
+        /**
+         * Removes an element.
+         *
+         * @param element The element to remove.
+         * @return This transient.
+         * @throws NullPointerException  if the element is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> remove(T element) {
+            ensureEditable();
+            if (element == null) {
+                throw new NullPointerException("Cannot remove null element from FHashSet");
+            }
+            int elementHash = element.hashCode();
+            ChampNode.Change change = new ChampNode.Change();
+            root = root.remove(owner, element, elementHash, 0, 1, change);
+            if (change.oldValue != null) {
+                size--;
+                hash -= elementHash;
+            }
+            return this;
+        }
+
+        /**
+         * Checks whether the transient contains an element.
+         *
+         * @param element The element to look for.
+         * @return true if the element is present, false otherwise.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public boolean contains(Object element) {
+            ensureEditable();
+            return element != null && root.find(element, element.hashCode(), 1) != null;
+        }
+
+        /**
+         * Returns the number of elements.
+         *
+         * @return The number of elements.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Freezes the transient into an immutable set. The transient cannot be used afterwards.
+         *
+         * @return An FHashSet with the elements of the transient.
+         * @throws IllegalStateException if {@link #persistent()} has already been called.
+         */
+        public FHashSet<T> persistent() {
+            ensureEditable();
+            owner = null;
+            return new FHashSet<>(root, size, hash);
+        }
+
+        private void ensureEditable() {
+            if (owner == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+
+    /**
+     * Checks if two FHashSets contain the same elements. The tries are compared node by node,
+     * and nodes the two sets share are not visited.
+     *
+     * @param o The object to compare this set with.
+     * @return true if both sets contain the same elements.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FHashSet<?> other) || size != other.size || hash != other.hash) return false;
+        return root.equivalent(other.root, 0, 1);
+    }
+
+    /**
+     * Returns the sum of the hash codes of the elements, as for {@link Set#hashCode()}. It is
+     * maintained on every update, so this takes constant time.
+     *
+     * @return The hash code of the set.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "FHashSet {", "}");
+        for (T element : this) {
+            joiner.add(String.valueOf(element));
+        }
+        return joiner.toString();
+    }
+}
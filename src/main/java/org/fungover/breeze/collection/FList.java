@@ -1,5 +1,9 @@
 package org.fungover.breeze.collection;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -83,6 +87,105 @@ public abstract class FList<T> {
      */
     public abstract FList<T> reverse();
 
+    /**
+     * Returns a transient copy of this list for a batch of updates.
+     *
+     * The elements are copied once into a mutable buffer; this list is not affected.
+     *
+     * @return a new transient holding the elements of this list
+     */
+    public Transient<T> toTransient() {
+        return new Transient<>(toArrayList(this), false);
+    }
+
+    /**
+     * A mutable view of an FList for updating it in a batch.
+     *
+     * Both prepend and append take O(1) amortized time on buffers owned by the transient,
+     * whereas {@link FList#append} copies the whole list. {@link #persistent()} links the
+     * buffers into a list in O(n), after which the transient cannot be used. A transient taken
+     * from an {@link IndexedFList} is frozen into an IndexedFList again.
+     * A transient is not thread-safe.
+     *
+     * @param <T> the type of elements in the list
+     */
+    public static final class Transient<T> {
+        private List<T> prepended = new ArrayList<>();
+        private List<T> elements;
+        private final boolean indexed;
+
+        private Transient(List<T> elements, boolean indexed) {
+            this.elements = elements;
+            this.indexed = indexed;
+        }
+
+        /**
+         * Adds an element at the front.
+         *
+         * @param element the element to add
+         * @return this transient
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public Transient<T> prepend(T element) {
+            ensureEditable();
+            prepended.add(element);
+            return this;
+        }
+
+        /**
+         * Adds an element at the end.
+         *
+         * @param element the element to add
+         * @return this transient
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public Transient<T> append(T element) {
+            ensureEditable();
+            elements.add(element);
+            return this;
+        }
+
+        /**
+         * Returns the number of elements.
+         *
+         * @return the number of elements
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public int size() {
+            ensureEditable();
+            return prepended.size() + elements.size();
+        }
+
+        /**
+         * Freezes the transient into an immutable list. The transient cannot be used afterwards.
+         *
+         * @return an FList with the elements of the transient, an {@link IndexedFList} if the
+         *         transient was taken from one
+         * @throws IllegalStateException if {@link #persistent()} has already been called
+         */
+        public FList<T> persistent() {
+            ensureEditable();
+            FList<T> result;
+            if (indexed) {
+                result = IndexedFList.fromBuffers(prepended, elements);
+            } else {
+                result = fromList(elements);
+                for (T element : prepended) {
+                    result = new Cons<>(element, result);
+                }
+            }
+            prepended = null;
+            elements = null;
+            return result;
+        }
+
+        private void ensureEditable() {
+            if (elements == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+
 
     /**
      * Returns an empty list.
@@ -95,6 +198,36 @@ public abstract class FList<T> {
         return (FList<T>) Empty.SHARED_EMPTY;
     }
 
+    /**
+     * Copies the elements of a list into an ArrayList, walking it without recursion.
+     *
+     * @param list the list to copy
+     * @param <T>  the type of elements in the list
+     * @return the elements of the list in order
+     */
+    private static <T> List<T> toArrayList(FList<T> list) {
+        List<T> elements = new ArrayList<>(list.size());
+        for (FList<T> current = list; !current.isEmpty(); current = current.tail()) {
+            elements.add(current.head());
+        }
+        return elements;
+    }
+
+    /**
+     * Links the given elements into a list, starting from the last one.
+     *
+     * @param elements the elements in order
+     * @param <T>      the type of elements in the list
+     * @return a list holding the elements
+     */
+    private static <T> FList<T> fromList(List<T> elements) {
+        FList<T> result = empty();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            result = new Cons<>(elements.get(i), result);
+        }
+        return result;
+    }
+
     /**
      * Private static class representing an empty list.
      *
@@ -267,32 +400,20 @@ public abstract class FList<T> {
         /**
          * Appends the specified element to the end of the list.
          *
-         * This method iterates through the current list, prepending each element to a new list.
-         * After all elements are copied, the new element is prepended to the new list.
-         * Finally, the new list is reversed to maintain the correct order.
+         * This method collects the elements of the current list followed by the new element,
+         * then links them into a new list from the back, copying every element once.
          *
          * Time complexity: O(n), where n is the number of elements in the list.
+         * Use {@link IndexedFList} when appending repeatedly.
          *
          * @param element the element to be appended to the list
          * @return a new FList with the specified element appended
          */
         @Override
         public FList<T> append(T element) {
-            // Create a new list to hold the result
-            FList<T> result = new Empty<>();
-            FList<T> current = this;
-
-            // Iterate through the list and copy elements to the new list
-            while (!current.isEmpty()) {
-                result = result.prepend(current.head());
-                current = current.tail();
-            }
-
-            // Add the new element
-            result = result.prepend(element);
-
-            // Reverse the list to get the correct order
-            return result.reverse();
+            List<T> elements = toArrayList(this);
+            elements.add(element);
+            return fromList(elements);
         }
 
         /**
@@ -324,7 +445,11 @@ public abstract class FList<T> {
          */
         @Override
         public <R> FList<R> map(Function<T, R> f) {
-            return new Cons<>(f.apply(head), tail.map(f));
+            List<R> mapped = new ArrayList<>(cachedSize);
+            for (FList<T> current = this; !current.isEmpty(); current = current.tail()) {
+                mapped.add(f.apply(current.head()));
+            }
+            return fromList(mapped);
         }
 
         /**
@@ -335,11 +460,13 @@ public abstract class FList<T> {
          */
         @Override
         public FList<T> filter(Predicate<T> p) {
-            if (p.test(head)) {
-                return new Cons<>(head, tail.filter(p));
-            } else {
-                return tail.filter(p);
+            List<T> kept = new ArrayList<>();
+            for (FList<T> current = this; !current.isEmpty(); current = current.tail()) {
+                if (p.test(current.head())) {
+                    kept.add(current.head());
+                }
             }
+            return fromList(kept);
         }
 
         /**
@@ -487,4 +614,267 @@ public abstract class FList<T> {
             return cachedReversed;
         }
     }
+
+    /**
+     * IndexedFList is a persistent indexed sequence backed by a finger tree annotated with sizes.
+     *
+     * Prepending, appending and removing the head take amortized O(1) time, and indexed access,
+     * update, slicing and concatenation take O(log n) time. Unlike the cons list, appending n
+     * elements one at a time takes O(n) time in total. map, filter and reverse walk the list
+     * with an iterator, so they do not recurse on long lists.
+     *
+     * @param <T> the type of elements in this list
+     */
+    public static final class IndexedFList<T> extends FList<T> implements Iterable<T> {
+        private final FingerTree tree;
+
+        /**
+         * Constructs an empty IndexedFList.
+         */
+        public IndexedFList() {
+            this(FingerTree.EMPTY);
+        }
+
+        /**
+         * Constructs an IndexedFList with the elements of the given list, in order.
+         *
+         * @param original the list to copy
+         */
+        public IndexedFList(FList<T> original) {
+            this(treeOf(original));
+        }
+
+        private IndexedFList(FingerTree tree) {
+            this.tree = tree;
+        }
+
+        private static <T> IndexedFList<T> fromBuffers(List<T> prepended, List<T> elements) {
+            FingerTree tree = FingerTree.EMPTY;
+            for (T element : elements) {
+                tree = tree.pushBack(element);
+            }
+            for (T element : prepended) {
+                tree = tree.pushFront(element);
+            }
+            return new IndexedFList<>(tree);
+        }
+
+        private static FingerTree treeOf(FList<?> list) {
+            if (list instanceof IndexedFList<?> indexed) {
+                return indexed.tree;
+            }
+            FingerTree tree = FingerTree.EMPTY;
+            for (FList<?> current = list; !current.isEmpty(); current = current.tail()) {
+                tree = tree.pushBack(current.head());
+            }
+            return tree;
+        }
+
+        /**
+         * Returns the first element of the list.
+         *
+         * @return the head element of the list
+         * @throws UnsupportedOperationException if the list is empty
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T head() {
+            if (tree.isEmpty()) {
+                throw new UnsupportedOperationException("Empty list has no head");
+            }
+            return (T) tree.first();
+        }
+
+        /**
+         * Returns the list without its first element, in amortized O(1) time.
+         *
+         * @return the tail of the list
+         * @throws UnsupportedOperationException if the list is empty
+         */
+        @Override
+        public IndexedFList<T> tail() {
+            if (tree.isEmpty()) {
+                throw new UnsupportedOperationException("Empty list has no tail");
+            }
+            return new IndexedFList<>(tree.removeFirst());
+        }
+
+        /**
+         * Returns a new list with the specified element added at the front, in amortized O(1) time.
+         *
+         * @param element the element to add
+         * @return a new list with the element added at the front
+         */
+        @Override
+        public IndexedFList<T> prepend(T element) {
+            return new IndexedFList<>(tree.pushFront(element));
+        }
+
+        /**
+         * Returns a new list with the specified element added at the end, in amortized O(1) time.
+         *
+         * @param element the element to add
+         * @return a new list with the element added at the end
+         */
+        @Override
+        public IndexedFList<T> append(T element) {
+            return new IndexedFList<>(tree.pushBack(element));
+        }
+
+        /**
+         * Checks if the list is empty.
+         *
+         * @return true if the list is empty, false otherwise
+         */
+        @Override
+        public boolean isEmpty() {
+            return tree.isEmpty();
+        }
+
+        /**
+         * Returns the number of elements in the list, which the tree keeps up to date.
+         *
+         * @return the size of the list
+         */
+        @Override
+        public int size() {
+            return tree.size();
+        }
+
+        /**
+         * Returns the element at the specified position in O(log n) time.
+         *
+         * @param index the position of the element
+         * @return the element at the position
+         * @throws IndexOutOfBoundsException if the index is negative or not less than the size
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Objects.checkIndex(index, tree.size());
+            return (T) tree.get(index);
+        }
+
+        /**
+         * Returns a new list with the element at the specified position replaced, in O(log n) time.
+         *
+         * @param index   the position of the element to replace
+         * @param element the new element
+         * @return a new list with the element replaced
+         * @throws IndexOutOfBoundsException if the index is negative or not less than the size
+         */
+        public IndexedFList<T> update(int index, T element) {
+            Objects.checkIndex(index, tree.size());
+            FingerTree.Split split = tree.split(index);
+            return new IndexedFList<>(FingerTree.concat(split.left.pushBack(element), split.right));
+        }
+
+        /**
+         * Returns a new list with the elements of this list followed by those of another list.
+         * Two IndexedFLists are joined in O(log n) time; any other list is copied first.
+         *
+         * @param other the list to add at the end
+         * @return the concatenated list
+         */
+        public IndexedFList<T> concat(FList<T> other) {
+            return new IndexedFList<>(FingerTree.concat(tree, treeOf(other)));
+        }
+
+        /**
+         * Returns the elements from {@code from}, inclusive, to {@code to}, exclusive, as a new
+         * list in O(log n) time. The new list shares its structure with this one.
+         *
+         * @param from the position of the first element to keep
+         * @param to   the position after the last element to keep
+         * @return the slice of the list
+         * @throws IndexOutOfBoundsException if {@code from} or {@code to} is out of range, or
+         *                                   {@code from} is greater than {@code to}
+         */
+        public IndexedFList<T> slice(int from, int to) {
+            Objects.checkFromToIndex(from, to, tree.size());
+            if (from == to) {
+                return new IndexedFList<>();
+            }
+            FingerTree result = tree;
+            if (to < tree.size()) {
+                result = result.split(to).left;
+            }
+            if (from > 0) {
+                FingerTree.Split split = result.split(from);
+                result = split.right.pushFront(split.item);
+            }
+            return new IndexedFList<>(result);
+        }
+
+        /**
+         * Returns a transient copy of this list for a batch of updates. Its
+         * {@link Transient#persistent()} builds a new IndexedFList, so indexed access stays
+         * O(log n) after the batch.
+         *
+         * @return a new transient holding the elements of this list
+         */
+        @Override
+        public Transient<T> toTransient() {
+            List<T> elements = new ArrayList<>(size());
+            forEach(elements::add);
+            return new Transient<>(elements, true);
+        }
+
+        /**
+         * Returns an iterator over the elements in order.
+         *
+         * @return an iterator over the list
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<T> iterator() {
+            return (Iterator<T>) tree.iterator();
+        }
+
+        /**
+         * Returns a new list with the function applied to each element.
+         *
+         * @param <R> the type of elements in the new list
+         * @param f   the function to apply to each element
+         * @return a new IndexedFList with the function applied to each element
+         */
+        @Override
+        public <R> IndexedFList<R> map(Function<T, R> f) {
+            FingerTree mapped = FingerTree.EMPTY;
+            for (T element : this) {
+                mapped = mapped.pushBack(f.apply(element));
+            }
+            return new IndexedFList<>(mapped);
+        }
+
+        /**
+         * Returns a new list with only the elements that satisfy the predicate.
+         *
+         * @param p the predicate to test elements
+         * @return a new IndexedFList with only the elements that satisfy the predicate
+         */
+        @Override
+        public IndexedFList<T> filter(Predicate<T> p) {
+            FingerTree kept = FingerTree.EMPTY;
+            for (T element : this) {
+                if (p.test(element)) {
+                    kept = kept.pushBack(element);
+                }
+            }
+            return new IndexedFList<>(kept);
+        }
+
+        /**
+         * Returns a new list with the elements in reverse order.
+         *
+         * @return a new IndexedFList with the elements in reverse order
+         */
+        @Override
+        public IndexedFList<T> reverse() {
+            FingerTree reversed = FingerTree.EMPTY;
+            for (T element : this) {
+                reversed = reversed.pushFront(element);
+            }
+            return new IndexedFList<>(reversed);
+        }
+    }
 }
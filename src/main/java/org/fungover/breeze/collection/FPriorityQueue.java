@@ -123,6 +123,17 @@ public final class FPriorityQueue<T>{
         if (index >= originalHeap.size()) return originalHeap;
 
         List<Node<T>> heap = new ArrayList<>(originalHeap);
+        return siftDown(heap, index) ? heap : originalHeap;
+    }
+
+    /**
+     * Moves the element at the given index down the heap in place until the heap property holds.
+     *
+     * @param heap  the list representing the heap, which is modified.
+     * @param index the index of the element to be moved down.
+     * @return {@code true} if any elements were swapped.
+     */
+    private static <T> boolean siftDown(List<Node<T>> heap, int index) {
         int size = heap.size();
         boolean swapped = false;
 
@@ -144,7 +155,7 @@ public final class FPriorityQueue<T>{
             swapped = true;
             index = smallest;
         }
-        return swapped ? heap : originalHeap;
+        return swapped;
     }
 
     /**
@@ -156,7 +167,7 @@ public final class FPriorityQueue<T>{
      * @param heap  The list representing the heap.
      * @param index The index of the newly added element that may violate the heap property.
      */
-    private void heapifyUp(List<Node<T>> heap, int index) {
+    private static <T> void heapifyUp(List<Node<T>> heap, int index) {
         while (index > 0) {
             int parentIndex = (index - 1) / 2;
             if (heap.get(index).priority >= heap.get(parentIndex).priority) {
@@ -167,6 +178,109 @@ public final class FPriorityQueue<T>{
         }
     }
 
+    /**
+     * Returns a transient copy of this priority queue for a batch of updates. The heap is copied
+     * once; this queue is not affected.
+     *
+     * @return a new transient holding the elements of this queue.
+     */
+    public Transient<T> toTransient() {
+        return new Transient<>(new ArrayList<>(heap));
+    }
+
+    /**
+     * A mutable view of an {@link FPriorityQueue} for updating it in a batch.
+     *
+     * <p>The transient owns its copy of the heap and updates it in place, so a batch of
+     * {@code k} operations costs {@code O(n + k log n)} instead of copying the heap {@code k}
+     * times. {@link #persistent()} hands the heap to a new priority queue without copying it,
+     * after which the transient cannot be used. A transient is not thread-safe.</p>
+     *
+     * @param <T> The type of elements in the priority queue.
+     */
+    public static final class Transient<T> {
+        private List<Node<T>> heap;
+
+        private Transient(List<Node<T>> heap) {
+            this.heap = heap;
+        }
+
+        /**
+         * Inserts an element with a given priority.
+         *
+         * @param element  The element to be added.
+         * @param priority The priority of the element (lower value indicates higher priority).
+         * @return this transient.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> enqueue(T element, int priority) {
+            ensureEditable();
+            heap.add(new Node<>(element, priority));
+            heapifyUp(heap, heap.size() - 1);
+            return this;
+        }
+
+        /**
+         * Removes the element with the highest priority. Does nothing if the queue is empty.
+         *
+         * @return this transient.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> dequeue() {
+            ensureEditable();
+            if (!heap.isEmpty()) {
+                Collections.swap(heap, 0, heap.size() - 1);
+                heap.remove(heap.size() - 1);
+                siftDown(heap, 0);
+            }
+            return this;
+        }
+
+        /**
+         * Retrieves, but does not remove, the element with the highest priority.
+         *
+         * @return the element with the highest priority.
+         * @throws NoSuchElementException if the queue is empty.
+         * @throws IllegalStateException  if {@link #persistent()} has been called.
+         */
+        public T peek() {
+            ensureEditable();
+            if (heap.isEmpty())
+                throw new NoSuchElementException("Priority queue is empty");
+            return heap.get(0).element;
+        }
+
+        /**
+         * Returns the number of elements.
+         *
+         * @return the number of elements.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public int size() {
+            ensureEditable();
+            return heap.size();
+        }
+
+        /**
+         * Freezes the transient into an immutable priority queue. The transient cannot be used
+         * afterwards.
+         *
+         * @return an FPriorityQueue with the elements of the transient.
+         * @throws IllegalStateException if {@link #persistent()} has already been called.
+         */
+        public FPriorityQueue<T> persistent() {
+            ensureEditable();
+            FPriorityQueue<T> queue = new FPriorityQueue<>(heap);
+            heap = null;
+            return queue;
+        }
+
+        private void ensureEditable() {
+            if (heap == null)
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+        }
+    }
+
     /**
      * Inner class representing an element in the priority queue with its associated priority.
      * Each node contains an element and its priority value.
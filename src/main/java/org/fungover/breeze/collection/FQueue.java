@@ -132,4 +132,100 @@ public class FQueue<T> {
         return Collections.unmodifiableList(combined);
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a transient copy of this queue for a batch of updates.
+     * The elements are copied once in FIFO order; this queue is not affected.
+     *
+     * @return a new transient holding the elements of this queue
+     */
+    public Transient<T> toTransient() {
+        return new Transient<>(new ArrayList<>(toList()));
+    }
+
+    /**
+     * A mutable view of an {@code FQueue} for updating it in a batch.
+     * The transient owns its buffer, so {@link #enqueue} and {@link #dequeue} take O(1)
+     * amortized time instead of copying the back list on every call.
+     * {@link #persistent()} freezes the result, after which the transient cannot be used.
+     * A transient is not thread-safe.
+     *
+     * @param <T> the type of elements in the queue
+     */
+    public static final class Transient<T> {
+        private List<T> elements;
+        private int head;
+
+        private Transient(List<T> elements) {
+            this.elements = elements;
+        }
+
+        /**
+         * Adds an element to the end of the queue.
+         *
+         * @param element the element to be added
+         * @return this transient
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public Transient<T> enqueue(T element) {
+            ensureEditable();
+            elements.add(element);
+            return this;
+        }
+
+        /**
+         * Removes the first element from the queue. Does nothing if the queue is empty.
+         *
+         * @return this transient
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public Transient<T> dequeue() {
+            ensureEditable();
+            if (head < elements.size()) {
+                elements.set(head++, null);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the first element in the queue without removing it.
+         *
+         * @return an {@code Optional} containing the first element if present, otherwise an empty {@code Optional}
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public Optional<T> peek() {
+            ensureEditable();
+            return head < elements.size() ? Optional.of(elements.get(head)) : Optional.empty();
+        }
+
+        /**
+         * Returns the number of elements in the queue.
+         *
+         * @return the size of the queue
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public int size() {
+            ensureEditable();
+            return elements.size() - head;
+        }
+
+        /**
+         * Freezes the transient into an immutable queue. The transient cannot be used afterwards.
+         *
+         * @return an {@code FQueue} with the elements of the transient in FIFO order
+         * @throws IllegalStateException if {@link #persistent()} has already been called
+         */
+        public FQueue<T> persistent() {
+            ensureEditable();
+            List<T> front = head == 0 ? elements : new ArrayList<>(elements.subList(head, elements.size()));
+            elements = null;
+            return new FQueue<>(front, Collections.emptyList());
+        }
+
+        private void ensureEditable() {
+            if (elements == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+}
@@ -1,37 +1,299 @@
 package org.fungover.breeze.collection;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * FSet is an immutable set implementation based on a RedBlackTree.
+ * FSet is an immutable set implementation based on a persistent RedBlackTree.
  * It provides various set operations like add, remove, union, intersection, and symmetric difference.
+ * <p>
+ * Updates copy only the path from the root to the changed element and share the rest of the tree
+ * with the previous set, so {@link #add} and {@link #remove} run in {@code O(log n)} time and space.
+ * Elements are kept in their natural order, which is also the order of iteration and of
+ * {@link #stream()}.
+ * </p>
  *
  * @param <T> The type of elements in the set, must be Comparable.
  */
-public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
+public final class FSet<T extends Comparable<T>> implements SetProcedural<T>, Iterable<T> {
 
-    private final RedBlackTree<T> tree;
+    private final PersistentRedBlackTree<T> tree;
 
 
     /**
      * Default constructor that initializes an empty RedBlackTree for the set.
      */
     public FSet() {
-        this.tree = new RedBlackTree<>();
+        this.tree = PersistentRedBlackTree.empty();
     }
 
     /**
-     * Constructor that initializes the FSet with an existing RedBlackTree.
+     * Constructor that initializes the FSet with the elements of an existing RedBlackTree.
      *
      * @param tree The RedBlackTree to initialize the FSet with.
      */
     public FSet(RedBlackTree<T> tree) {
-        this.tree = new RedBlackTree<>(tree);
+        Object[] values = new Object[tree.getSize()];
+        int[] length = {0};
+        tree.forEach(value -> values[length[0]++] = value);
+        this.tree = PersistentRedBlackTree.fromUnsorted(values, length[0]);
+    }
+
+    private FSet(PersistentRedBlackTree<T> tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * Creates an FSet with the elements of a collection in any order, ignoring duplicates.
+     * <p>
+     * The elements are sorted once, in parallel for large collections, and the tree is built
+     * bottom-up in {@code O(n)}, so the whole construction takes {@code O(n log n)} instead of
+     * {@code n} separate additions.
+     * </p>
+     *
+     * @param elements The elements of the set.
+     * @param <T>      The type of elements in the set.
+     * @return A new FSet with the distinct elements.
+     * @throws NullPointerException if the collection or any element is null.
+     */
+    public static <T extends Comparable<T>> FSet<T> of(Collection<? extends T> elements) {
+        Object[] values = toArray(elements);
+        return new FSet<>(PersistentRedBlackTree.<T>fromUnsorted(values, values.length));
+    }
+
+    /**
+     * Creates an FSet from elements that are already in strictly ascending order, building the
+     * tree in {@code O(n)} without sorting.
+     *
+     * @param elements The elements of the set in ascending order.
+     * @param <T>      The type of elements in the set.
+     * @return A new FSet with the elements.
+     * @throws NullPointerException     if the collection or any element is null.
+     * @throws IllegalArgumentException if the elements are not in strictly ascending order.
+     */
+    public static <T extends Comparable<T>> FSet<T> fromSorted(Collection<? extends T> elements) {
+        Object[] values = toArray(elements);
+        if (!PersistentRedBlackTree.isStrictlyAscending(values, values.length)) {
+            throw new IllegalArgumentException("Elements must be in strictly ascending order");
+        }
+        return new FSet<>(PersistentRedBlackTree.<T>fromSorted(values, values.length));
+    }
+
+    /**
+     * Returns a builder that collects elements into a mutable buffer and builds an FSet from
+     * them in one step.
+     *
+     * @param <T> The type of elements in the set.
+     * @return A new, empty builder.
+     */
+    public static <T extends Comparable<T>> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private static Object[] toArray(Collection<?> elements) {
+        if (elements == null) {
+            throw new NullPointerException("Elements cannot be null");
+        }
+        Object[] values = elements.toArray();
+        for (Object value : values) {
+            if (value == null) {
+                throw new NullPointerException("Cannot add null element to FSet");
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns a transient copy of this set for a batch of updates. This set is not affected.
+     *
+     * @return A new transient holding the elements of this set.
+     */
+    public Transient<T> toTransient() {
+        return new Transient<>(tree);
+    }
+
+    /**
+     * A mutable view of an {@link FSet} for updating it in a batch.
+     * <p>
+     * The transient owns every tree node it creates and rebuilds those nodes in place, so a batch
+     * of updates copies each node at most once instead of once per update. Nodes shared with the
+     * set it was created from are copied on the first change, as in the persistent set, and
+     * queries see every update immediately. {@link #persistent()} freezes the result in constant
+     * time, after which the transient cannot be used. A transient is not thread-safe and should
+     * stay with one thread.
+     * </p>
+     *
+     * @param <T> The type of elements in the set.
+     */
+    public static final class Transient<T extends Comparable<T>> {
+        private Object owner = new Object();
+        private PersistentRedBlackTree<T> tree;
+
+        private Transient(PersistentRedBlackTree<T> tree) {
+            this.tree = tree;
+        }
+
+        /**
+         * Adds an element.
+         *
+         * @param element The element to add.
+         * @return This transient.
+         * @throws NullPointerException  if the element is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> add(T element) {
+            ensureEditable();
+            if (element == null) {
+                throw new NullPointerException("Cannot add null element to FSet");
+            }
+            tree = tree.insert(owner, element);
+            return this;
+        }
+
+        /**
+         * Removes an element.
+         *
+         * @param element The element to remove.
+         * @return This transient.
+         * @throws NullPointerException  if the element is null.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public Transient<T> remove(T element) {
+            ensureEditable();
+            if (element == null) {
+                throw new NullPointerException("Cannot remove null element from FSet");
+            }
+            tree = tree.remove(owner, element);
+            return this;
+        }
+
+        /**
+         * Checks whether the transient contains an element.
+         *
+         * @param element The element to look for.
+         * @return true if the element is present, false otherwise.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public boolean contains(T element) {
+            ensureEditable();
+            return element != null && tree.contains(element);
+        }
+
+        /**
+         * Returns the number of elements.
+         *
+         * @return The number of elements.
+         * @throws IllegalStateException if {@link #persistent()} has been called.
+         */
+        public int size() {
+            ensureEditable();
+            return tree.size();
+        }
+
+        /**
+         * Freezes the transient into an immutable set. The transient cannot be used afterwards.
+         *
+         * @return An FSet with the elements of the transient.
+         * @throws IllegalStateException if {@link #persistent()} has already been called.
+         */
+        public FSet<T> persistent() {
+            ensureEditable();
+            owner = null;
+            return new FSet<>(tree);
+        }
+
+        private void ensureEditable() {
+            if (owner == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+
+    /**
+     * A mutable builder for {@link FSet}. Elements are appended to a buffer in {@code O(1)}
+     * amortized time, and {@link #build()} sorts and deduplicates them once. The builder can
+     * keep being used after {@link #build()}; sets already built are not affected.
+     *
+     * @param <T> The type of elements in the set.
+     */
+    public static final class Builder<T extends Comparable<T>> {
+        private Object[] values = new Object[16];
+        private int length;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an element to the set being built.
+         *
+         * @param element The element to add.
+         * @return This builder.
+         * @throws NullPointerException if the element is null.
+         */
+        public Builder<T> add(T element) {
+            if (element == null) {
+                throw new NullPointerException("Cannot add null element to FSet");
+            }
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length * 2);
+            }
+            values[length++] = element;
+            return this;
+        }
+
+        /**
+         * Adds every element of a collection to the set being built.
+         *
+         * @param elements The elements to add.
+         * @return This builder.
+         * @throws NullPointerException if the collection or any element is null.
+         */
+        public Builder<T> addAll(Collection<? extends T> elements) {
+            Object[] added = toArray(elements);
+            if (length + added.length > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, length + added.length));
+            }
+            System.arraycopy(added, 0, values, length, added.length);
+            length += added.length;
+            return this;
+        }
+
+        /**
+         * Builds an FSet with the distinct elements added so far.
+         *
+         * @return A new FSet.
+         */
+        public FSet<T> build() {
+            length = PersistentRedBlackTree.sortDistinct(values, length);
+            return new FSet<>(PersistentRedBlackTree.<T>fromSorted(values, length));
+        }
+    }
+
+    /**
+     * Wraps the result of a set operation, reusing this set or {@code other} if the result is
+     * their tree.
+     */
+    private FSet<T> of(PersistentRedBlackTree<T> result, FSet<T> other) {
+        if (result == tree) {
+            return this;
+        }
+        return result == other.tree ? other : new FSet<>(result);
     }
 
 
     /**
      * Adds a new element to the set, returning a new FSet with the added element.
+     * <p>
+     * Only the {@code O(log n)} nodes on the path to the new element are copied; the rest of the
+     * tree is shared with this set. If the element is already present, this set is returned.
+     * </p>
      *
      * @param element The element to be added to the set.
      * @return A new FSet with the element added.
@@ -43,14 +305,16 @@ public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
             throw new NullPointerException("Cannot add null element to FSet");
         }
 
-        RedBlackTree<T> newTree = new RedBlackTree<>(this.tree);
-        newTree.insert(element);
-
-        return new FSet<>(newTree);
+        PersistentRedBlackTree<T> newTree = tree.insert(element);
+        return newTree == tree ? this : new FSet<>(newTree);
     }
 
     /**
      * Removes an element from the set, returning a new FSet with the element removed.
+     * <p>
+     * Only the {@code O(log n)} nodes on the path to the element are copied. If the element is
+     * absent, this set is returned.
+     * </p>
      *
      * @param element The element to be removed from the set.
      * @return A new FSet without the element.
@@ -62,10 +326,8 @@ public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
             throw new NullPointerException("Cannot remove null element from FSet");
         }
 
-        RedBlackTree<T> newTree = new RedBlackTree<>();
-        newTree.removalBySkip(this.tree, element);
-
-        return new FSet<>(newTree);
+        PersistentRedBlackTree<T> newTree = tree.remove(element);
+        return newTree == tree ? this : new FSet<>(newTree);
     }
 
     /**
@@ -76,65 +338,212 @@ public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
      */
     @Override
     public boolean contains(T element) {
-        return this.tree.isNodeWithValueFound(element);
+        return element != null && this.tree.contains(element);
+    }
+
+    /**
+     * Returns an iterator over the elements in ascending order. The iterator walks the tree with
+     * an explicit stack no deeper than the tree instead of recursing.
+     *
+     * @return An iterator over the elements of the set.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return tree.iterator(null, null);
+    }
+
+    /**
+     * Returns a spliterator over the elements in ascending order. It reports
+     * {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED}, {@link Spliterator#SORTED},
+     * {@link Spliterator#DISTINCT}, {@link Spliterator#ORDERED}, {@link Spliterator#NONNULL} and
+     * {@link Spliterator#IMMUTABLE}, and splits into halves of equal size.
+     *
+     * @return A spliterator over the elements of the set.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return tree.spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of the elements in ascending order.
+     *
+     * @return A stream of the elements of the set.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the elements. The set splits into balanced halves without
+     * copying its elements.
+     *
+     * @return A parallel stream of the elements of the set.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns the smallest element of the set.
+     *
+     * @return an {@code Optional} containing the smallest element, or an empty {@code Optional} if the set is empty
+     */
+    public Optional<T> first() {
+        return Optional.ofNullable(tree.first());
+    }
+
+    /**
+     * Returns the largest element of the set.
+     *
+     * @return an {@code Optional} containing the largest element, or an empty {@code Optional} if the set is empty
+     */
+    public Optional<T> last() {
+        return Optional.ofNullable(tree.last());
+    }
+
+    /**
+     * Returns the largest element less than or equal to the given element in {@code O(log n)}.
+     *
+     * @param element The element to search from.
+     * @return an {@code Optional} containing the floor, or an empty {@code Optional} if there is none
+     * @throws NullPointerException if the element is null.
+     */
+    public Optional<T> floor(T element) {
+        return Optional.ofNullable(tree.floor(requireElement(element)));
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the given element in {@code O(log n)}.
+     *
+     * @param element The element to search from.
+     * @return an {@code Optional} containing the ceiling, or an empty {@code Optional} if there is none
+     * @throws NullPointerException if the element is null.
+     */
+    public Optional<T> ceiling(T element) {
+        return Optional.ofNullable(tree.ceiling(requireElement(element)));
+    }
+
+    /**
+     * Returns the largest element strictly less than the given element in {@code O(log n)}.
+     *
+     * @param element The element to search from.
+     * @return an {@code Optional} containing the lower element, or an empty {@code Optional} if there is none
+     * @throws NullPointerException if the element is null.
+     */
+    public Optional<T> lower(T element) {
+        return Optional.ofNullable(tree.lower(requireElement(element)));
+    }
+
+    /**
+     * Returns the smallest element strictly greater than the given element in {@code O(log n)}.
+     *
+     * @param element The element to search from.
+     * @return an {@code Optional} containing the higher element, or an empty {@code Optional} if there is none
+     * @throws NullPointerException if the element is null.
+     */
+    public Optional<T> higher(T element) {
+        return Optional.ofNullable(tree.higher(requireElement(element)));
+    }
+
+    /**
+     * Returns the number of elements strictly less than the given element in {@code O(log n)}.
+     * For an element in the set this is its index in ascending order.
+     *
+     * @param element The element to rank.
+     * @return The number of smaller elements in the set.
+     * @throws NullPointerException if the element is null.
+     */
+    public int rank(T element) {
+        return tree.rank(requireElement(element));
+    }
+
+    /**
+     * Returns the element at the given index in ascending order in {@code O(log n)}.
+     *
+     * @param index The index of the element.
+     * @return The element at the index.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than {@link #size()}.
+     */
+    public T select(int index) {
+        return tree.select(Objects.checkIndex(index, tree.size()));
+    }
+
+    /**
+     * Returns a lazy iterator over the elements from {@code fromInclusive} up to but excluding
+     * {@code toExclusive} in ascending order. No elements are copied: the iterator walks the tree
+     * directly, finding the start in {@code O(log n)}.
+     *
+     * @param fromInclusive The lowest element of the range.
+     * @param toExclusive   The element the range stops before.
+     * @return An iterator over the elements in the range.
+     * @throws NullPointerException     if either bound is null.
+     * @throws IllegalArgumentException if {@code fromInclusive} is greater than {@code toExclusive}.
+     */
+    public Iterator<T> range(T fromInclusive, T toExclusive) {
+        if (requireElement(fromInclusive).compareTo(requireElement(toExclusive)) > 0) {
+            throw new IllegalArgumentException("From cannot be greater than to");
+        }
+        return tree.iterator(fromInclusive, toExclusive);
+    }
+
+    private static <T> T requireElement(T element) {
+        return Objects.requireNonNull(element, "Element cannot be null");
     }
 
     /**
      * Returns a new FSet that is the union of this FSet and another FSet.
      * The union contains all unique elements from both sets.
+     * <p>
+     * Both sets are walked in order and merged in {@code O(n + m)} time, and the result tree is
+     * built directly from the merged sequence.
+     * </p>
      *
      * @param other The other FSet to union with.
      * @return A new FSet containing the union of this FSet and the other FSet.
      */
     @Override
     public FSet<T> union(FSet<T> other) {
-
-        RedBlackTree<T> newTree = new RedBlackTree<>();
-        newTree.insertFromAnotherTree(this.tree);
-        newTree.insertFromAnotherTree(other.tree);
-
-        return new FSet<>(newTree);
+        return of(tree.union(other.tree), other);
     }
 
 
     /**
      * Returns a new FSet that is the intersection of this FSet and another FSet.
-     * The intersection contains only the elements that are in both sets.
+     * The intersection contains only the elements that are in both sets, found by an ordered
+     * merge in {@code O(n + m)} time.
      *
      * @param other The other FSet to intersect with.
      * @return A new FSet containing the intersection of this FSet and the other FSet.
      */
     @Override
     public FSet<T> intersection(FSet<T> other) {
-        RedBlackTree<T> newTree = new RedBlackTree<>();
-        RedBlackTree<T> tmpTree = new RedBlackTree<>();
-        tmpTree.intersectWithOtherTree(this, other.tree, newTree);
-        return new FSet<>(newTree);
-
-
+        return of(tree.intersection(other.tree), other);
     }
 
     /**
      * Returns a new FSet that is the symmetric difference of this FSet and another FSet.
      * The symmetric difference contains all elements that are in either of the sets, exclusive elements from both.
+     * It is computed by an ordered merge in {@code O(n + m)} time.
      *
      * @param other The other FSet to compute the symmetric difference with.
      * @return A new FSet containing the symmetric difference of this FSet and the other FSet.
      */
     @Override
     public FSet<T> symmetricDifference(FSet<T> other) {
-        RedBlackTree<T> newTree = new RedBlackTree<>();
-        tree.symmetricDifferenceWithOtherTree(tree, other.tree, newTree);
-        return new FSet<>(newTree);
-
-
+        return of(tree.symmetricDifference(other.tree), other);
     }
 
+    /**
+     * Returns a new FSet with the elements of this FSet that are not in another FSet, computed by
+     * an ordered merge in {@code O(n + m)} time.
+     *
+     * @param other The FSet whose elements are excluded.
+     * @return A new FSet containing the difference of this FSet and the other FSet.
+     */
+    @Override
     public FSet<T> difference(FSet<T> other) {
-        RedBlackTree<T> newTree = new RedBlackTree<>();
-        tree.differenceWithOtherTree(tree, other.tree, newTree);
-        return new FSet<>(newTree);
-
+        return of(tree.difference(other.tree), other);
     }
 
     /**
@@ -144,21 +553,21 @@ public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
      */
     @Override
     public boolean isEmpty() {
-        return this.tree.getSize() == 0;
+        return this.tree.size() == 0;
     }
 
     /**
      * Prints the RedBlackTree structure of the FSet.
      */
     public void printTree() {
-        tree.printRedBlackTree();
+        System.out.println(tree.stringRedBlackTree());
     }
 
     /**
      * Prints the elements of the FSet in order.
      */
     public void printInOrder() {
-        tree.inorder();
+        tree.forEach(value -> System.out.println(value + " "));
     }
 
     /**
@@ -167,42 +576,52 @@ public final class FSet<T extends Comparable<T>> implements SetProcedural<T> {
      * @return The number of elements in the FSet.
      */
     public int size() {
-        return tree.getSize();
+        return tree.size();
     }
 
 
     /**
      * Returns a string and prompts a representation of the FSet.
      * <p>
-     * Important values are prompted out.
+     * Important values are prompted out in ascending order.
      *
      * @return A string "Set And Done".
      */
     @Override
     public String toString() {
-        return "FSet {" + tree.stringSetBuilder() + "}";
+        StringJoiner joiner = new StringJoiner(", ", "FSet {", "}");
+        tree.forEach(value -> joiner.add(String.valueOf(value)));
+        return joiner.toString();
     }
 
     /**
      * Checks if two FSets are equal. FSets are considered equal if they contain the same elements.
+     * Both sets are walked in order in lockstep, stopping at the first element that differs.
      *
      * @param o The object to compare this FSet with.
      * @return true if the two FSets are equal, false otherwise.
      */
     @Override
     public boolean equals(Object o) {
-        if (!(o instanceof FSet<?> fSet)) return false;
-        return Objects.equals(tree, fSet.tree);
+        if (this == o) return true;
+        if (!(o instanceof FSet<?> fSet) || size() != fSet.size()) return false;
+        if (tree == fSet.tree) return true;
+        Iterator<T> these = iterator();
+        Iterator<?> those = fSet.iterator();
+        while (these.hasNext()) {
+            if (!these.next().equals(those.next())) return false;
+        }
+        return true;
     }
 
     /**
-     * Returns the hash code of the FSet.
+     * Returns the hash code of the FSet, which is the sum of the hash codes of its elements.
      *
      * @return The hash code of the FSet.
      */
     @Override
     public int hashCode() {
-        return Objects.hashCode(tree);
+        return tree.hashSum();
     }
 
 }
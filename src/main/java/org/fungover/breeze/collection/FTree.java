@@ -1,13 +1,21 @@
 package org.fungover.breeze.collection;
 
 import java.util.function.Function;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
 /**
  * The {@code FTree} interface represents a functional, immutable binary search tree (BST).
  * It supports insertion, searching, and transformation of elements in a persistent manner.
+ * <p>
+ * Insertion keeps the tree height-balanced (AVL), so the depth stays {@code O(log n)} even when
+ * values are inserted in sorted order. Every node also stores the size and a structural hash of
+ * its subtree, so {@link #size()} and {@code hashCode()} take constant time, unequal trees are
+ * usually told apart without a traversal, and {@link #get(int)} takes {@code O(log n)} time.
+ * </p>
  *
  * @param <T> the type of elements stored in the tree, which must implement {@link Comparable}.
  */
@@ -36,8 +44,9 @@ public interface FTree<T extends Comparable<T>> {
     FTree<T> right();
 
     /**
-     * Inserts a new value into the tree while maintaining the BST ordering.
-     * This operation does not modify the existing tree but returns a new one.
+     * Inserts a new value into the tree while maintaining the BST ordering and balance.
+     * This operation does not modify the existing tree but returns a new one, copying only the
+     * {@code O(log n)} nodes on the path to the new value.
      *
      * @param value the value to insert.
      * @return a new tree with the value inserted.
@@ -76,6 +85,10 @@ public interface FTree<T extends Comparable<T>> {
      * Applies the given function to each value in the tree and rebuilds a new tree
      * using the natural ordering of the mapped values. This ensures that the BST invariant
      * holds even if the mapping function is not order-preserving.
+     * <p>
+     * The mapped values are sorted once and the tree is built bottom-up around their medians,
+     * so the result is perfectly balanced and no rotations are needed.
+     * </p>
      *
      * @param f   the function to apply to each value.
      * @param <R> the type of the mapped values.
@@ -84,16 +97,59 @@ public interface FTree<T extends Comparable<T>> {
     default <R extends Comparable<R>> FTree<R> mapAndRebuild(Function<T, R> f) {
         List<R> mappedValues = new ArrayList<>(size());
         inOrderTraversal(this, f, mappedValues);
-        FTree<R> newTree = FTree.empty();
-        for (R value : mappedValues) {
-            newTree = newTree.insert(value);
+        mappedValues.sort(null);
+        return NonEmptyTree.fromSorted(mappedValues, 0, mappedValues.size());
+    }
+
+    /**
+     * Returns the value at the given position in ascending order. The subtree sizes stored in
+     * the nodes lead straight to the value, so this takes {@code O(log n)} time.
+     *
+     * @param index the zero-based position of the value.
+     * @return the value at the position.
+     * @throws IndexOutOfBoundsException if the index is negative or not less than {@link #size()}.
+     */
+    default T get(int index) {
+        Objects.checkIndex(index, size());
+        FTree<T> node = this;
+        while (true) {
+            int leftSize = node.left().size();
+            if (index < leftSize) {
+                node = node.left();
+            } else if (index == leftSize) {
+                return node.value();
+            } else {
+                index -= leftSize + 1;
+                node = node.right();
+            }
         }
-        return newTree;
+    }
+
+    /**
+     * Returns the number of values in the tree that are less than the given value, which is the
+     * position the value has or would have in ascending order. This takes {@code O(log n)} time.
+     *
+     * @param value the value to look up.
+     * @return the number of values less than {@code value}.
+     */
+    default int rank(T value) {
+        int rank = 0;
+        FTree<T> node = this;
+        while (node.size() > 0) {
+            if (value.compareTo(node.value()) <= 0) {
+                node = node.left();
+            } else {
+                rank += node.left().size() + 1;
+                node = node.right();
+            }
+        }
+        return rank;
     }
 
     /**
      * Performs an in-order traversal of the tree, applying the given function to each node's value,
-     * and collects the results in the provided list.
+     * and collects the results in the provided list. The traversal uses an explicit stack instead
+     * of recursion.
      *
      * @param tree the tree to traverse.
      * @param f    the function to apply to each node's value.
@@ -103,14 +159,24 @@ public interface FTree<T extends Comparable<T>> {
      */
     static <T extends Comparable<T>, R extends Comparable<R>> void inOrderTraversal(
             FTree<T> tree, Function<T, R> f, List<R> list) {
-        if (tree instanceof EmptyTree<?>) {
-            return;
+        ArrayDeque<FTree<T>> stack = new ArrayDeque<>();
+        while (!(tree instanceof EmptyTree<?>) || !stack.isEmpty()) {
+            while (!(tree instanceof EmptyTree<?>)) {
+                stack.push(tree);
+                tree = tree.left();
+            }
+            tree = stack.pop();
+            list.add(f.apply(tree.value()));
+            tree = tree.right();
         }
-        inOrderTraversal(tree.left(), f, list);
-        list.add(f.apply(tree.value()));
-        inOrderTraversal(tree.right(), f, list);
     }
 
+    /**
+     * Returns the number of values in the tree. Each node stores the size of its subtree, so
+     * this takes constant time.
+     *
+     * @return the number of values.
+     */
     int size();
 }
 
@@ -177,18 +243,79 @@ class EmptyTree<T extends Comparable<T>> implements FTree<T> {
     public int size() {
         return 0;
     }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
 }
 
 /**
  * Immutable implementation of {@code FTree} representing a non-empty binary tree node.
+ * Each node records its height so that insertion can rebalance with AVL rotations, and the size
+ * and structural hash of its subtree so that {@link #size()} and {@link #hashCode()} are
+ * constant-time and {@link #equals(Object)} can reject most unequal trees immediately.
  *
  * @param <T> the type of elements stored in the tree, which must implement {@link Comparable}.
  */
-record NonEmptyTree<T extends Comparable<T>>(T value, FTree<T> left, FTree<T> right) implements FTree<T> {
+record NonEmptyTree<T extends Comparable<T>>(T value, FTree<T> left, FTree<T> right, int height, int size, int hash)
+        implements FTree<T> {
+
+    /**
+     * Checks that the cached height, size and hash match the subtrees, since {@link #equals},
+     * {@link #get(int)} and {@link #rank} rely on them.
+     *
+     * @throws IllegalArgumentException if the height, size or hash does not match the subtrees.
+     */
+    NonEmptyTree {
+        if (height != 1 + Math.max(heightOf(left), heightOf(right))
+                || size != 1 + left.size() + right.size()
+                || hash != hashOf(value, left, right)) {
+            throw new IllegalArgumentException("Height, size and hash must match the subtrees");
+        }
+    }
+
+    /**
+     * Creates a node, computing its height, size and hash from its subtrees.
+     *
+     * @param value the value at the node.
+     * @param left  the left subtree.
+     * @param right the right subtree.
+     */
+    NonEmptyTree(T value, FTree<T> left, FTree<T> right) {
+        this(value, left, right,
+                1 + Math.max(heightOf(left), heightOf(right)),
+                1 + left.size() + right.size(),
+                hashOf(value, left, right));
+    }
+
+    private static int hashOf(Object value, FTree<?> left, FTree<?> right) {
+        return 31 * (31 * left.hashCode() + Objects.hashCode(value)) + right.hashCode();
+    }
+
+    /**
+     * Builds a perfectly balanced tree from a range of sorted values, taking the middle value
+     * as the root.
+     *
+     * @param sorted the values in ascending order.
+     * @param from   the first index of the range, inclusive.
+     * @param to     the last index of the range, exclusive.
+     * @param <T>    the type of the values.
+     * @return a balanced tree holding the values of the range.
+     */
+    static <T extends Comparable<T>> FTree<T> fromSorted(List<T> sorted, int from, int to) {
+        if (from >= to) {
+            return FTree.empty();
+        }
+        int middle = (from + to) >>> 1;
+        return new NonEmptyTree<>(sorted.get(middle), fromSorted(sorted, from, middle), fromSorted(sorted, middle + 1, to));
+    }
 
     /**
      * Inserts a new value into the tree while maintaining the BST ordering.
-     * This operation does not modify the existing tree but returns a new one.
+     * This operation does not modify the existing tree but returns a new one. Values equal to
+     * an existing value are inserted to its right, and each node on the way back up is
+     * rebalanced, so the height stays within {@code 1.44 log n}.
      *
      * @param newValue the value to insert.
      * @return a new tree with the value inserted.
@@ -196,13 +323,9 @@ record NonEmptyTree<T extends Comparable<T>>(T value, FTree<T> left, FTree<T> ri
     @Override
     public FTree<T> insert(T newValue) {
         if (newValue.compareTo(value) < 0) {
-            return new NonEmptyTree<>(value, left.insert(newValue), right);
-        } else if (newValue.compareTo(value) > 0) {
-            return new NonEmptyTree<>(value, left, right.insert(newValue));
-        } else {
-
-            return new NonEmptyTree<>(value, left, right.insert(newValue));
+            return balance(value, left.insert(newValue), right);
         }
+        return balance(value, left, right.insert(newValue));
     }
 
     /**
@@ -213,12 +336,49 @@ record NonEmptyTree<T extends Comparable<T>>(T value, FTree<T> left, FTree<T> ri
      */
     @Override
     public boolean contains(T searchValue) {
-        int cmp = searchValue.compareTo(value);
-        if (cmp == 0) {
-            return true;
+        FTree<T> node = this;
+        while (node instanceof NonEmptyTree<T> current) {
+            int cmp = searchValue.compareTo(current.value);
+            if (cmp == 0) {
+                return true;
+            }
+            node = (cmp < 0) ? current.left : current.right;
         }
-        FTree<T> nextSubtree = (cmp < 0) ? left : right;
-        return nextSubtree.contains(searchValue);
+        return false;
+    }
+
+    /**
+     * Builds a node from a value and two subtrees whose heights differ by at most two, rotating
+     * once or twice if they differ by two.
+     */
+    private static <T extends Comparable<T>> FTree<T> balance(T value, FTree<T> left, FTree<T> right) {
+        int leftHeight = heightOf(left);
+        int rightHeight = heightOf(right);
+        if (leftHeight > rightHeight + 1) {
+            NonEmptyTree<T> l = (NonEmptyTree<T>) left;
+            if (heightOf(l.left) >= heightOf(l.right)) {
+                return new NonEmptyTree<>(l.value, l.left, new NonEmptyTree<>(value, l.right, right));
+            }
+            NonEmptyTree<T> lr = (NonEmptyTree<T>) l.right;
+            return new NonEmptyTree<>(lr.value,
+                    new NonEmptyTree<>(l.value, l.left, lr.left),
+                    new NonEmptyTree<>(value, lr.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            NonEmptyTree<T> r = (NonEmptyTree<T>) right;
+            if (heightOf(r.right) >= heightOf(r.left)) {
+                return new NonEmptyTree<>(r.value, new NonEmptyTree<>(value, left, r.left), r.right);
+            }
+            NonEmptyTree<T> rl = (NonEmptyTree<T>) r.left;
+            return new NonEmptyTree<>(rl.value,
+                    new NonEmptyTree<>(value, left, rl.left),
+                    new NonEmptyTree<>(r.value, rl.right, r.right));
+        }
+        return new NonEmptyTree<>(value, left, right);
+    }
+
+    private static int heightOf(FTree<?> tree) {
+        return tree instanceof NonEmptyTree<?> node ? node.height : 0;
     }
 
     /**
@@ -234,8 +394,31 @@ record NonEmptyTree<T extends Comparable<T>>(T value, FTree<T> left, FTree<T> ri
         return new NonEmptyTree<>(f.apply(value), left.map(f), right.map(f));
     }
 
+    /**
+     * Checks whether another tree has the same shape and the same values. Trees that differ in
+     * size or hash are rejected without a traversal, and shared subtrees are not visited.
+     *
+     * @param o the object to compare with.
+     * @return {@code true} if both trees have the same structure and values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof NonEmptyTree<?> other
+                && size == other.size
+                && hash == other.hash
+                && Objects.equals(value, other.value)
+                && left.equals(other.left)
+                && right.equals(other.right);
+    }
+
+    /**
+     * Returns the structural hash computed when the node was created.
+     *
+     * @return the hash code of the tree.
+     */
     @Override
-    public int size() {
-        return 1 + left.size() + right.size();
+    public int hashCode() {
+        return hash;
     }
 }
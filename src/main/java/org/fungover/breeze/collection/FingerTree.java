@@ -0,0 +1,518 @@
+package org.fungover.breeze.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A persistent 2-3 finger tree annotated with sizes, the sequence behind
+ * {@link FList.IndexedFList}.
+ * <p>
+ * A non-empty tree keeps one to four items at each end (the digits) and a middle tree whose items
+ * are {@link Node}s of two or three items of the level above. Adding or removing at either end
+ * therefore touches only the digits in the common case, giving amortized constant time, while
+ * the sizes cached in the nodes lead to any index in {@code O(log n)} steps. Splitting at an index
+ * takes {@code O(log n)} time and concatenation {@code O(log min(n, m))}.
+ * </p>
+ * <p>
+ * Items are untyped: at the top level they are the elements of the list, one level down they
+ * are nodes of elements, and so on. {@link #sizeOf} tells the two apart, which is safe because
+ * nodes never leave this class.
+ * </p>
+ */
+abstract class FingerTree {
+
+    static final FingerTree EMPTY = new Empty();
+
+    private static final Object[] NO_ITEMS = new Object[0];
+
+    private FingerTree() {
+    }
+
+    /**
+     * A node of the middle tree, grouping two or three items of the level above.
+     */
+    static final class Node {
+        final int size;
+        final Object[] items;
+
+        Node(Object... items) {
+            this.items = items;
+            this.size = sizeOfAll(items);
+        }
+    }
+
+    /**
+     * The result of {@link #split}: the items before the index, the item containing it with the
+     * index relative to that item, and the items after it.
+     */
+    static final class Split {
+        final FingerTree left;
+        final Object item;
+        final int index;
+        final FingerTree right;
+
+        Split(FingerTree left, Object item, int index, FingerTree right) {
+            this.left = left;
+            this.item = item;
+            this.index = index;
+            this.right = right;
+        }
+    }
+
+    abstract int size();
+
+    abstract FingerTree pushFront(Object item);
+
+    abstract FingerTree pushBack(Object item);
+
+    abstract Object first();
+
+    abstract Object last();
+
+    abstract FingerTree removeFirst();
+
+    abstract FingerTree removeLast();
+
+    /**
+     * Returns the element at an index, which must be within the tree.
+     */
+    abstract Object get(int index);
+
+    /**
+     * Splits the tree around the item containing an index, which must be within the tree.
+     */
+    abstract Split split(int index);
+
+    final boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Returns the elements of the tree in order. Nested nodes are expanded with an explicit stack.
+     */
+    final Iterator<Object> iterator() {
+        return new Iterator<>() {
+            private final List<Object> stack = new ArrayList<>();
+
+            {
+                stack.add(FingerTree.this);
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (!stack.isEmpty()) {
+                    Object top = stack.get(stack.size() - 1);
+                    if (top instanceof FingerTree tree) {
+                        stack.remove(stack.size() - 1);
+                        tree.pushItems(stack);
+                    } else if (top instanceof Node node) {
+                        stack.remove(stack.size() - 1);
+                        pushReversed(stack, node.items);
+                    } else {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return stack.remove(stack.size() - 1);
+            }
+        };
+    }
+
+    /**
+     * Pushes the parts of this tree onto an iteration stack so that the first item is on top.
+     */
+    abstract void pushItems(List<Object> stack);
+
+    /**
+     * Concatenates two trees.
+     */
+    static FingerTree concat(FingerTree left, FingerTree right) {
+        return concat(left, NO_ITEMS, right);
+    }
+
+    private static FingerTree concat(FingerTree left, Object[] between, FingerTree right) {
+        if (left.isEmpty()) {
+            for (int i = between.length - 1; i >= 0; i--) {
+                right = right.pushFront(between[i]);
+            }
+            return right;
+        }
+        if (right.isEmpty()) {
+            for (Object item : between) {
+                left = left.pushBack(item);
+            }
+            return left;
+        }
+        if (left instanceof Single single) {
+            return concat(EMPTY, between, right).pushFront(single.item);
+        }
+        if (right instanceof Single single) {
+            return concat(left, between, EMPTY).pushBack(single.item);
+        }
+        Deep l = (Deep) left;
+        Deep r = (Deep) right;
+        Object[] middle = new Object[l.suffix.length + between.length + r.prefix.length];
+        System.arraycopy(l.suffix, 0, middle, 0, l.suffix.length);
+        System.arraycopy(between, 0, middle, l.suffix.length, between.length);
+        System.arraycopy(r.prefix, 0, middle, l.suffix.length + between.length, r.prefix.length);
+        return new Deep(l.size + sizeOfAll(between) + r.size, l.prefix, concat(l.middle, nodes(middle), r.middle), r.suffix);
+    }
+
+    /**
+     * Groups between two and twelve items into nodes of three, using nodes of two only at the end.
+     */
+    private static Object[] nodes(Object[] items) {
+        List<Object> nodes = new ArrayList<>(4);
+        int i = 0;
+        while (items.length - i > 4) {
+            nodes.add(new Node(items[i], items[i + 1], items[i + 2]));
+            i += 3;
+        }
+        switch (items.length - i) {
+            case 2 -> nodes.add(new Node(items[i], items[i + 1]));
+            case 3 -> nodes.add(new Node(items[i], items[i + 1], items[i + 2]));
+            default -> {
+                nodes.add(new Node(items[i], items[i + 1]));
+                nodes.add(new Node(items[i + 2], items[i + 3]));
+            }
+        }
+        return nodes.toArray();
+    }
+
+    static int sizeOf(Object item) {
+        return item instanceof Node node ? node.size : 1;
+    }
+
+    private static int sizeOfAll(Object[] items) {
+        int size = 0;
+        for (Object item : items) {
+            size += sizeOf(item);
+        }
+        return size;
+    }
+
+    /**
+     * Descends through nested nodes to the element at an index within an item.
+     */
+    private static Object lookup(Object item, int index) {
+        while (item instanceof Node node) {
+            for (Object child : node.items) {
+                int size = sizeOf(child);
+                if (index < size) {
+                    item = child;
+                    break;
+                }
+                index -= size;
+            }
+        }
+        return item;
+    }
+
+    private static Object lookup(Object[] items, int index) {
+        for (Object item : items) {
+            int size = sizeOf(item);
+            if (index < size) {
+                return lookup(item, index);
+            }
+            index -= size;
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    /**
+     * Splits a digit or the items of a node around the item containing an index. The left and
+     * right parts hold the items before and after it, either of which may be empty.
+     */
+    private static Object[][] splitItems(Object[] items, int index, int[] offset) {
+        int i = 0;
+        while (i < items.length - 1) {
+            int size = sizeOf(items[i]);
+            if (index < size) {
+                break;
+            }
+            index -= size;
+            i++;
+        }
+        offset[0] = index;
+        return new Object[][]{
+                Arrays.copyOfRange(items, 0, i),
+                {items[i]},
+                Arrays.copyOfRange(items, i + 1, items.length)
+        };
+    }
+
+    private static FingerTree fromItems(Object[] items) {
+        FingerTree tree = EMPTY;
+        for (Object item : items) {
+            tree = tree.pushBack(item);
+        }
+        return tree;
+    }
+
+    /**
+     * Builds a tree from a possibly empty prefix, borrowing the first node of the middle tree to
+     * refill it.
+     */
+    private static FingerTree deepLeft(Object[] prefix, FingerTree middle, Object[] suffix) {
+        if (prefix.length > 0) {
+            return new Deep(sizeOfAll(prefix) + middle.size() + sizeOfAll(suffix), prefix, middle, suffix);
+        }
+        if (middle.isEmpty()) {
+            return fromItems(suffix);
+        }
+        Node node = (Node) middle.first();
+        return new Deep(middle.size() + sizeOfAll(suffix), node.items, middle.removeFirst(), suffix);
+    }
+
+    /**
+     * Builds a tree from a possibly empty suffix, borrowing the last node of the middle tree to
+     * refill it.
+     */
+    private static FingerTree deepRight(Object[] prefix, FingerTree middle, Object[] suffix) {
+        if (suffix.length > 0) {
+            return new Deep(sizeOfAll(prefix) + middle.size() + sizeOfAll(suffix), prefix, middle, suffix);
+        }
+        if (middle.isEmpty()) {
+            return fromItems(prefix);
+        }
+        Node node = (Node) middle.last();
+        return new Deep(sizeOfAll(prefix) + middle.size(), prefix, middle.removeLast(), node.items);
+    }
+
+    private static void pushReversed(List<Object> stack, Object[] items) {
+        for (int i = items.length - 1; i >= 0; i--) {
+            stack.add(items[i]);
+        }
+    }
+
+    private static Object[] withFirst(Object item, Object[] items) {
+        Object[] result = new Object[items.length + 1];
+        result[0] = item;
+        System.arraycopy(items, 0, result, 1, items.length);
+        return result;
+    }
+
+    private static Object[] withLast(Object[] items, Object item) {
+        Object[] result = Arrays.copyOf(items, items.length + 1);
+        result[items.length] = item;
+        return result;
+    }
+
+    private static final class Empty extends FingerTree {
+
+        @Override
+        int size() {
+            return 0;
+        }
+
+        @Override
+        FingerTree pushFront(Object item) {
+            return new Single(item);
+        }
+
+        @Override
+        FingerTree pushBack(Object item) {
+            return new Single(item);
+        }
+
+        @Override
+        Object first() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        Object last() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        FingerTree removeFirst() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        FingerTree removeLast() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        Object get(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        Split split(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        void pushItems(List<Object> stack) {
+        }
+    }
+
+    private static final class Single extends FingerTree {
+        private final Object item;
+
+        Single(Object item) {
+            this.item = item;
+        }
+
+        @Override
+        int size() {
+            return sizeOf(item);
+        }
+
+        @Override
+        FingerTree pushFront(Object newItem) {
+            return new Deep(sizeOf(newItem) + size(), new Object[]{newItem}, EMPTY, new Object[]{item});
+        }
+
+        @Override
+        FingerTree pushBack(Object newItem) {
+            return new Deep(size() + sizeOf(newItem), new Object[]{item}, EMPTY, new Object[]{newItem});
+        }
+
+        @Override
+        Object first() {
+            return item;
+        }
+
+        @Override
+        Object last() {
+            return item;
+        }
+
+        @Override
+        FingerTree removeFirst() {
+            return EMPTY;
+        }
+
+        @Override
+        FingerTree removeLast() {
+            return EMPTY;
+        }
+
+        @Override
+        Object get(int index) {
+            return lookup(item, index);
+        }
+
+        @Override
+        Split split(int index) {
+            return new Split(EMPTY, item, index, EMPTY);
+        }
+
+        @Override
+        void pushItems(List<Object> stack) {
+            stack.add(item);
+        }
+    }
+
+    private static final class Deep extends FingerTree {
+        private final int size;
+        private final Object[] prefix;
+        private final FingerTree middle;
+        private final Object[] suffix;
+
+        Deep(int size, Object[] prefix, FingerTree middle, Object[] suffix) {
+            this.size = size;
+            this.prefix = prefix;
+            this.middle = middle;
+            this.suffix = suffix;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        FingerTree pushFront(Object item) {
+            int newSize = size + sizeOf(item);
+            if (prefix.length < 4) {
+                return new Deep(newSize, withFirst(item, prefix), middle, suffix);
+            }
+            Node node = new Node(prefix[1], prefix[2], prefix[3]);
+            return new Deep(newSize, new Object[]{item, prefix[0]}, middle.pushFront(node), suffix);
+        }
+
+        @Override
+        FingerTree pushBack(Object item) {
+            int newSize = size + sizeOf(item);
+            if (suffix.length < 4) {
+                return new Deep(newSize, prefix, middle, withLast(suffix, item));
+            }
+            Node node = new Node(suffix[0], suffix[1], suffix[2]);
+            return new Deep(newSize, prefix, middle.pushBack(node), new Object[]{suffix[3], item});
+        }
+
+        @Override
+        Object first() {
+            return prefix[0];
+        }
+
+        @Override
+        Object last() {
+            return suffix[suffix.length - 1];
+        }
+
+        @Override
+        FingerTree removeFirst() {
+            return deepLeft(Arrays.copyOfRange(prefix, 1, prefix.length), middle, suffix);
+        }
+
+        @Override
+        FingerTree removeLast() {
+            return deepRight(prefix, middle, Arrays.copyOf(suffix, suffix.length - 1));
+        }
+
+        @Override
+        Object get(int index) {
+            int prefixSize = sizeOfAll(prefix);
+            if (index < prefixSize) {
+                return lookup(prefix, index);
+            }
+            index -= prefixSize;
+            if (index < middle.size()) {
+                return middle.get(index);
+            }
+            return lookup(suffix, index - middle.size());
+        }
+
+        @Override
+        Split split(int index) {
+            int[] offset = new int[1];
+            int prefixSize = sizeOfAll(prefix);
+            if (index < prefixSize) {
+                Object[][] parts = splitItems(prefix, index, offset);
+                return new Split(fromItems(parts[0]), parts[1][0], offset[0], deepLeft(parts[2], middle, suffix));
+            }
+            index -= prefixSize;
+            if (index < middle.size()) {
+                Split inner = middle.split(index);
+                Object[][] parts = splitItems(((Node) inner.item).items, inner.index, offset);
+                return new Split(deepRight(prefix, inner.left, parts[0]), parts[1][0], offset[0],
+                        deepLeft(parts[2], inner.right, suffix));
+            }
+            Object[][] parts = splitItems(suffix, index - middle.size(), offset);
+            return new Split(deepRight(prefix, middle, parts[0]), parts[1][0], offset[0], fromItems(parts[2]));
+        }
+
+        @Override
+        void pushItems(List<Object> stack) {
+            pushReversed(stack, suffix);
+            stack.add(middle);
+            pushReversed(stack, prefix);
+        }
+    }
+}
@@ -0,0 +1,990 @@
+package org.fungover.breeze.collection;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * An immutable Red-Black Tree in which every update returns a new tree.
+ * <p>
+ * Nodes are never modified after they are created, so an insertion or removal only copies the
+ * {@code O(log n)} nodes on the path from the root to the changed node and shares every other
+ * subtree with the previous version. Insertion follows Okasaki's balancing and removal follows
+ * Kahrs' algorithm. Elements are ordered by their natural ordering.
+ * </p>
+ * <p>
+ * Every node records the owner token of the transient that created it, or {@code null}. An
+ * update passed the same token rebuilds such a node in place instead of copying it, so a batch
+ * of edits through one transient copies each node at most once, as in {@link ChampNode}.
+ * </p>
+ *
+ * @param <T> The type of elements stored in the tree. The elements must implement
+ *            the {@link Comparable} interface for ordering.
+ */
+final class PersistentRedBlackTree<T extends Comparable<T>> {
+
+    /**
+     * The constant value representing the color Red, as in {@link RedBlackTree}.
+     */
+    static final boolean RED = false;
+
+    /**
+     * The constant value representing the color Black, as in {@link RedBlackTree}.
+     */
+    static final boolean BLACK = true;
+
+    private static final Comparator<Object> NATURAL_ORDER = PersistentRedBlackTree::compare;
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentRedBlackTree EMPTY = new PersistentRedBlackTree<>(null, 0);
+
+    /**
+     * A tree node. Subtrees are shared between versions of the tree. Each node records the number
+     * of nodes in its subtree, which gives {@link #rank} and {@link #select} in {@code O(log n)}.
+     * Only the transient that owns a node changes it, through {@link #edit}.
+     *
+     * @param <T> The type of the value stored in the node.
+     */
+    static final class TreeNode<T> {
+        private final Object owner;
+        T value;
+        TreeNode<T> left;
+        TreeNode<T> right;
+        boolean color;
+        int size;
+
+        TreeNode(Object owner, boolean color, TreeNode<T> left, T value, TreeNode<T> right) {
+            this.owner = owner;
+            this.color = color;
+            this.left = left;
+            this.value = value;
+            this.right = right;
+            this.size = sizeOf(left) + 1 + sizeOf(right);
+        }
+
+        boolean isRed() {
+            return color == RED;
+        }
+
+        boolean isBlack() {
+            return color == BLACK;
+        }
+    }
+
+    private final TreeNode<T> root;
+    private final int size;
+
+    private PersistentRedBlackTree(TreeNode<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty tree.
+     *
+     * @param <T> The type of elements in the tree.
+     * @return The shared empty tree.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>> PersistentRedBlackTree<T> empty() {
+        return (PersistentRedBlackTree<T>) EMPTY;
+    }
+
+    /**
+     * Returns the root node, or {@code null} if the tree is empty.
+     *
+     * @return The root node.
+     */
+    TreeNode<T> root() {
+        return root;
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the tree contains a value.
+     *
+     * @param value The value to look for.
+     * @return {@code true} if the value is found, {@code false} otherwise.
+     */
+    boolean contains(T value) {
+        TreeNode<T> node = root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value);
+            if (comparison == 0) {
+                return true;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the smallest element, or {@code null} if the tree is empty.
+     *
+     * @return The smallest element.
+     */
+    T first() {
+        TreeNode<T> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the largest element, or {@code null} if the tree is empty.
+     *
+     * @return The largest element.
+     */
+    T last() {
+        TreeNode<T> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the largest element less than or equal to {@code value}, or {@code null} if there
+     * is none.
+     *
+     * @param value The value to search from.
+     * @return The floor of the value.
+     */
+    T floor(T value) {
+        return below(value, true);
+    }
+
+    /**
+     * Returns the largest element strictly less than {@code value}, or {@code null} if there is
+     * none.
+     *
+     * @param value The value to search from.
+     * @return The element before the value.
+     */
+    T lower(T value) {
+        return below(value, false);
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to {@code value}, or {@code null} if
+     * there is none.
+     *
+     * @param value The value to search from.
+     * @return The ceiling of the value.
+     */
+    T ceiling(T value) {
+        return above(value, true);
+    }
+
+    /**
+     * Returns the smallest element strictly greater than {@code value}, or {@code null} if there
+     * is none.
+     *
+     * @param value The value to search from.
+     * @return The element after the value.
+     */
+    T higher(T value) {
+        return above(value, false);
+    }
+
+    private T below(T value, boolean inclusive) {
+        T result = null;
+        TreeNode<T> node = root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value);
+            if (comparison == 0 && inclusive) {
+                return node.value;
+            }
+            if (comparison > 0) {
+                result = node.value;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private T above(T value, boolean inclusive) {
+        T result = null;
+        TreeNode<T> node = root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value);
+            if (comparison == 0 && inclusive) {
+                return node.value;
+            }
+            if (comparison < 0) {
+                result = node.value;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements strictly less than {@code value}, which is the index the
+     * value has or would have in ascending order.
+     *
+     * @param value The value to rank.
+     * @return The number of smaller elements.
+     */
+    int rank(T value) {
+        int rank = 0;
+        TreeNode<T> node = root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value);
+            if (comparison <= 0) {
+                if (comparison == 0) {
+                    return rank + sizeOf(node.left);
+                }
+                node = node.left;
+            } else {
+                rank += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the element at {@code index} in ascending order.
+     *
+     * @param index The index, which must be from {@code 0} to {@code size() - 1}.
+     * @return The element at the index.
+     */
+    T select(int index) {
+        TreeNode<T> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index == leftSize) {
+                return node.value;
+            }
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns a lazy iterator over the elements from {@code from} inclusive to {@code to}
+     * exclusive in ascending order. A {@code null} bound leaves that side of the range open.
+     * The iterator holds a stack of at most the tree height, so it is created in
+     * {@code O(log n)} and each step takes amortized {@code O(1)}.
+     *
+     * @param from The inclusive lower bound, or {@code null}.
+     * @param to   The exclusive upper bound, or {@code null}.
+     * @return An iterator over the range.
+     */
+    Iterator<T> iterator(T from, T to) {
+        return new RangeIterator<>(root, from, to);
+    }
+
+    /**
+     * Returns a lazy iterator over the elements in ascending order starting at {@code index},
+     * positioned in {@code O(log n)} using the subtree sizes.
+     *
+     * @param index The index of the first element to return.
+     * @return An iterator from the index to the end of the tree.
+     */
+    Iterator<T> iteratorAt(int index) {
+        return new RangeIterator<>(root, index);
+    }
+
+    /**
+     * Returns a spliterator over the elements in ascending order. It is {@link Spliterator#SIZED}
+     * and {@link Spliterator#SUBSIZED}: every split halves the remaining index range, and the
+     * subtree sizes let each half find its first element in {@code O(log n)}, so parallel
+     * streams get balanced work without copying the elements.
+     *
+     * @return A spliterator over the tree.
+     */
+    Spliterator<T> spliterator() {
+        return new TreeSpliterator<>(this, 0, size);
+    }
+
+    /**
+     * Returns a tree that also contains {@code value}. If the value is already present, this
+     * tree is returned unchanged.
+     *
+     * @param value The value to insert.
+     * @return A tree containing the value.
+     */
+    PersistentRedBlackTree<T> insert(T value) {
+        return insert(null, value);
+    }
+
+    /**
+     * Returns a tree that also contains {@code value}, changing the nodes owned by {@code owner}
+     * in place. If the value is already present, this tree is returned unchanged.
+     *
+     * @param owner The owner token of the transient making the change, or {@code null}.
+     * @param value The value to insert.
+     * @return A tree containing the value.
+     */
+    PersistentRedBlackTree<T> insert(Object owner, T value) {
+        if (contains(value)) {
+            return this;
+        }
+        return new PersistentRedBlackTree<>(blacken(owner, insert(owner, root, value)), size + 1);
+    }
+
+    /**
+     * Returns a tree without {@code value}. If the value is absent, this tree is returned
+     * unchanged.
+     *
+     * @param value The value to remove.
+     * @return A tree without the value.
+     */
+    PersistentRedBlackTree<T> remove(T value) {
+        return remove(null, value);
+    }
+
+    /**
+     * Returns a tree without {@code value}, changing the nodes owned by {@code owner} in place.
+     * If the value is absent, this tree is returned unchanged.
+     *
+     * @param owner The owner token of the transient making the change, or {@code null}.
+     * @param value The value to remove.
+     * @return A tree without the value.
+     */
+    PersistentRedBlackTree<T> remove(Object owner, T value) {
+        if (!contains(value)) {
+            return this;
+        }
+        return new PersistentRedBlackTree<>(blacken(owner, remove(owner, root, value)), size - 1);
+    }
+
+    /**
+     * Returns a tree holding the elements of both trees. The in-order sequences are merged in
+     * {@code O(n + m)} time and the result is built directly, without rebalancing.
+     *
+     * @param other The other tree.
+     * @return The union of both trees.
+     */
+    PersistentRedBlackTree<T> union(PersistentRedBlackTree<T> other) {
+        if (other.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        Object[] left = toArray();
+        Object[] right = other.toArray();
+        Object[] result = new Object[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < left.length && j < right.length) {
+            int comparison = compare(left[i], right[j]);
+            if (comparison <= 0) {
+                result[length++] = left[i++];
+                if (comparison == 0) {
+                    j++;
+                }
+            } else {
+                result[length++] = right[j++];
+            }
+        }
+        while (i < left.length) {
+            result[length++] = left[i++];
+        }
+        while (j < right.length) {
+            result[length++] = right[j++];
+        }
+        if (length == size) {
+            return this;
+        }
+        return length == other.size ? other : fromSorted(result, length);
+    }
+
+    /**
+     * Returns a tree holding the elements that are in both trees, merged in {@code O(n + m)}
+     * time.
+     *
+     * @param other The other tree.
+     * @return The intersection of both trees.
+     */
+    PersistentRedBlackTree<T> intersection(PersistentRedBlackTree<T> other) {
+        if (size == 0 || other.size == 0) {
+            return empty();
+        }
+        Object[] left = toArray();
+        Object[] right = other.toArray();
+        Object[] result = new Object[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < left.length && j < right.length) {
+            int comparison = compare(left[i], right[j]);
+            if (comparison < 0) {
+                i++;
+            } else if (comparison > 0) {
+                j++;
+            } else {
+                result[length++] = left[i++];
+                j++;
+            }
+        }
+        return length == size ? this : fromSorted(result, length);
+    }
+
+    /**
+     * Returns a tree holding the elements of this tree that are not in {@code other}, merged in
+     * {@code O(n + m)} time.
+     *
+     * @param other The tree whose elements are excluded.
+     * @return The difference of the trees.
+     */
+    PersistentRedBlackTree<T> difference(PersistentRedBlackTree<T> other) {
+        if (size == 0 || other.size == 0) {
+            return this;
+        }
+        Object[] left = toArray();
+        Object[] right = other.toArray();
+        Object[] result = new Object[left.length];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < left.length && j < right.length) {
+            int comparison = compare(left[i], right[j]);
+            if (comparison < 0) {
+                result[length++] = left[i++];
+            } else if (comparison > 0) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        while (i < left.length) {
+            result[length++] = left[i++];
+        }
+        return length == size ? this : fromSorted(result, length);
+    }
+
+    /**
+     * Returns a tree holding the elements that are in exactly one of the trees, merged in
+     * {@code O(n + m)} time.
+     *
+     * @param other The other tree.
+     * @return The symmetric difference of the trees.
+     */
+    PersistentRedBlackTree<T> symmetricDifference(PersistentRedBlackTree<T> other) {
+        if (other.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        Object[] left = toArray();
+        Object[] right = other.toArray();
+        Object[] result = new Object[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < left.length && j < right.length) {
+            int comparison = compare(left[i], right[j]);
+            if (comparison < 0) {
+                result[length++] = left[i++];
+            } else if (comparison > 0) {
+                result[length++] = right[j++];
+            } else {
+                i++;
+                j++;
+            }
+        }
+        while (i < left.length) {
+            result[length++] = left[i++];
+        }
+        while (j < right.length) {
+            result[length++] = right[j++];
+        }
+        return fromSorted(result, length);
+    }
+
+    /**
+     * Returns the elements in ascending order.
+     *
+     * @return A new array of the elements.
+     */
+    Object[] toArray() {
+        Object[] values = new Object[size];
+        fill(root, values, 0);
+        return values;
+    }
+
+    private static int fill(TreeNode<?> node, Object[] values, int index) {
+        while (node != null) {
+            index = fill(node.left, values, index);
+            values[index++] = node.value;
+            node = node.right;
+        }
+        return index;
+    }
+
+    /**
+     * Builds a tree from the first {@code length} values, which must be in strictly ascending
+     * order, in {@code O(n)} time. The tree is perfectly balanced: every level but the deepest
+     * is full. The nodes on the deepest level are red, whether that level is full or not, and
+     * all other nodes are black; a single node is the black root.
+     *
+     * @param values The values in ascending order.
+     * @param length The number of values to use.
+     * @param <T>    The type of elements in the tree.
+     * @return A tree holding the values.
+     */
+    static <T extends Comparable<T>> PersistentRedBlackTree<T> fromSorted(Object[] values, int length) {
+        if (length == 0) {
+            return empty();
+        }
+        int redLevel = 32 - Integer.numberOfLeadingZeros(length);
+        TreeNode<T> root = build(values, 0, length, 1, redLevel);
+        return new PersistentRedBlackTree<>(root, length);
+    }
+
+    /**
+     * Builds a tree from the first {@code length} values in any order, ignoring duplicates. The
+     * values are sorted in place with {@link Arrays#parallelSort}, which splits large arrays
+     * across the common pool, deduplicated in one pass and then built with {@link #fromSorted}.
+     *
+     * @param values The values, which are reordered.
+     * @param length The number of values to use.
+     * @param <T>    The type of elements in the tree.
+     * @return A tree holding the distinct values.
+     */
+    static <T extends Comparable<T>> PersistentRedBlackTree<T> fromUnsorted(Object[] values, int length) {
+        return fromSorted(values, sortDistinct(values, length));
+    }
+
+    /**
+     * Sorts the first {@code length} values in place and moves the distinct ones to the front.
+     *
+     * @param values The values, which are reordered.
+     * @param length The number of values to use.
+     * @return The number of distinct values.
+     */
+    static int sortDistinct(Object[] values, int length) {
+        Arrays.parallelSort(values, 0, length, NATURAL_ORDER);
+        int distinct = Math.min(length, 1);
+        for (int i = 1; i < length; i++) {
+            if (compare(values[distinct - 1], values[i]) != 0) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Checks that the first {@code length} values are in strictly ascending order.
+     *
+     * @param values The values to check.
+     * @param length The number of values to check.
+     * @return true if every value is greater than the one before it.
+     */
+    static boolean isStrictlyAscending(Object[] values, int length) {
+        for (int i = 1; i < length; i++) {
+            if (compare(values[i - 1], values[i]) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> TreeNode<T> build(Object[] values, int from, int to, int level, int redLevel) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        TreeNode<T> left = build(values, from, middle, level + 1, redLevel);
+        TreeNode<T> right = build(values, middle + 1, to, level + 1, redLevel);
+        boolean color = level == redLevel && level != 1 ? RED : BLACK;
+        return new TreeNode<>(null, color, left, (T) values[middle], right);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> int compare(Object a, Object b) {
+        return ((T) a).compareTo((T) b);
+    }
+
+    /**
+     * Returns the sum of the hash codes of the elements.
+     *
+     * @return The hash code sum.
+     */
+    int hashSum() {
+        return hashSum(root);
+    }
+
+    private static int hashSum(TreeNode<?> node) {
+        int hash = 0;
+        while (node != null) {
+            hash += hashSum(node.left) + node.value.hashCode();
+            node = node.right;
+        }
+        return hash;
+    }
+
+    /**
+     * Calls {@code action} for every element in ascending order.
+     *
+     * @param action The action to perform on each element.
+     */
+    void forEach(Consumer<? super T> action) {
+        forEach(root, action);
+    }
+
+    private static <T> void forEach(TreeNode<T> node, Consumer<? super T> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private static <T extends Comparable<T>> TreeNode<T> insert(Object owner, TreeNode<T> node, T value) {
+        if (node == null) {
+            return new TreeNode<>(owner, RED, null, value, null);
+        }
+        int comparison = value.compareTo(node.value);
+        if (node.isBlack()) {
+            return comparison < 0
+                    ? balance(owner, node, insert(owner, node.left, value), node.value, node.right)
+                    : balance(owner, node, node.left, node.value, insert(owner, node.right, value));
+        }
+        return comparison < 0
+                ? edit(owner, node, RED, insert(owner, node.left, value), node.value, node.right)
+                : edit(owner, node, RED, node.left, node.value, insert(owner, node.right, value));
+    }
+
+    private static <T extends Comparable<T>> TreeNode<T> remove(Object owner, TreeNode<T> node, T value) {
+        int comparison = value.compareTo(node.value);
+        if (comparison < 0) {
+            boolean wasBlack = isBlack(node.left);
+            TreeNode<T> left = remove(owner, node.left, value);
+            return wasBlack
+                    ? balanceLeft(owner, node, left, node.value, node.right)
+                    : edit(owner, node, RED, left, node.value, node.right);
+        }
+        if (comparison > 0) {
+            boolean wasBlack = isBlack(node.right);
+            TreeNode<T> right = remove(owner, node.right, value);
+            return wasBlack
+                    ? balanceRight(owner, node, node.left, node.value, right)
+                    : edit(owner, node, RED, node.left, node.value, right);
+        }
+        return append(owner, node.left, node.right);
+    }
+
+    /**
+     * Returns a node with the given parts, rebuilding {@code reuse} in place if it is owned by
+     * {@code owner}. The caller must no longer need the old parts of {@code reuse}.
+     */
+    private static <T> TreeNode<T> edit(Object owner, TreeNode<T> reuse, boolean color, TreeNode<T> left,
+                                        T value, TreeNode<T> right) {
+        if (owner != null && reuse != null && reuse.owner == owner) {
+            reuse.color = color;
+            reuse.left = left;
+            reuse.value = value;
+            reuse.right = right;
+            reuse.size = sizeOf(left) + 1 + sizeOf(right);
+            return reuse;
+        }
+        return new TreeNode<>(owner, color, left, value, right);
+    }
+
+    /**
+     * Rebuilds a black node from its parts, resolving a red child with a red child by rotating
+     * and recoloring. The nodes taken apart by a rotation are reused for the nodes it creates.
+     */
+    private static <T> TreeNode<T> balance(Object owner, TreeNode<T> node, TreeNode<T> left, T value,
+                                           TreeNode<T> right) {
+        if (isRed(left) && isRed(right)) {
+            return edit(owner, node, RED, blacken(owner, left), value, blacken(owner, right));
+        }
+        if (isRed(left)) {
+            if (isRed(left.left)) {
+                return edit(owner, left, RED, blacken(owner, left.left), left.value,
+                        edit(owner, node, BLACK, left.right, value, right));
+            }
+            if (isRed(left.right)) {
+                TreeNode<T> middle = left.right;
+                return edit(owner, middle, RED, edit(owner, left, BLACK, left.left, left.value, middle.left),
+                        middle.value, edit(owner, node, BLACK, middle.right, value, right));
+            }
+        }
+        if (isRed(right)) {
+            if (isRed(right.right)) {
+                return edit(owner, right, RED, edit(owner, node, BLACK, left, value, right.left), right.value,
+                        blacken(owner, right.right));
+            }
+            if (isRed(right.left)) {
+                TreeNode<T> middle = right.left;
+                return edit(owner, middle, RED, edit(owner, node, BLACK, left, value, middle.left),
+                        middle.value, edit(owner, right, BLACK, middle.right, right.value, right.right));
+            }
+        }
+        return edit(owner, node, BLACK, left, value, right);
+    }
+
+    /**
+     * Restores the black height after the left subtree lost one black node.
+     */
+    private static <T> TreeNode<T> balanceLeft(Object owner, TreeNode<T> node, TreeNode<T> left, T value,
+                                               TreeNode<T> right) {
+        if (isRed(left)) {
+            return edit(owner, node, RED, blacken(owner, left), value, right);
+        }
+        if (isBlack(right)) {
+            return balance(owner, node, left, value, redden(owner, right));
+        }
+        if (isRed(right) && isBlack(right.left)) {
+            TreeNode<T> middle = right.left;
+            return edit(owner, middle, RED, edit(owner, node, BLACK, left, value, middle.left), middle.value,
+                    balance(owner, right, middle.right, right.value, redden(owner, right.right)));
+        }
+        throw new IllegalStateException("Red-Black Tree invariant violated");
+    }
+
+    /**
+     * Restores the black height after the right subtree lost one black node.
+     */
+    private static <T> TreeNode<T> balanceRight(Object owner, TreeNode<T> node, TreeNode<T> left, T value,
+                                                TreeNode<T> right) {
+        if (isRed(right)) {
+            return edit(owner, node, RED, left, value, blacken(owner, right));
+        }
+        if (isBlack(left)) {
+            return balance(owner, node, redden(owner, left), value, right);
+        }
+        if (isRed(left) && isBlack(left.right)) {
+            TreeNode<T> middle = left.right;
+            return edit(owner, middle, RED, balance(owner, left, redden(owner, left.left), left.value, middle.left),
+                    middle.value, edit(owner, node, BLACK, middle.right, value, right));
+        }
+        throw new IllegalStateException("Red-Black Tree invariant violated");
+    }
+
+    /**
+     * Joins the two subtrees of a removed node, which have the same black height and hold all
+     * smaller and all larger values respectively.
+     */
+    private static <T> TreeNode<T> append(Object owner, TreeNode<T> left, TreeNode<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.isRed() && right.isRed()) {
+            TreeNode<T> middle = append(owner, left.right, right.left);
+            if (isRed(middle)) {
+                return edit(owner, middle, RED, edit(owner, left, RED, left.left, left.value, middle.left),
+                        middle.value, edit(owner, right, RED, middle.right, right.value, right.right));
+            }
+            return edit(owner, left, RED, left.left, left.value,
+                    edit(owner, right, RED, middle, right.value, right.right));
+        }
+        if (left.isBlack() && right.isBlack()) {
+            TreeNode<T> middle = append(owner, left.right, right.left);
+            if (isRed(middle)) {
+                return edit(owner, middle, RED, edit(owner, left, BLACK, left.left, left.value, middle.left),
+                        middle.value, edit(owner, right, BLACK, middle.right, right.value, right.right));
+            }
+            return balanceLeft(owner, left, left.left, left.value,
+                    edit(owner, right, BLACK, middle, right.value, right.right));
+        }
+        if (right.isRed()) {
+            return edit(owner, right, RED, append(owner, left, right.left), right.value, right.right);
+        }
+        return edit(owner, left, RED, left.left, left.value, append(owner, left.right, right));
+    }
+
+    private static int sizeOf(TreeNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static boolean isRed(TreeNode<?> node) {
+        return node != null && node.isRed();
+    }
+
+    private static boolean isBlack(TreeNode<?> node) {
+        return node != null && node.isBlack();
+    }
+
+    private static <T> TreeNode<T> blacken(Object owner, TreeNode<T> node) {
+        return node == null || node.isBlack() ? node : edit(owner, node, BLACK, node.left, node.value, node.right);
+    }
+
+    private static <T> TreeNode<T> redden(Object owner, TreeNode<T> node) {
+        return edit(owner, node, RED, node.left, node.value, node.right);
+    }
+
+    /**
+     * Generates a string representation of the tree structure in the same format as
+     * {@link RedBlackTree#stringRedBlackTree()}.
+     *
+     * @return A string representing the tree.
+     */
+    String stringRedBlackTree() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("RedBlack Tree with Nodes and Values\n\n");
+        stringRedBlackTree(root, "", true, sb);
+        sb.append("\nTotal size: ").append(size);
+        return sb.toString();
+    }
+
+    private static void stringRedBlackTree(TreeNode<?> node, String indent, boolean isLeft, StringBuilder sb) {
+        if (node == null) {
+            return;
+        }
+        sb.append(indent).append(isLeft ? " /-- " : " \\-- ");
+        sb.append(node.value).append(node.isRed() ? "R" : "B").append("\n");
+        stringRedBlackTree(node.left, indent + "     ", true, sb);
+        stringRedBlackTree(node.right, indent + "     ", false, sb);
+    }
+
+    /**
+     * An in-order iterator over a range of a tree. The stack holds the nodes whose left subtree
+     * has been visited but whose own value has not been returned yet.
+     */
+    private static final class RangeIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final ArrayDeque<TreeNode<T>> stack = new ArrayDeque<>();
+        private final T to;
+
+        RangeIterator(TreeNode<T> root, int index) {
+            this.to = null;
+            TreeNode<T> node = root;
+            while (node != null) {
+                int leftSize = sizeOf(node.left);
+                if (index <= leftSize) {
+                    stack.push(node);
+                    if (index == leftSize) {
+                        break;
+                    }
+                    node = node.left;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        RangeIterator(TreeNode<T> root, T from, T to) {
+            this.to = to;
+            TreeNode<T> node = root;
+            while (node != null) {
+                if (from != null && node.value.compareTo(from) < 0) {
+                    node = node.right;
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            TreeNode<T> next = stack.peek();
+            return next != null && (to == null || next.value.compareTo(to) < 0);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            TreeNode<T> node = stack.pop();
+            for (TreeNode<T> child = node.right; child != null; child = child.left) {
+                stack.push(child);
+            }
+            return node.value;
+        }
+    }
+
+    /**
+     * A spliterator over the index range {@code [index, fence)} of a tree. Traversal starts an
+     * in-order iterator lazily, so splitting before traversal only does index arithmetic.
+     */
+    private static final class TreeSpliterator<T extends Comparable<T>> implements Spliterator<T> {
+        private final PersistentRedBlackTree<T> tree;
+        private final int fence;
+        private int index;
+        private Iterator<T> iterator;
+
+        TreeSpliterator(PersistentRedBlackTree<T> tree, int index, int fence) {
+            this.tree = tree;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= fence) {
+                return false;
+            }
+            if (iterator == null) {
+                iterator = tree.iteratorAt(index);
+            }
+            index++;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (tryAdvance(action)) {
+                // advance until the fence
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new TreeSpliterator<>(tree, index, middle);
+            index = middle;
+            iterator = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return null;
+        }
+    }
+}
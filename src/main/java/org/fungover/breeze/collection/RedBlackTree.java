@@ -1,7 +1,9 @@
 package org.fungover.breeze.collection;
 
 
+import java.util.ArrayDeque;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 
 
@@ -159,10 +161,10 @@ final class RedBlackTree<T extends Comparable<T>> {
                 current = parent;
                 rightRotate(current);
             }
-            // Case 3 current is right child
-            parent.color = BLACK;
-            grandParent.color = RED;
-            leftRotate(grandParent);
+            // Case 3 current is right child; after a Case 2 rotation current's parent has changed
+            current.parent.color = BLACK;
+            current.parent.parent.color = RED;
+            leftRotate(current.parent.parent);
         }
         return current;
     }
@@ -190,10 +192,10 @@ final class RedBlackTree<T extends Comparable<T>> {
                 current = parent;
                 leftRotate(current);
             }
-            // Case current is left child
-            parent.color = BLACK;
-            grandParent.color = RED;
-            rightRotate(grandParent);
+            // Case current is left child; after the rotation above current's parent has changed
+            current.parent.color = BLACK;
+            current.parent.parent.color = RED;
+            rightRotate(current.parent.parent);
         }
         return current;
     }
@@ -285,7 +287,7 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Recursively searches for a value in the tree.
+     * Searches for a value in the tree, descending from the given node in a loop.
      *
      * @param node The current node to search.
      * @param value The value to search for.
@@ -295,22 +297,21 @@ final class RedBlackTree<T extends Comparable<T>> {
         if (value == null) {
             return node;
         }
-        if (node == null) {
-            return null; // Value not found
-        }
-
-        int comparison = value.compareTo(node.getValue());
-
-        if (comparison < 0) {
-            // Search in the left subtree
-            return findValue(node.left, value);
-        } else if (comparison > 0) {
-            // Search in the right subtree
-            return findValue(node.right, value);
-        } else {
-            // Value found
-            return node;
+        while (node != null) {
+            int comparison = value.compareTo(node.getValue());
+
+            if (comparison < 0) {
+                // Search in the left subtree
+                node = node.left;
+            } else if (comparison > 0) {
+                // Search in the right subtree
+                node = node.right;
+            } else {
+                // Value found
+                return node;
+            }
         }
+        return null; // Value not found
     }
 
 
@@ -341,10 +342,63 @@ final class RedBlackTree<T extends Comparable<T>> {
      * @param node Stating point of traversal in the Red-Black Tree.
      */
     private void inorder(Node<T> node) {
+        inOrder(node, current -> System.out.println(current.getValue() + " "));
+    }
+
+    /**
+     * Calls {@code action} for every value in natural order.
+     *
+     * @param action The action to perform on each value.
+     */
+    void forEach(Consumer<? super T> action) {
+        forEach(root, action);
+    }
+
+    private void forEach(Node<T> node, Consumer<? super T> action) {
+        inOrder(node, current -> action.accept(current.getValue()));
+    }
+
+    /**
+     * Visits the nodes below {@code node} in order, using an explicit stack instead of
+     * recursion.
+     *
+     * @param node Starting point of the traversal.
+     * @param action The action to perform on each node.
+     */
+    private static <T extends Comparable<T>> void inOrder(Node<T> node, Consumer<Node<T>> action) {
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            action.accept(node);
+            node = node.right;
+        }
+    }
+
+    /**
+     * Visits the nodes below {@code node} in pre-order (node, left subtree, right subtree), using
+     * an explicit stack instead of recursion.
+     *
+     * @param node Starting point of the traversal.
+     * @param action The action to perform on each node.
+     */
+    private static <T extends Comparable<T>> void preOrder(Node<T> node, Consumer<Node<T>> action) {
         if (node == null) return;
-        inorder(node.left);
-        System.out.println(node.getValue() + " ");
-        inorder(node.right);
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node<T> current = stack.pop();
+            action.accept(current);
+            if (current.right != null) {
+                stack.push(current.right);
+            }
+            if (current.left != null) {
+                stack.push(current.left);
+            }
+        }
     }
 
     /**
@@ -418,16 +472,12 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Recursively prints the tree in a standard format (value only).
+     * Prints the tree in a standard format (value only), visiting the nodes in pre-order.
      *
      * @param node The current node.
      */
     private void stringSetBuilderHelper(Node<T> node, StringBuilder setStringStandard) {
-        if(node == null)
-            return;
-        setStringStandard.append(node.getValue() + ", ");
-        stringSetBuilderHelper(node.left, setStringStandard);
-        stringSetBuilderHelper(node.right, setStringStandard);
+        preOrder(node, current -> setStringStandard.append(current.getValue()).append(", "));
     }
 
 
@@ -477,23 +527,12 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Helper method that recursively inserts values from another tree into the current tree.
+     * Helper method that inserts values from another tree into the current tree in pre-order.
      *
      * @param node The current node in the other tree that needs to be inserted into this tree.
      */
     private void insertFromAnotherTreeHelper(Node<T> node) {
-        if (node == null) return;
-
-        // Insert the current node's value
-        insert(node.getValue());
-
-        // Recurse to insert left and right children
-        if (node.left != null) {
-            insertFromAnotherTreeHelper(node.left);
-        }
-        if (node.right != null) {
-            insertFromAnotherTreeHelper(node.right);
-        }
+        preOrder(node, current -> insert(current.getValue()));
     }
 
 
@@ -508,20 +547,17 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Helper method that recursively removes nodes from the tree, skipping a specific value.
+     * Helper method that removes nodes from the tree, skipping a specific value.
      *
      * @param root The current node in the tree.
      * @param value The value to skip during removal.
      */
     private void removalBySkipHelper(Node<T> root, T value) {
-        if (root == null) return;
-
-        if (!root.getValue().equals(value)) {
-            insert(root.getValue());
-        }
-        removalBySkipHelper(root.left, value);
-        removalBySkipHelper(root.right, value);
-
+        preOrder(root, current -> {
+            if (!current.getValue().equals(value)) {
+                insert(current.getValue());
+            }
+        });
     }
 
 
@@ -540,24 +576,19 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Helper method to recursively compute the intersection of two trees and insert the resulting
-     * nodes into the new tree.
+     * Helper method to compute the intersection of two trees and insert the resulting nodes into
+     * the new tree.
      *
      * @param tree The set that provides the values to compare with.
      * @param other The current node in the other tree.
      * @param newTree The RedBlackTree where the intersected values will be inserted.
      */
     private void intersectWithOtherTreeHelper(FSet<T> tree, Node<T> other, RedBlackTree<T> newTree) {
-
-        if (other == null) {
-            return;
-        }
-
-        if (tree.contains(other.getValue())) {
-            newTree.insert(other.getValue());
-        }
-        intersectWithOtherTreeHelper(tree, other.left, newTree);
-        intersectWithOtherTreeHelper(tree, other.right, newTree);
+        preOrder(other, current -> {
+            if (tree.contains(current.getValue())) {
+                newTree.insert(current.getValue());
+            }
+        });
     }
 
 
@@ -576,24 +607,19 @@ final class RedBlackTree<T extends Comparable<T>> {
     }
 
     /**
-     * Helper method to recursively compute the symmetric difference between two trees and insert
-     * the resulting nodes into the new tree.
+     * Helper method to compute the symmetric difference between two trees and insert the
+     * resulting nodes into the new tree.
      *
      * @param node The set that provides the values to compare with.
      * @param other The current node in the other tree.
      * @param newTree The RedBlackTree where the resulting values will be inserted.
      */
     private void symmetricDifferenceWithOtherTreeHelper(Node<T> node, RedBlackTree<T> other, RedBlackTree<T> newTree) {
-
-        if (node == null) {
-            return;
-        }
-
-        if (!(other.isNodeWithValueFound(node.getValue()) )) {
-            newTree.insert(node.getValue());
-        }
-        symmetricDifferenceWithOtherTreeHelper(node.left, other, newTree);
-        symmetricDifferenceWithOtherTreeHelper(node.right, other, newTree);
+        preOrder(node, current -> {
+            if (!other.isNodeWithValueFound(current.getValue())) {
+                newTree.insert(current.getValue());
+            }
+        });
     }
 
     /**
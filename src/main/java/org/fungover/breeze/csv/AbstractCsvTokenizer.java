@@ -0,0 +1,305 @@
+package org.fungover.breeze.csv;
+
+import java.io.IOException;
+
+/**
+ * Splits input into {@link CsvRecord}s over a reusable window. Records are located by offset and
+ * length only; field contents are never copied. Ordinary characters are skipped a vector at a
+ * time with {@link SimdScanner}, so the state machine only runs on delimiters, quotes and line
+ * breaks.
+ * <p>
+ * Records end at an unquoted {@code \n}, {@code \r\n} or {@code \r}. Line breaks inside a quoted
+ * section belong to the field, so a single record may span several lines. A quoted section that
+ * is never closed runs to the end of the input, excluding a final line break.
+ * </p>
+ * <p>
+ * The window is refilled when a record runs past its end. Unconsumed input is moved to the front
+ * first, and the window doubles if a single record does not fit, so memory is bounded by the
+ * longest record rather than the size of the input.
+ * </p>
+ * <p>
+ * Subclasses own the window array and its source, and supply the vector scan and the way records
+ * decode their fields: {@link CsvTokenizer} for characters, {@link ByteCsvTokenizer} for bytes.
+ * </p>
+ */
+abstract class AbstractCsvTokenizer implements RecordSource {
+
+    private static final int RECORD = 0;
+    private static final int BLANK_RECORD = 1;
+    private static final int NEED_MORE_INPUT = 2;
+    private static final int END_OF_INPUT = 3;
+
+    private static final int NO_BLOCK = Integer.MIN_VALUE / 2;
+
+    private final int delimiter;
+    private final int quoteChar;
+    private final int lanes;
+
+    private int position;
+    private int limit;
+    private long windowStart;
+    private long nextLine = 1;
+    private boolean endOfInput;
+    private int blockStart = NO_BLOCK;
+    private long blockBits;
+
+    AbstractCsvTokenizer(char delimiter, char quoteChar, int lanes) {
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.lanes = lanes;
+    }
+
+    /**
+     * Returns the character, or the unsigned byte, at {@code index} in the window.
+     */
+    abstract int unitAt(int index);
+
+    /**
+     * Returns a mask of the structural characters in the vector of {@code lanes} units starting
+     * at {@code offset}, see {@link SimdScanner}.
+     */
+    abstract long structuralMask(int offset);
+
+    /**
+     * Starts a new row in {@code record} over the current window.
+     */
+    abstract void resetRecord(CsvRecord record);
+
+    /**
+     * Returns the length of the window.
+     */
+    abstract int capacity();
+
+    /**
+     * Moves {@code length} units starting at {@code from} to the front of the window.
+     */
+    abstract void moveToFront(int from, int length);
+
+    /**
+     * Doubles the length of the window, keeping its contents.
+     */
+    abstract void grow();
+
+    /**
+     * Reads up to {@code length} units from the source into the window at {@code offset}.
+     *
+     * @return the number of units read, or {@code -1} at the end of the input
+     */
+    abstract int read(int offset, int length) throws IOException;
+
+    /**
+     * Skips up to {@code count} units of the source, as {@link java.io.Reader#skip(long)}.
+     */
+    abstract long skip(long count) throws IOException;
+
+    /**
+     * Reads a single unit from the source, as {@link java.io.Reader#read()}.
+     */
+    abstract int read() throws IOException;
+
+    @Override
+    public boolean next(CsvRecord record, boolean skipBlank) throws IOException {
+        while (true) {
+            int result = scan(record);
+            if (result == END_OF_INPUT) {
+                return false;
+            }
+            if (result == NEED_MORE_INPUT) {
+                fill();
+                continue;
+            }
+            if (!(skipBlank && result == BLANK_RECORD)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Scans one record starting at {@code position}. If the window ends before the record does,
+     * nothing is consumed and the caller refills the window and scans the record again.
+     */
+    private int scan(CsvRecord record) {
+        if (position == limit) {
+            return endOfInput ? END_OF_INPUT : NEED_MORE_INPUT;
+        }
+        resetRecord(record);
+        int fieldStart = position;
+        int lineBreaks = 0;
+        boolean hasQuotes = false;
+        boolean inQuotes = false;
+        boolean blank = true;
+        int i = position;
+        while (true) {
+            int structural = nextStructural(i);
+            if (blank) {
+                blank = isBlank(i, structural);
+            }
+            i = structural;
+            if (i >= limit) {
+                break;
+            }
+            int c = unitAt(i);
+            if ((c == '\n' || c == '\r') && !inQuotes) {
+                int next = i + 1;
+                if (c == '\r') {
+                    if (next == limit && !endOfInput) {
+                        return NEED_MORE_INPUT;
+                    }
+                    if (next < limit && unitAt(next) == '\n') {
+                        next++;
+                    }
+                }
+                record.addField(fieldStart, i, hasQuotes);
+                record.complete(position, i, nextLine, false);
+                nextLine += 1 + lineBreaks;
+                position = next;
+                return blank ? BLANK_RECORD : RECORD;
+            }
+            if (c == '\n' || c == '\r') {
+                if (c == '\n' || i + 1 == limit || unitAt(i + 1) != '\n') {
+                    lineBreaks++;
+                }
+                i++;
+                continue;
+            }
+            if (c > ' ') {
+                blank = false;
+            }
+            if (c == quoteChar) {
+                hasQuotes = true;
+                if (inQuotes && i + 1 == limit && !endOfInput) {
+                    return NEED_MORE_INPUT;
+                }
+                if (inQuotes && i + 1 < limit && unitAt(i + 1) == quoteChar) {
+                    i += 2;
+                    continue;
+                }
+                inQuotes = !inQuotes;
+            } else if (c == delimiter && !inQuotes) {
+                record.addField(fieldStart, i, hasQuotes);
+                fieldStart = i + 1;
+                hasQuotes = false;
+            }
+            i++;
+        }
+        if (!endOfInput) {
+            return NEED_MORE_INPUT;
+        }
+        int end = inQuotes ? withoutTrailingLineBreak(fieldStart, limit) : limit;
+        record.addField(fieldStart, end, hasQuotes);
+        record.complete(position, end, nextLine, inQuotes);
+        nextLine += 1 + lineBreaks;
+        position = limit;
+        return blank ? BLANK_RECORD : RECORD;
+    }
+
+    /**
+     * Returns the index of the first delimiter, quote or line break at or after {@code from}, or
+     * {@code limit} if there is none. Whole vectors are classified at once and the resulting
+     * bitmask is kept, so consecutive calls within a block only shift and count bits.
+     */
+    private int nextStructural(int from) {
+        while (from < limit) {
+            if (from >= blockStart && from < blockStart + lanes) {
+                long bits = blockBits & (-1L << (from - blockStart));
+                if (bits != 0) {
+                    return blockStart + Long.numberOfTrailingZeros(bits);
+                }
+                from = blockStart + lanes;
+            } else if (from + lanes <= limit) {
+                blockStart = from;
+                blockBits = structuralMask(from);
+            } else {
+                for (; from < limit; from++) {
+                    int c = unitAt(from);
+                    if (c == delimiter || c == quoteChar || c == '\n' || c == '\r') {
+                        return from;
+                    }
+                }
+            }
+        }
+        return limit;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (unitAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long offset() {
+        return windowStart + position;
+    }
+
+    /**
+     * Moves forward to {@code offset}. Input that is already in the window is skipped in place;
+     * the rest is skipped on the source without being read into the window.
+     */
+    @Override
+    public void skipTo(long offset) throws IOException {
+        if (offset < offset()) {
+            throw new IllegalArgumentException("Cannot skip backwards");
+        }
+        blockStart = NO_BLOCK;
+        if (offset <= windowStart + limit) {
+            position = (int) (offset - windowStart);
+            return;
+        }
+        long remaining = offset - (windowStart + limit);
+        windowStart = offset;
+        position = 0;
+        limit = 0;
+        while (remaining > 0) {
+            long skipped = skip(remaining);
+            if (skipped <= 0) {
+                if (read() < 0) {
+                    endOfInput = true;
+                    windowStart -= remaining;
+                    return;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private int withoutTrailingLineBreak(int start, int end) {
+        if (end > start && unitAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && unitAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Moves unconsumed input to the front of the window, grows it if it is full and reads more
+     * from the source.
+     */
+    private void fill() throws IOException {
+        blockStart = NO_BLOCK;
+        if (position > 0) {
+            windowStart += position;
+            moveToFront(position, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == capacity()) {
+            grow();
+        }
+        int read;
+        do {
+            read = read(limit, capacity() - limit);
+        } while (read == 0);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
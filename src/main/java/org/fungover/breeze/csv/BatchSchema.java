@@ -0,0 +1,224 @@
+package org.fungover.breeze.csv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Describes the columns and types of the {@link ColumnBatch}es read by
+ * {@link CsvReader#nextBatch(BatchSchema, int)}.
+ * <p>
+ * Columns are selected by index or by header name and appear in the batch in the order they were
+ * added. Numeric columns are parsed into primitive arrays and string columns are dictionary
+ * encoded.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * BatchSchema schema = BatchSchema.builder()
+ *     .stringColumn("country")
+ *     .intColumn("year")
+ *     .doubleColumn("price")
+ *     .build();
+ * }</pre>
+ */
+public final class BatchSchema {
+
+    private record Column(ColumnRef column, IntFunction<ColumnVector> factory) {
+    }
+
+    private final List<Column> columns;
+
+    private BatchSchema(List<Column> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a new builder instance for configuring a BatchSchema.
+     *
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of columns in this schema.
+     *
+     * @return the number of columns
+     */
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Returns the row index of each column.
+     *
+     * @throws IllegalStateException if a column is named that the header does not contain
+     */
+    int[] resolve(String[] headers) {
+        HeaderIndex index = headers == null ? null : new HeaderIndex(headers);
+        int[] indices = new int[columns.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = columns.get(i).column().resolve(index);
+        }
+        return indices;
+    }
+
+    /**
+     * Returns the name of each column: the name it was selected by, or otherwise its header name,
+     * or {@code null} if there is no header.
+     */
+    String[] names(String[] headers, int[] indices) {
+        String[] names = new String[columns.size()];
+        for (int i = 0; i < names.length; i++) {
+            String name = columns.get(i).column().name();
+            if (name == null && headers != null && indices[i] < headers.length) {
+                name = headers[indices[i]];
+            }
+            names[i] = name;
+        }
+        return names;
+    }
+
+    /**
+     * Returns one empty vector per column, each able to hold {@code capacity} rows.
+     */
+    ColumnVector[] newVectors(int capacity) {
+        ColumnVector[] vectors = new ColumnVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = columns.get(i).factory().apply(capacity);
+        }
+        return vectors;
+    }
+
+    /**
+     * Builder for BatchSchema.
+     */
+    public static final class Builder {
+        private final List<Column> columns = new ArrayList<>();
+
+        private Builder() {
+            // private constructor
+        }
+
+        /**
+         * Adds the named column as an {@code int} vector.
+         *
+         * @param name the header name
+         * @return this builder instance
+         */
+        public Builder intColumn(String name) {
+            return add(ColumnRef.of(name), ColumnVector.Ints::new);
+        }
+
+        /**
+         * Adds the column at the given index as an {@code int} vector.
+         *
+         * @param index the zero-based column index
+         * @return this builder instance
+         */
+        public Builder intColumn(int index) {
+            return add(ColumnRef.of(index), ColumnVector.Ints::new);
+        }
+
+        /**
+         * Adds the named column as a {@code long} vector.
+         *
+         * @param name the header name
+         * @return this builder instance
+         */
+        public Builder longColumn(String name) {
+            return add(ColumnRef.of(name), ColumnVector.Longs::new);
+        }
+
+        /**
+         * Adds the column at the given index as a {@code long} vector.
+         *
+         * @param index the zero-based column index
+         * @return this builder instance
+         */
+        public Builder longColumn(int index) {
+            return add(ColumnRef.of(index), ColumnVector.Longs::new);
+        }
+
+        /**
+         * Adds the named column as a {@code float} vector.
+         *
+         * @param name the header name
+         * @return this builder instance
+         */
+        public Builder floatColumn(String name) {
+            return add(ColumnRef.of(name), ColumnVector.Floats::new);
+        }
+
+        /**
+         * Adds the column at the given index as a {@code float} vector.
+         *
+         * @param index the zero-based column index
+         * @return this builder instance
+         */
+        public Builder floatColumn(int index) {
+            return add(ColumnRef.of(index), ColumnVector.Floats::new);
+        }
+
+        /**
+         * Adds the named column as a {@code double} vector.
+         *
+         * @param name the header name
+         * @return this builder instance
+         */
+        public Builder doubleColumn(String name) {
+            return add(ColumnRef.of(name), ColumnVector.Doubles::new);
+        }
+
+        /**
+         * Adds the column at the given index as a {@code double} vector.
+         *
+         * @param index the zero-based column index
+         * @return this builder instance
+         */
+        public Builder doubleColumn(int index) {
+            return add(ColumnRef.of(index), ColumnVector.Doubles::new);
+        }
+
+        /**
+         * Adds the named column as a dictionary encoded string vector.
+         *
+         * @param name the header name
+         * @return this builder instance
+         */
+        public Builder stringColumn(String name) {
+            return add(ColumnRef.of(name), ColumnVector.Strings::new);
+        }
+
+        /**
+         * Adds the column at the given index as a dictionary encoded string vector.
+         *
+         * @param index the zero-based column index
+         * @return this builder instance
+         */
+        public Builder stringColumn(int index) {
+            return add(ColumnRef.of(index), ColumnVector.Strings::new);
+        }
+
+        private Builder add(ColumnRef column, IntFunction<ColumnVector> factory) {
+            columns.add(new Column(column, factory));
+            return this;
+        }
+
+        /**
+         * Builds a new BatchSchema with the configured columns.
+         *
+         * @return a new {@link BatchSchema} instance
+         * @throws IllegalStateException if no columns were added
+         */
+        public BatchSchema build() {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("Schema must have at least one column");
+            }
+            return new BatchSchema(List.copyOf(columns));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.fungover.breeze.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits bytes from an {@link InputStream} into {@link CsvRecord}s over a reusable {@code byte[]}
+ * window, without decoding the input to characters first. Fields are decoded only when they are
+ * materialized, and fields that are pure ASCII become compact Latin-1 strings.
+ * <p>
+ * This requires a charset in which the delimiter, quote and line break characters are single
+ * bytes that never occur inside a multibyte sequence, which holds for UTF-8, US-ASCII and
+ * ISO-8859-1 (see {@link #supports(Charset, char, char)}). Record boundaries, quoting and window
+ * management are shared with {@link CsvTokenizer} in {@link AbstractCsvTokenizer}.
+ * </p>
+ */
+final class ByteCsvTokenizer extends AbstractCsvTokenizer {
+
+    private final InputStream input;
+    private final Charset charset;
+    private final byte delimiter;
+    private final byte quoteChar;
+
+    private byte[] buffer;
+
+    ByteCsvTokenizer(InputStream input, Charset charset, char delimiter, char quoteChar, int bufferSize) {
+        super(delimiter, quoteChar, SimdScanner.BYTE_SPECIES.length());
+        if (!supports(charset, delimiter, quoteChar)) {
+            throw new IllegalArgumentException(
+                    "Byte parsing requires an ASCII compatible charset and ASCII delimiter and quote characters");
+        }
+        this.input = input;
+        this.charset = charset;
+        this.delimiter = (byte) delimiter;
+        this.quoteChar = (byte) quoteChar;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Returns true if input in {@code charset} can be split on raw bytes with the given delimiter
+     * and quote character.
+     */
+    static boolean supports(Charset charset, char delimiter, char quoteChar) {
+        return (charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1))
+                && delimiter <= 0x7F && quoteChar <= 0x7F;
+    }
+
+    @Override
+    int unitAt(int index) {
+        return buffer[index] & 0xFF;
+    }
+
+    @Override
+    long structuralMask(int offset) {
+        return SimdScanner.structuralMask(buffer, offset, delimiter, quoteChar);
+    }
+
+    @Override
+    void resetRecord(CsvRecord record) {
+        record.reset(buffer, charset);
+    }
+
+    @Override
+    int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    void moveToFront(int from, int length) {
+        System.arraycopy(buffer, from, buffer, 0, length);
+    }
+
+    @Override
+    void grow() {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+
+    @Override
+    int read(int offset, int length) throws IOException {
+        return input.read(buffer, offset, length);
+    }
+
+    @Override
+    long skip(long count) throws IOException {
+        return input.skip(count);
+    }
+
+    @Override
+    int read() throws IOException {
+        return input.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
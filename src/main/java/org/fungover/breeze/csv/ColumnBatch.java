@@ -0,0 +1,109 @@
+package org.fungover.breeze.csv;
+
+import java.util.Objects;
+
+/**
+ * A batch of CSV rows stored column by column, as described by a {@link BatchSchema}.
+ * <p>
+ * Each column is a {@link ColumnVector} holding one value per row of the batch, so analytics can
+ * run over primitive arrays instead of row objects. Batches are independent of each other and of
+ * the reader, and can be kept after the next batch is read.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * ColumnBatch batch;
+ * while ((batch = reader.nextBatch(schema, 4096)) != null) {
+ *     double[] prices = batch.column("price", ColumnVector.Doubles.class).values();
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class ColumnBatch {
+
+    private final String[] names;
+    private final ColumnVector[] columns;
+    private final int rowCount;
+
+    ColumnBatch(String[] names, ColumnVector[] columns, int rowCount) {
+        this.names = names;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Returns the number of rows in this batch.
+     *
+     * @return the number of rows
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns in this batch.
+     *
+     * @return the number of columns
+     */
+    public int columnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the column at the given position in the schema.
+     *
+     * @param column the zero-based position of the column in the schema
+     * @return the column vector
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public ColumnVector column(int column) {
+        Objects.checkIndex(column, columns.length);
+        return columns[column];
+    }
+
+    /**
+     * Returns the column with the given name.
+     *
+     * @param name the column name
+     * @return the column vector
+     * @throws IllegalArgumentException if the batch has no column with that name
+     */
+    public ColumnVector column(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (name.equals(names[i])) {
+                return columns[i];
+            }
+        }
+        throw new IllegalArgumentException("No column named '" + name + "'");
+    }
+
+    /**
+     * Returns the column with the given name as the given vector type.
+     *
+     * @param name the column name
+     * @param type the expected vector type, such as {@code ColumnVector.Ints.class}
+     * @param <V>  the vector type
+     * @return the column vector
+     * @throws IllegalArgumentException if the batch has no column with that name or it has another type
+     */
+    public <V extends ColumnVector> V column(String name, Class<V> type) {
+        ColumnVector column = column(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column '" + name + "' is not of type " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * Returns the name of the column at the given position, or {@code null} if it has none.
+     *
+     * @param column the zero-based position of the column in the schema
+     * @return the column name
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public String columnName(int column) {
+        Objects.checkIndex(column, columns.length);
+        return names[column];
+    }
+}
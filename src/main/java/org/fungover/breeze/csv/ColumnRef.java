@@ -0,0 +1,59 @@
+package org.fungover.breeze.csv;
+
+/**
+ * A reference to a CSV column, either by zero-based index or by header name. Names are resolved
+ * to indices once, when the header row is known, through a {@link HeaderIndex}, so a name that
+ * occurs more than once refers to the last such column, as it does for {@link CsvRow}.
+ *
+ * @param name  the header name, or {@code null} for an index reference
+ * @param index the zero-based column index, or -1 for a name reference
+ */
+record ColumnRef(String name, int index) {
+
+    static ColumnRef of(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Column index cannot be negative");
+        }
+        return new ColumnRef(null, index);
+    }
+
+    static ColumnRef of(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Column name cannot be null");
+        }
+        return new ColumnRef(name, -1);
+    }
+
+    /**
+     * Returns the index of this column in a row with the given header.
+     *
+     * @throws IllegalStateException if this is a name reference that the header does not contain
+     */
+    int resolve(String[] headers) {
+        if (name == null) {
+            return index;
+        }
+        return indexOf(headers == null ? null : new HeaderIndex(headers), name);
+    }
+
+    /**
+     * Returns the index of this column in a row indexed by {@code headers}, which is {@code null}
+     * if there is no header row.
+     *
+     * @throws IllegalStateException if this is a name reference that the header does not contain
+     */
+    int resolve(HeaderIndex headers) {
+        return name == null ? index : indexOf(headers, name);
+    }
+
+    static int indexOf(HeaderIndex headers, String name) {
+        if (headers == null) {
+            throw new IllegalStateException("Column '" + name + "' requires a header row");
+        }
+        int index = headers.indexOf(name);
+        if (index < 0) {
+            throw new IllegalStateException("No column named '" + name + "'");
+        }
+        return index;
+    }
+}
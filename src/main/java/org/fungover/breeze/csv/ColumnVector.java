@@ -0,0 +1,328 @@
+package org.fungover.breeze.csv;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * One column of a {@link ColumnBatch}, stored as a primitive array plus a null bitmap.
+ * <p>
+ * Numeric columns expose their values as {@code int[]}, {@code long[]}, {@code float[]} or
+ * {@code double[]}, which can be handed directly to array kernels such as
+ * {@link org.fungover.breeze.simd.SimdArrayOps}. An empty field is a null: its bit is set in the
+ * null bitmap and its value slot holds zero. String columns are dictionary encoded, so a column
+ * with few distinct values stores one {@code int} code per row and each distinct string once.
+ * </p>
+ */
+public abstract sealed class ColumnVector
+        permits ColumnVector.Ints, ColumnVector.Longs, ColumnVector.Floats, ColumnVector.Doubles, ColumnVector.Strings {
+
+    private long[] nulls;
+    private int nullCount;
+    int size;
+
+    ColumnVector(int capacity) {
+        this.nulls = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * Returns the number of rows in this column.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the field in the given row was empty or missing.
+     *
+     * @param row the zero-based row index
+     * @return true if the value is null
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public boolean isNull(int row) {
+        Objects.checkIndex(row, size);
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the number of null values in this column.
+     *
+     * @return the number of nulls
+     */
+    public int nullCount() {
+        return nullCount;
+    }
+
+    /**
+     * Returns a copy of the null bitmap, where bit {@code row % 64} of word {@code row / 64} is set
+     * for every null row.
+     *
+     * @return the null bitmap
+     */
+    public long[] nullBitmap() {
+        return nulls.clone();
+    }
+
+    /**
+     * Appends the field at {@code index} of {@code record}, or a null if the field is empty or
+     * the row is too short.
+     */
+    final void append(CsvRecord record, int index) {
+        if (index >= record.size() || record.isEmpty(index)) {
+            nulls[size >>> 6] |= 1L << size;
+            nullCount++;
+        } else {
+            read(record, index, size);
+        }
+        size++;
+    }
+
+    abstract void read(CsvRecord record, int index, int row);
+
+    /**
+     * Shrinks the backing arrays to the number of rows appended.
+     */
+    void trim() {
+        nulls = Arrays.copyOf(nulls, (size + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * An {@code int} column.
+     */
+    public static final class Ints extends ColumnVector {
+        private int[] values;
+
+        Ints(int capacity) {
+            super(capacity);
+            this.values = new int[capacity];
+        }
+
+        @Override
+        void read(CsvRecord record, int index, int row) {
+            values[row] = record.getInt(index);
+        }
+
+        @Override
+        void trim() {
+            super.trim();
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        /**
+         * Returns the value in the given row, or 0 if it is null.
+         *
+         * @param row the zero-based row index
+         * @return the value
+         */
+        public int get(int row) {
+            Objects.checkIndex(row, size);
+            return values[row];
+        }
+
+        /**
+         * Returns the backing array, holding exactly {@link #size()} values.
+         *
+         * @return the values of this column
+         */
+        public int[] values() {
+            return values;
+        }
+    }
+
+    /**
+     * A {@code long} column.
+     */
+    public static final class Longs extends ColumnVector {
+        private long[] values;
+
+        Longs(int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        void read(CsvRecord record, int index, int row) {
+            values[row] = record.getLong(index);
+        }
+
+        @Override
+        void trim() {
+            super.trim();
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        /**
+         * Returns the value in the given row, or 0 if it is null.
+         *
+         * @param row the zero-based row index
+         * @return the value
+         */
+        public long get(int row) {
+            Objects.checkIndex(row, size);
+            return values[row];
+        }
+
+        /**
+         * Returns the backing array, holding exactly {@link #size()} values.
+         *
+         * @return the values of this column
+         */
+        public long[] values() {
+            return values;
+        }
+    }
+
+    /**
+     * A {@code float} column.
+     */
+    public static final class Floats extends ColumnVector {
+        private float[] values;
+
+        Floats(int capacity) {
+            super(capacity);
+            this.values = new float[capacity];
+        }
+
+        @Override
+        void read(CsvRecord record, int index, int row) {
+            values[row] = (float) record.getDouble(index);
+        }
+
+        @Override
+        void trim() {
+            super.trim();
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        /**
+         * Returns the value in the given row, or 0 if it is null.
+         *
+         * @param row the zero-based row index
+         * @return the value
+         */
+        public float get(int row) {
+            Objects.checkIndex(row, size);
+            return values[row];
+        }
+
+        /**
+         * Returns the backing array, holding exactly {@link #size()} values.
+         *
+         * @return the values of this column
+         */
+        public float[] values() {
+            return values;
+        }
+    }
+
+    /**
+     * A {@code double} column.
+     */
+    public static final class Doubles extends ColumnVector {
+        private double[] values;
+
+        Doubles(int capacity) {
+            super(capacity);
+            this.values = new double[capacity];
+        }
+
+        @Override
+        void read(CsvRecord record, int index, int row) {
+            values[row] = record.getDouble(index);
+        }
+
+        @Override
+        void trim() {
+            super.trim();
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        /**
+         * Returns the value in the given row, or 0 if it is null.
+         *
+         * @param row the zero-based row index
+         * @return the value
+         */
+        public double get(int row) {
+            Objects.checkIndex(row, size);
+            return values[row];
+        }
+
+        /**
+         * Returns the backing array, holding exactly {@link #size()} values.
+         *
+         * @return the values of this column
+         */
+        public double[] values() {
+            return values;
+        }
+    }
+
+    /**
+     * A dictionary encoded string column. Each row holds a code into {@link #dictionary()};
+     * null rows hold -1. Each distinct value is copied out of the row buffer only once per batch.
+     */
+    public static final class Strings extends ColumnVector {
+        private int[] codes;
+        private final StringDictionary dictionary = new StringDictionary();
+        private String[] values;
+
+        Strings(int capacity) {
+            super(capacity);
+            this.codes = new int[capacity];
+            Arrays.fill(codes, -1);
+        }
+
+        @Override
+        void read(CsvRecord record, int index, int row) {
+            codes[row] = dictionary.code(record, index);
+        }
+
+        @Override
+        void trim() {
+            super.trim();
+            if (codes.length != size) {
+                codes = Arrays.copyOf(codes, size);
+            }
+            values = dictionary.values();
+        }
+
+        /**
+         * Returns the value in the given row.
+         *
+         * @param row the zero-based row index
+         * @return the value, or {@code null} if it is null
+         */
+        public String get(int row) {
+            Objects.checkIndex(row, size);
+            return codes[row] < 0 ? null : values[codes[row]];
+        }
+
+        /**
+         * Returns the dictionary code of each row, or -1 for null rows.
+         *
+         * @return the codes of this column
+         */
+        public int[] codes() {
+            return codes;
+        }
+
+        /**
+         * Returns the distinct values of this column, indexed by code.
+         *
+         * @return the dictionary
+         */
+        public String[] dictionary() {
+            return values.clone();
+        }
+    }
+}
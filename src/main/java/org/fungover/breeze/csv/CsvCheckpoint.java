@@ -0,0 +1,31 @@
+package org.fungover.breeze.csv;
+
+/**
+ * A position in a CSV source that reading can be resumed from, taken with
+ * {@link CsvReader#checkpoint()} and restored with {@link CsvReader#resumeFrom(CsvCheckpoint)}.
+ * <p>
+ * The offset always falls on a record boundary. It counts bytes when the source is an
+ * {@link java.io.InputStream} or {@link java.io.File} in UTF-8, US-ASCII or ISO-8859-1 without
+ * prefetching, and characters otherwise, so a checkpoint should be resumed with the same kind of
+ * source and the same reader settings it was taken with.
+ * </p>
+ *
+ * @param offset    the offset of the next record from the start of the source
+ * @param rowNumber the number of data rows before the next record, excluding the header
+ */
+public record CsvCheckpoint(long offset, long rowNumber) {
+
+    /**
+     * Creates a checkpoint.
+     *
+     * @throws IllegalArgumentException if the offset or row number is negative
+     */
+    public CsvCheckpoint {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (rowNumber < 0) {
+            throw new IllegalArgumentException("Row number cannot be negative");
+        }
+    }
+}
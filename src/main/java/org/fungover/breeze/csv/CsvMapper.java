@@ -0,0 +1,398 @@
+package org.fungover.breeze.csv;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A typed mapping from CSV columns to Java objects that is resolved once and then applied to every
+ * row without reflection, intermediate {@code String[]} arrays or number strings.
+ * <p>
+ * A mapper either fills a mutable object through typed setters, or constructs a Java record
+ * through its canonical constructor. Columns are selected by index or by header name; names are
+ * resolved to indices once, when the header row is read. Numbers, booleans and dates are parsed
+ * directly from the reader's character buffer.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * CsvMapper<Person> people = CsvMapper.builder(Person::new)
+ *     .stringColumn("name", Person::setName)
+ *     .intColumn("age", Person::setAge)
+ *     .build();
+ *
+ * record Point(int x, int y) {}
+ * CsvMapper<Point> points = CsvMapper.forRecord(Point.class);
+ *
+ * List<Person> rows = reader.readAll(people);
+ * }</pre>
+ *
+ * @param <T> the type of objects produced for each row
+ */
+public final class CsvMapper<T> {
+
+    private static final Map<Class<?>, MethodHandle> FIELD_READERS = fieldReaders();
+
+    private final Supplier<? extends T> factory;
+    private final List<Column<T>> columns;
+    private final Class<T> recordType;
+    private final MethodHandle recordConstructor;
+
+    private CsvMapper(Supplier<? extends T> factory, List<Column<T>> columns,
+                      Class<T> recordType, MethodHandle recordConstructor) {
+        this.factory = factory;
+        this.columns = columns;
+        this.recordType = recordType;
+        this.recordConstructor = recordConstructor;
+    }
+
+    /**
+     * Writes one field of a row into a target object.
+     */
+    @FunctionalInterface
+    private interface FieldSetter<T> {
+        void set(T target, CsvRecord record, int index);
+    }
+
+    private record Column<T>(ColumnRef column, FieldSetter<T> setter) {
+    }
+
+    /**
+     * Creates a builder for a mapper that fills objects created by {@code factory}.
+     *
+     * @param factory creates a new, empty target object for each row
+     * @param <T>     the type of the target objects
+     * @return a new {@link Builder} instance
+     */
+    public static <T> Builder<T> builder(Supplier<? extends T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory cannot be null");
+        }
+        return new Builder<>(factory);
+    }
+
+    /**
+     * Creates a mapper that constructs records of the given type through their canonical constructor.
+     * <p>
+     * When the CSV has a header row, each record component is read from the column with the same
+     * name. Without a header, components are read from columns in declaration order. Supported
+     * component types are {@code int}, {@code long}, {@code double}, {@code boolean}, their boxed
+     * counterparts (an empty field becomes {@code null}), {@link String} and {@link LocalDate}.
+     * </p>
+     * <p>
+     * The record's constructor must be accessible to this library. In a modular application, use
+     * {@link #forRecord(Class, MethodHandles.Lookup)} with a lookup from the record's module.
+     * </p>
+     *
+     * @param recordType the record class
+     * @param <R>        the record type
+     * @return a new mapper
+     * @throws IllegalArgumentException if a component type is unsupported or the constructor is inaccessible
+     */
+    public static <R extends Record> CsvMapper<R> forRecord(Class<R> recordType) {
+        return forRecord(recordType, MethodHandles.lookup());
+    }
+
+    /**
+     * Creates a mapper that constructs records of the given type, using {@code lookup} to access
+     * the canonical constructor.
+     *
+     * @param recordType the record class
+     * @param lookup     a lookup with access to the record's canonical constructor
+     * @param <R>        the record type
+     * @return a new mapper
+     * @throws IllegalArgumentException if a component type is unsupported or the constructor is inaccessible
+     * @see #forRecord(Class)
+     */
+    public static <R extends Record> CsvMapper<R> forRecord(Class<R> recordType, MethodHandles.Lookup lookup) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            if (!FIELD_READERS.containsKey(types[i])) {
+                throw new IllegalArgumentException("Unsupported column type: " + types[i].getName());
+            }
+        }
+        try {
+            Constructor<R> constructor = recordType.getDeclaredConstructor(types);
+            if (!constructor.canAccess(null)) {
+                constructor.setAccessible(true);
+            }
+            MethodHandle handle = lookup.unreflectConstructor(constructor);
+            return new CsvMapper<>(null, List.of(), recordType, handle);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access canonical constructor of " + recordType.getName(), e);
+        }
+    }
+
+    /**
+     * Resolves column names against the header row and returns a function that maps one row.
+     * The returned function does no lookups of its own.
+     *
+     * @param headers the header names, or {@code null} if the CSV has no header row
+     * @return the resolved row mapping
+     * @throws IllegalStateException if a column is selected by a name that is not in the header
+     */
+    Function<CsvRecord, T> bind(String[] headers) {
+        if (recordType != null) {
+            return bindRecord(headers);
+        }
+        HeaderIndex index = headers == null ? null : new HeaderIndex(headers);
+        int[] indices = new int[columns.size()];
+        @SuppressWarnings("unchecked")
+        FieldSetter<T>[] setters = (FieldSetter<T>[]) new FieldSetter<?>[columns.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = columns.get(i).column().resolve(index);
+            setters[i] = columns.get(i).setter();
+        }
+        return row -> {
+            T target = factory.get();
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].set(target, row, indices[i]);
+            }
+            return target;
+        };
+    }
+
+    /**
+     * Combines the canonical constructor with one field reader per component into a single
+     * {@code (CsvRecord) -> Object} method handle, so that mapping a row neither boxes primitive
+     * components nor allocates an argument array.
+     */
+    private Function<CsvRecord, T> bindRecord(String[] headers) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        HeaderIndex headerIndex = headers == null ? null : new HeaderIndex(headers);
+        MethodHandle[] readers = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            int index = headerIndex == null ? i : ColumnRef.indexOf(headerIndex, components[i].getName());
+            readers[i] = MethodHandles.insertArguments(FIELD_READERS.get(components[i].getType()), 1, index);
+        }
+        MethodHandle filtered = MethodHandles.filterArguments(recordConstructor, 0, readers);
+        MethodHandle handle = MethodHandles.permuteArguments(filtered,
+                MethodType.methodType(recordType, CsvRecord.class), new int[components.length])
+                .asType(MethodType.methodType(Object.class, CsvRecord.class));
+        return row -> {
+            try {
+                return recordType.cast((Object) handle.invokeExact(row));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to create " + recordType.getName(), e);
+            }
+        };
+    }
+
+    private static Map<Class<?>, MethodHandle> fieldReaders() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            return Map.of(
+                    int.class, lookup.findVirtual(CsvRecord.class, "getInt", MethodType.methodType(int.class, int.class)),
+                    long.class, lookup.findVirtual(CsvRecord.class, "getLong", MethodType.methodType(long.class, int.class)),
+                    double.class, lookup.findVirtual(CsvRecord.class, "getDouble", MethodType.methodType(double.class, int.class)),
+                    boolean.class, lookup.findVirtual(CsvRecord.class, "getBoolean", MethodType.methodType(boolean.class, int.class)),
+                    String.class, lookup.findVirtual(CsvRecord.class, "get", MethodType.methodType(String.class, int.class)),
+                    LocalDate.class, lookup.findStatic(CsvMapper.class, "readLocalDate", MethodType.methodType(LocalDate.class, CsvRecord.class, int.class)),
+                    Integer.class, lookup.findStatic(CsvMapper.class, "readInteger", MethodType.methodType(Integer.class, CsvRecord.class, int.class)),
+                    Long.class, lookup.findStatic(CsvMapper.class, "readLongObject", MethodType.methodType(Long.class, CsvRecord.class, int.class)),
+                    Double.class, lookup.findStatic(CsvMapper.class, "readDoubleObject", MethodType.methodType(Double.class, CsvRecord.class, int.class)),
+                    Boolean.class, lookup.findStatic(CsvMapper.class, "readBooleanObject", MethodType.methodType(Boolean.class, CsvRecord.class, int.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static LocalDate readLocalDate(CsvRecord row, int index) {
+        return row.isEmpty(index) ? null : row.getLocalDate(index);
+    }
+
+    private static Integer readInteger(CsvRecord row, int index) {
+        return row.isEmpty(index) ? null : row.getInt(index);
+    }
+
+    private static Long readLongObject(CsvRecord row, int index) {
+        return row.isEmpty(index) ? null : row.getLong(index);
+    }
+
+    private static Double readDoubleObject(CsvRecord row, int index) {
+        return row.isEmpty(index) ? null : row.getDouble(index);
+    }
+
+    private static Boolean readBooleanObject(CsvRecord row, int index) {
+        return row.isEmpty(index) ? null : row.getBoolean(index);
+    }
+
+    /**
+     * Builder for a {@link CsvMapper} that fills mutable objects through typed setters.
+     *
+     * @param <T> the type of the target objects
+     */
+    public static final class Builder<T> {
+        private final Supplier<? extends T> factory;
+        private final List<Column<T>> columns = new ArrayList<>();
+
+        private Builder(Supplier<? extends T> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Maps the column with the given header name to an int setter.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> intColumn(String name, ObjIntConsumer<? super T> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, row.getInt(index)));
+        }
+
+        /**
+         * Maps the column at the given index to an int setter.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> intColumn(int index, ObjIntConsumer<? super T> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, row.getInt(i)));
+        }
+
+        /**
+         * Maps the column with the given header name to a long setter.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> longColumn(String name, ObjLongConsumer<? super T> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, row.getLong(index)));
+        }
+
+        /**
+         * Maps the column at the given index to a long setter.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> longColumn(int index, ObjLongConsumer<? super T> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, row.getLong(i)));
+        }
+
+        /**
+         * Maps the column with the given header name to a double setter.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> doubleColumn(String name, ObjDoubleConsumer<? super T> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, row.getDouble(index)));
+        }
+
+        /**
+         * Maps the column at the given index to a double setter.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> doubleColumn(int index, ObjDoubleConsumer<? super T> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, row.getDouble(i)));
+        }
+
+        /**
+         * Maps the column with the given header name to a boolean setter.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> booleanColumn(String name, BiConsumer<? super T, Boolean> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, row.getBoolean(index)));
+        }
+
+        /**
+         * Maps the column at the given index to a boolean setter.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the parsed value
+         * @return this builder instance
+         */
+        public Builder<T> booleanColumn(int index, BiConsumer<? super T, Boolean> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, row.getBoolean(i)));
+        }
+
+        /**
+         * Maps the column with the given header name to a string setter.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the field value
+         * @return this builder instance
+         */
+        public Builder<T> stringColumn(String name, BiConsumer<? super T, String> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, row.get(index)));
+        }
+
+        /**
+         * Maps the column at the given index to a string setter.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the field value
+         * @return this builder instance
+         */
+        public Builder<T> stringColumn(int index, BiConsumer<? super T, String> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, row.get(i)));
+        }
+
+        /**
+         * Maps the column with the given header name to a {@link LocalDate} setter. Empty fields
+         * are passed as {@code null}.
+         *
+         * @param name   the header name
+         * @param setter receives the target and the parsed date
+         * @return this builder instance
+         */
+        public Builder<T> dateColumn(String name, BiConsumer<? super T, LocalDate> setter) {
+            return add(ColumnRef.of(name), (target, row, index) -> setter.accept(target, readLocalDate(row, index)));
+        }
+
+        /**
+         * Maps the column at the given index to a {@link LocalDate} setter. Empty fields are
+         * passed as {@code null}.
+         *
+         * @param index  the zero-based column index
+         * @param setter receives the target and the parsed date
+         * @return this builder instance
+         */
+        public Builder<T> dateColumn(int index, BiConsumer<? super T, LocalDate> setter) {
+            return add(ColumnRef.of(index), (target, row, i) -> setter.accept(target, readLocalDate(row, i)));
+        }
+
+        private Builder<T> add(ColumnRef column, FieldSetter<T> setter) {
+            columns.add(new Column<>(column, setter));
+            return this;
+        }
+
+        /**
+         * Builds a new CsvMapper with the configured columns.
+         *
+         * @return a new {@link CsvMapper} instance
+         */
+        public CsvMapper<T> build() {
+            return new CsvMapper<>(factory, List.copyOf(columns), null, null);
+        }
+    }
+}
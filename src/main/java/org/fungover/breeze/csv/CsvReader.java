@@ -1,35 +1,54 @@
 package org.fungover.breeze.csv;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A flexible and configurable CSV reader that supports various parsing options, including:
  * <ul>
  *     <li>Customizable delimiters (default: comma)</li>
- *     <li>Handling of quoted values</li>
+ *     <li>Handling of quoted values, including line breaks inside quotes</li>
  *     <li>Skipping empty lines</li>
  *     <li>Custom header support</li>
  *     <li>Reading CSV from a {@link String}, {@link InputStream}, or {@link File}</li>
+ *     <li>Parallel parsing of large files split at record boundaries</li>
  *     <li>Parsing rows into {@code Stream<String[]>} streams, {@code String[]} arrays or custom objects</li>
+ *     <li>Typed mapping of columns to objects and records with {@link CsvMapper}</li>
+ *     <li>Column projection and {@link RowFilter row filters} evaluated before fields are copied</li>
+ *     <li>Columnar {@link ColumnBatch batches} of primitive column vectors</li>
+ *     <li>Field lookup by header name through {@link CsvRow} without per-row maps</li>
+ *     <li>Optional read-ahead and decoding on a background thread</li>
+ *     <li>Configurable handling of malformed rows: accept, fail, skip or send to a dead letter sink</li>
+ *     <li>Checkpoints to resume reading a large source from where a previous run stopped</li>
+ *     <li>Allocation-free row access through reusable {@link CsvRecord}s</li>
  * </ul>
  * <p>
  * The reader is built using the Builder pattern via the {@link CsvReader.Builder} and ensures efficient
- * resource management with buffered reading.
+ * resource management with buffered reading. Input is parsed character by character, so a quoted
+ * field may contain line breaks while rows are still streamed one at a time.
  * </p>
  * <p>
  * Example usage:
@@ -51,9 +70,28 @@ public class CsvReader implements AutoCloseable {
     private final boolean hasHeader;
     private final char quoteChar;
     private final boolean trimTokens;
-
-    private BufferedReader bufferedReader;
+    private final int chunkSize;
+    private final List<ColumnRef> selectedColumns;
+    private final RowFilter filter;
+    private final int prefetchBlocks;
+    private final ThreadFactory prefetchThreadFactory;
+    private final MalformedRowPolicy malformedRowPolicy;
+    private final Consumer<MalformedRow> deadLetterSink;
+
+    private RecordSource tokenizer;
+    private CsvRecord record;
+    private boolean headerPending;
+    private long rowNumber;
+    private int expectedFields;
+    private long malformedRowCount;
     private String[] headers;
+    private boolean customHeaders;
+    private boolean columnsBound;
+    private int[] projection;
+    private Predicate<CsvRecord> rowFilter;
+    private HeaderIndex headerIndex;
+    private String[] indexedHeaders;
+    private int[] indexedProjection;
 
     private CsvReader(Builder builder) {
         this.delimiter = builder.delimiter;
@@ -61,6 +99,13 @@ public class CsvReader implements AutoCloseable {
         this.hasHeader = builder.hasHeader;
         this.quoteChar = builder.quoteChar;
         this.trimTokens = builder.trimTokens;
+        this.chunkSize = builder.chunkSize;
+        this.selectedColumns = builder.selectedColumns;
+        this.filter = builder.filter;
+        this.prefetchBlocks = builder.prefetchBlocks;
+        this.prefetchThreadFactory = builder.prefetchThreadFactory;
+        this.malformedRowPolicy = builder.malformedRowPolicy;
+        this.deadLetterSink = builder.deadLetterSink;
     }
 
     /**
@@ -81,6 +126,13 @@ public class CsvReader implements AutoCloseable {
         private boolean hasHeader = false;
         private char quoteChar = '\"';
         private boolean trimTokens = false;
+        private int chunkSize = ParallelCsvParser.DEFAULT_CHUNK_SIZE;
+        private List<ColumnRef> selectedColumns;
+        private RowFilter filter;
+        private int prefetchBlocks;
+        private ThreadFactory prefetchThreadFactory;
+        private MalformedRowPolicy malformedRowPolicy = MalformedRowPolicy.ACCEPT;
+        private Consumer<MalformedRow> deadLetterSink;
 
         private Builder() {
             // private constructor
@@ -131,7 +183,8 @@ public class CsvReader implements AutoCloseable {
         }
 
         /**
-         * Specifies whether tokens should be trimmed or not.
+         * Specifies whether tokens should be trimmed or not. Whitespace inside a quoted section
+         * is part of the value and is kept.
          *
          * @param trimTokens true if tokens should be trimmed, false otherwise
          * @return this builder instance
@@ -141,12 +194,143 @@ public class CsvReader implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Sets the number of bytes each worker reads and parses at a time in
+         * {@link CsvReader#parallelStream(Path, String, boolean)}.
+         *
+         * @param chunkSize the chunk size in bytes, must be greater than 0
+         * @return this builder instance
+         */
+        public Builder withChunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be greater than 0");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Selects the columns to return, by zero-based index, in the given order. Fields in other
+         * columns are still scanned but never copied into strings. A selected column that is
+         * missing from a short row is returned as {@code null}.
+         *
+         * @param indices the column indices to return
+         * @return this builder instance
+         */
+        public Builder selectColumns(int... indices) {
+            List<ColumnRef> columns = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                columns.add(ColumnRef.of(index));
+            }
+            this.selectedColumns = List.copyOf(columns);
+            return this;
+        }
+
+        /**
+         * Selects the columns to return, by header name, in the given order. Names are resolved
+         * against the header row, or the custom headers, when the first row is read.
+         *
+         * @param names the header names of the columns to return
+         * @return this builder instance
+         */
+        public Builder selectColumns(String... names) {
+            List<ColumnRef> columns = new ArrayList<>(names.length);
+            for (String name : names) {
+                columns.add(ColumnRef.of(name));
+            }
+            this.selectedColumns = List.copyOf(columns);
+            return this;
+        }
+
+        /**
+         * Sets a filter that rows must match to be returned. The filter runs on the raw row,
+         * so rejected rows are never copied into strings.
+         *
+         * @param filter the row filter, or {@code null} to return every row
+         * @return this builder instance
+         */
+        public Builder withFilter(RowFilter filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * Reads and decodes the source on a background virtual thread, up to {@code blocks}
+         * blocks of 64K characters ahead of parsing. This overlaps I/O stalls and charset
+         * decoding with parsing while keeping memory bounded. The reader should be closed to stop
+         * the background thread if the source is not read to the end.
+         *
+         * @param blocks the number of blocks to read ahead, or 0 to read on the calling thread
+         * @return this builder instance
+         */
+        public Builder withPrefetch(int blocks) {
+            return withPrefetch(blocks, Thread.ofVirtual().name("csv-prefetch-", 0).factory());
+        }
+
+        /**
+         * Reads and decodes the source on a thread created by {@code threadFactory}, up to
+         * {@code blocks} blocks ahead of parsing.
+         *
+         * @param blocks        the number of blocks to read ahead, or 0 to read on the calling thread
+         * @param threadFactory creates the background thread for each source
+         * @return this builder instance
+         * @see #withPrefetch(int)
+         */
+        public Builder withPrefetch(int blocks, ThreadFactory threadFactory) {
+            if (blocks < 0) {
+                throw new IllegalArgumentException("Prefetch blocks cannot be negative");
+            }
+            if (threadFactory == null) {
+                throw new IllegalArgumentException("Thread factory cannot be null");
+            }
+            this.prefetchBlocks = blocks;
+            this.prefetchThreadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Sets what happens to rows with the wrong number of fields or an unterminated quote.
+         * The default, {@link MalformedRowPolicy#ACCEPT}, returns them as parsed. The policy
+         * applies to the source set with {@code withSource(..)}, not to
+         * {@link CsvReader#parallelStream(Path, String, boolean)}.
+         *
+         * @param policy the malformed row policy
+         * @return this builder instance
+         */
+        public Builder withMalformedRowPolicy(MalformedRowPolicy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("Malformed row policy cannot be null");
+            }
+            this.malformedRowPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Drops malformed rows and hands each one, with its line number and raw text, to
+         * {@code sink}. This sets the {@link MalformedRowPolicy#DEAD_LETTER} policy.
+         *
+         * @param sink receives each malformed row
+         * @return this builder instance
+         */
+        public Builder withDeadLetterSink(Consumer<MalformedRow> sink) {
+            if (sink == null) {
+                throw new IllegalArgumentException("Dead letter sink cannot be null");
+            }
+            this.deadLetterSink = sink;
+            this.malformedRowPolicy = MalformedRowPolicy.DEAD_LETTER;
+            return this;
+        }
+
         /**
          * Builds a new CsvReader instance with the config settings
          *
          * @return a new {@link CsvReader} instance
+         * @throws IllegalStateException if the dead letter policy is set without a sink
          */
         public CsvReader build() {
+            if (malformedRowPolicy == MalformedRowPolicy.DEAD_LETTER && deadLetterSink == null) {
+                throw new IllegalStateException("withDeadLetterSink(..) must be set for the DEAD_LETTER policy");
+            }
             return new CsvReader(this);
         }
     }
@@ -159,8 +343,7 @@ public class CsvReader implements AutoCloseable {
      */
 
     public CsvReader withSource(String csvSource) {
-        bufferedReader = new BufferedReader(new StringReader(csvSource));
-        return this;
+        return withReader(new StringReader(csvSource));
     }
 
     /**
@@ -171,8 +354,7 @@ public class CsvReader implements AutoCloseable {
      * @return this {@link CsvReader} instance
      */
     public CsvReader withSource(InputStream csvSource, String charsetName) {
-        bufferedReader = new BufferedReader(new InputStreamReader(csvSource, Charset.forName(charsetName)));
-        return this;
+        return withInputStream(csvSource, Charset.forName(charsetName));
     }
 
     /**
@@ -184,8 +366,37 @@ public class CsvReader implements AutoCloseable {
      * @throws FileNotFoundException if the file is not found
      */
     public CsvReader withSource(File csvSource, String charsetName) throws FileNotFoundException {
-        bufferedReader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(csvSource), Charset.forName(charsetName)));
+        return withInputStream(new FileInputStream(csvSource), Charset.forName(charsetName));
+    }
+
+    /**
+     * Parses UTF-8, US-ASCII and ISO-8859-1 input directly on bytes, decoding only the fields that
+     * are materialized. Other charsets, and prefetching, which decodes on a background thread,
+     * go through a {@link Reader}.
+     */
+    private CsvReader withInputStream(InputStream csvSource, Charset charset) {
+        if (prefetchBlocks == 0 && ByteCsvTokenizer.supports(charset, delimiter, quoteChar)) {
+            return withTokenizer(new ByteCsvTokenizer(csvSource, charset, delimiter, quoteChar,
+                    CsvTokenizer.DEFAULT_BUFFER_SIZE));
+        }
+        return withReader(new InputStreamReader(csvSource, charset));
+    }
+
+    private CsvReader withReader(Reader reader) {
+        if (prefetchBlocks > 0) {
+            reader = new PrefetchingReader(reader, prefetchBlocks, CsvTokenizer.DEFAULT_BUFFER_SIZE, prefetchThreadFactory);
+        }
+        return withTokenizer(new CsvTokenizer(reader, delimiter, quoteChar, CsvTokenizer.DEFAULT_BUFFER_SIZE));
+    }
+
+    private CsvReader withTokenizer(RecordSource source) {
+        tokenizer = source;
+        record = new CsvRecord(quoteChar, trimTokens);
+        headerPending = hasHeader && !customHeaders;
+        columnsBound = false;
+        rowNumber = 0;
+        expectedFields = -1;
+        malformedRowCount = 0;
         return this;
     }
 
@@ -197,24 +408,15 @@ public class CsvReader implements AutoCloseable {
      */
     public List<String[]> readAll() throws IOException {
 
-        if (bufferedReader == null) {
+        if (tokenizer == null) {
             throw new IllegalStateException("withSource(..) must be called before readAll()");
         }
 
-        if(hasHeader) {
-            @SuppressWarnings("unused")
-            String ignore = bufferedReader.readLine();
-        }
+        skipHeader();
 
         List<String[]> rows = new ArrayList<>();
-        String line;
-        while ((line = bufferedReader.readLine()) != null) {
-            if (skipEmptyLines && line.trim().isEmpty()) { // Skip empty line
-                continue;
-            }
-            List<String> parsed = parseLine(line);
-            // Convert line to array and add to rows
-            rows.add(parsed.toArray(String[]::new));
+        while (nextRow(tokenizer, record)) {
+            rows.add(currentRow(record));
         }
         return rows;
     }
@@ -239,77 +441,347 @@ public class CsvReader implements AutoCloseable {
     /**
      * Returns a {@link Stream} of parsed CSV rows, where each row is represented as
      * a {@code String[]} (array of fields).
+     * <p>
+     * Rows are parsed lazily, one at a time, as the stream is consumed.
+     * </p>
      *
      * @return A {@link Stream} of {@code String[]} where each array represents a parsed CSV row.
      * @throws IllegalStateException If no source has been set before calling this method.
+     * @throws UncheckedIOException  If an I/O error occurs while the stream is consumed.
      */
     public Stream<String[]> stream() {
 
-        if (bufferedReader == null) {
+        if (tokenizer == null) {
             throw new IllegalStateException("withSource(..) must be called before stream()");
         }
 
-        return bufferedReader.lines()
-                .skip(hasHeader ? 1 : 0) // skips first line if hasHeader == true
-                .filter(this::handleEmptyLines)
-                .map(this::parseLine)
-                .map(list -> list.toArray(String[]::new));
+        return stream(header -> this::currentRow);
     }
 
     /**
-     * This predicate checks to see whether a line should be allowed to pass the filter or not,
-     * by looking at the configuration from the user (skipEmptyLine) and the line itself.
+     * Returns a {@link Stream} of objects mapped from the CSV rows by a {@link CsvMapper}.
+     * <p>
+     * Column names used by the mapper are resolved against the header row once, before the
+     * first row is mapped. Each row is then mapped straight from the reader's buffer without
+     * creating an intermediate {@code String[]}.
+     * </p>
      *
-     * @param line the line to test
-     * @return true of the line should be allowed to pass, false otherwise
+     * @param <T>    the type of objects produced by the mapper
+     * @param mapper the mapper to apply to each row
+     * @return A {@link Stream} of mapped objects
+     * @throws IllegalStateException If no source has been set before calling this method, or if
+     *                               the mapper names a column that the header does not contain.
+     * @throws UncheckedIOException  If an I/O error occurs while the stream is consumed.
      */
-    private boolean handleEmptyLines(String line) {
-        return !skipEmptyLines || !line.trim().isEmpty();
+    public <T> Stream<T> stream(CsvMapper<T> mapper) {
+
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before stream()");
+        }
+
+        return stream(mapper::bind);
     }
 
-    private List<String> parseLine(String line) {
+    /**
+     * Returns a {@link Stream} of parsed CSV rows whose fields can be looked up by header name.
+     * <p>
+     * The header row, or the custom headers, are indexed once and shared by every row, so
+     * looking up a field by name does not build a map per row. With selected columns, the rows
+     * hold only those columns under their header names.
+     * </p>
+     *
+     * @return A {@link Stream} of {@link CsvRow}s
+     * @throws IllegalStateException If no source has been set before calling this method.
+     * @throws UncheckedIOException  If an I/O error occurs while the stream is consumed.
+     */
+    public Stream<CsvRow> rows() {
 
-        List<String> tokens = new ArrayList<>();
-        if (line == null) {
-            return tokens;
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before rows()");
         }
 
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-        int length = line.length();
-        for (int i = 0; i < length; i++) {
-            char currentChar = line.charAt(i);
+        return stream(header -> row -> new CsvRow(headerIndex(), currentRow(row)));
+    }
 
-            if (currentChar == quoteChar) {
-                if (inQuotesAndNextCharIsAlsoAQuote(line, inQuotes, i, length)) {
-                    // The csv contains an escaped quoteChar, i.e. double quotChars inside a quote
-                    // E.g. "Some text with ""a quote"" inside the quoted value". Ad a single quoteChar
-                    sb.append(quoteChar);
-                    i++; // NOSONAR - Intentionally modifying loop index: Skip the second quote char
-                } else {
-                    inQuotes = !inQuotes;
+    /**
+     * Reads all CSV rows from the source and maps each row with a {@link CsvMapper}.
+     *
+     * @param <T>    the type of objects produced by the mapper
+     * @param mapper the mapper to apply to each row
+     * @return A {@link List} of mapped objects
+     * @throws IllegalStateException If no source has been set before calling this method.
+     * @see #stream(CsvMapper)
+     */
+    public <T> List<T> readAll(CsvMapper<T> mapper) {
+        return stream(mapper).toList();
+    }
+
+    /**
+     * Reads up to {@code batchSize} rows into a columnar {@link ColumnBatch}.
+     * <p>
+     * Numeric fields are parsed straight into primitive arrays and string fields are dictionary
+     * encoded, so no per-row objects are created. The row filter applies; selected columns do
+     * not, since the schema picks its own columns.
+     * </p>
+     *
+     * @param schema    the columns and types to read
+     * @param batchSize the maximum number of rows in the batch, must be greater than 0
+     * @return the next batch, or {@code null} if the end is reached
+     * @throws IOException              if an I/O error occurs
+     * @throws NumberFormatException    if a numeric field cannot be parsed
+     * @throws IllegalArgumentException if the batch size is not positive
+     * @throws IllegalStateException    if no source has been set before calling this method, or if
+     *                                  the schema names a column that the header does not contain
+     */
+    public ColumnBatch nextBatch(BatchSchema schema, int batchSize) throws IOException {
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before nextBatch()");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        skipHeader();
+        int[] indices = schema.resolve(headers);
+        ColumnVector[] columns = schema.newVectors(batchSize);
+        int rows = 0;
+        while (rows < batchSize && nextRow(tokenizer, record)) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].append(record, indices[i]);
+            }
+            rows++;
+        }
+        if (rows == 0) {
+            return null;
+        }
+        for (ColumnVector column : columns) {
+            column.trim();
+        }
+        return new ColumnBatch(schema.names(headers, indices), columns, rows);
+    }
+
+    /**
+     * Returns a {@link Stream} of columnar batches of up to {@code batchSize} rows each.
+     *
+     * @param schema    the columns and types to read
+     * @param batchSize the maximum number of rows per batch, must be greater than 0
+     * @return A {@link Stream} of batches
+     * @throws UncheckedIOException If an I/O error occurs while the stream is consumed.
+     * @see #nextBatch(BatchSchema, int)
+     */
+    public Stream<ColumnBatch> batches(BatchSchema schema, int batchSize) {
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before batches()");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<ColumnBatch>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super ColumnBatch> action) {
+                ColumnBatch batch;
+                try {
+                    batch = nextBatch(schema, batchSize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (batch == null) {
+                    return false;
+                }
+                action.accept(batch);
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Streams the remaining rows through a row function that is created from the header row on
+     * the first advance.
+     */
+    private <T> Stream<T> stream(Function<String[], Function<CsvRecord, T>> binder) {
+        RecordSource source = tokenizer;
+        CsvRecord row = record;
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Function<CsvRecord, T> rowMapper;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    skipHeader();
+                    if (rowMapper == null) {
+                        rowMapper = binder.apply(headers);
+                    }
+                    if (!nextRow(source, row)) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                action.accept(rowMapper.apply(row));
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Parses a file in parallel on the common {@link ForkJoinPool} and returns its rows as a stream.
+     * <p>
+     * The file is read in chunks (see {@link Builder#withChunkSize(int)}) that are split at exact
+     * record boundaries, taking quoted line breaks into account, and parsed concurrently. Only a
+     * bounded window of chunks is held in memory at a time. Selected columns and the row filter
+     * are applied as in {@link #readAll()}. This method does not use or change the source set with
+     * {@code withSource(..)}.
+     * </p>
+     * <p>
+     * The returned stream holds the file open until it is fully consumed or closed, so it should
+     * be used in a try-with-resources statement.
+     * </p>
+     *
+     * @param file        the CSV file
+     * @param charsetName the character set of the file; must be UTF-8, US-ASCII or ISO-8859-1
+     * @param ordered     true to return rows in file order, false to return them in the order the
+     *                    chunks finish parsing
+     * @return a {@link Stream} of parsed rows
+     * @throws IOException              if the file cannot be opened
+     * @throws IllegalArgumentException if the charset, delimiter or quote character is not ASCII compatible
+     */
+    public Stream<String[]> parallelStream(Path file, String charsetName, boolean ordered) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        String[] names = headers;
+        if (names == null && hasHeader && (selectedColumns != null || filter != null)) {
+            names = readHeader(file, charset);
+        }
+        return new ParallelCsvParser(file, charset, delimiter, quoteChar, trimTokens, skipEmptyLines, hasHeader,
+                chunkSize, ForkJoinPool.commonPool(), ordered,
+                resolveProjection(names), filter == null ? null : filter.bind(names)).stream();
+    }
+
+    private String[] readHeader(Path file, Charset charset) throws IOException {
+        RecordSource header = ByteCsvTokenizer.supports(charset, delimiter, quoteChar)
+                ? new ByteCsvTokenizer(Files.newInputStream(file), charset, delimiter, quoteChar, CsvTokenizer.DEFAULT_BUFFER_SIZE)
+                : new CsvTokenizer(new InputStreamReader(Files.newInputStream(file), charset), delimiter, quoteChar,
+                CsvTokenizer.DEFAULT_BUFFER_SIZE);
+        try {
+            CsvRecord row = new CsvRecord(quoteChar, trimTokens);
+            return header.next(row, false) ? row.toArray() : null;
+        } finally {
+            header.close();
+        }
+    }
+
+    /**
+     * Consumes the header row once per source and keeps its names, if the CSV has one and no
+     * custom headers were set.
+     */
+    private void skipHeader() throws IOException {
+        if (headerPending) {
+            headerPending = false;
+            if (tokenizer.next(record, false)) {
+                expectedFields = record.size();
+                headers = record.toArray();
+            }
+        }
+    }
+
+    /**
+     * Resolves the selected columns and the row filter against the headers, once per source.
+     */
+    private void bindColumns() {
+        if (!columnsBound) {
+            projection = resolveProjection(headers);
+            rowFilter = filter == null ? null : filter.bind(headers);
+            columnsBound = true;
+        }
+    }
+
+    private int[] resolveProjection(String[] names) {
+        if (selectedColumns == null) {
+            return null;
+        }
+        HeaderIndex index = names == null ? null : new HeaderIndex(names);
+        int[] indices = new int[selectedColumns.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = selectedColumns.get(i).resolve(index);
+        }
+        return indices;
+    }
+
+    /**
+     * Returns the index of the current headers, rebuilding it only when the headers or the
+     * selected columns change. With selected columns, the index covers the selected columns in
+     * their selected order.
+     */
+    private HeaderIndex headerIndex() {
+        if (headers == null) {
+            return HeaderIndex.EMPTY;
+        }
+        if (headerIndex == null || indexedHeaders != headers || indexedProjection != projection) {
+            String[] names = headers;
+            if (projection != null) {
+                names = new String[projection.length];
+                for (int i = 0; i < projection.length; i++) {
+                    names[i] = projection[i] < headers.length ? headers[projection[i]] : null;
                 }
-            } else if (isTrueDelimiter(currentChar, inQuotes)) {
-                addTokenToCollection(sb, tokens);
-            } else {
-                sb.append(currentChar);
             }
+            headerIndex = new HeaderIndex(names);
+            indexedHeaders = headers;
+            indexedProjection = projection;
         }
-        addTokenToCollection(sb, tokens);
-        return tokens;
+        return headerIndex;
     }
 
-    private void addTokenToCollection(StringBuilder sb, List<String> tokens) {
-        String token = sb.toString();
-        if (trimTokens) {
-            token = token.trim();
+    /**
+     * Advances {@code source} to the next row that passes the row filter.
+     */
+    private boolean nextRow(RecordSource source, CsvRecord row) throws IOException {
+        bindColumns();
+        while (source.next(row, skipEmptyLines)) {
+            rowNumber++;
+            if (malformedRowPolicy != MalformedRowPolicy.ACCEPT && !isWellFormed(row)) {
+                continue;
+            }
+            if (rowFilter == null || rowFilter.test(row)) {
+                return true;
+            }
         }
-        tokens.add(token);
-        sb.setLength(0);
+        return false;
     }
 
-    private boolean isTrueDelimiter(char currentChar, boolean inQuotes) {
-        return currentChar == delimiter && !inQuotes;
+    /**
+     * Checks the field count and quoting of a row and applies the malformed row policy. The
+     * expected field count is taken from the header row, the custom headers or the first row.
+     *
+     * @throws MalformedCsvException if the row is malformed and the policy is to fail
+     */
+    private boolean isWellFormed(CsvRecord row) {
+        if (expectedFields < 0) {
+            expectedFields = headers != null ? headers.length : row.size();
+        }
+        String reason;
+        if (row.hasUnclosedQuote()) {
+            reason = "Unterminated quote";
+        } else if (row.size() != expectedFields) {
+            reason = "Expected " + expectedFields + " fields but found " + row.size();
+        } else {
+            return true;
+        }
+        MalformedRow malformed = new MalformedRow(row.lineNumber(), rowNumber, row.rawText(), reason);
+        if (malformedRowPolicy == MalformedRowPolicy.FAIL) {
+            throw new MalformedCsvException(malformed);
+        }
+        malformedRowCount++;
+        if (malformedRowPolicy == MalformedRowPolicy.DEAD_LETTER) {
+            deadLetterSink.accept(malformed);
+        }
+        return false;
+    }
+
+    /**
+     * Copies the selected columns of the current row.
+     */
+    private String[] currentRow(CsvRecord row) {
+        return projection == null ? row.toArray() : row.select(projection);
     }
 
     /**
@@ -319,71 +791,153 @@ public class CsvReader implements AutoCloseable {
      * @throws IOException if an I/O error occurs
      */
     public String[] readNext() throws IOException {
-        String line = bufferedReader.readLine();
-        if (line == null) {
+        if (!nextRow(tokenizer, record)) {
             return new String[0];
         }
-        if (skipEmptyLines && line.trim().isEmpty()) {
-            return readNext();
+        return currentRow(record);
+    }
+
+    /**
+     * Reads the next row as a {@link CsvRecord} without copying any field.
+     * <p>
+     * The returned record is reused for every call and points into the reader's internal buffer,
+     * so it is only valid until the next call. Fields become strings only when requested.
+     * </p>
+     *
+     * @return the next record, or {@code null} if the end is reached
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if no source has been set before calling this method
+     */
+    public CsvRecord nextRecord() throws IOException {
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before nextRecord()");
         }
-        return parseLine(line).toArray(new String[0]);
+        skipHeader();
+        return nextRow(tokenizer, record) ? record : null;
     }
 
     /**
-     * Allows the user make a custom header
+     * Returns the number of data rows read from the source so far, not counting the header.
+     * Rows rejected by the {@link RowFilter} are counted, so after a row is returned this is its
+     * one-based row number in the source.
      *
-     * @param customHeaders the custom header the user can choose
+     * @return the number of data rows read
      */
-    public void setCustomHeaders(String[] customHeaders) {
-        this.headers = customHeaders;
+    public long rowNumber() {
+        return rowNumber;
     }
 
     /**
-     * Reads the next row from the CSV source as a map.
+     * Returns the number of malformed rows dropped from the current source under the
+     * {@link MalformedRowPolicy#SKIP} or {@link MalformedRowPolicy#DEAD_LETTER} policy.
      *
-     * @return a map where keys are header values and values are row values, or an empty map if the end is reached
-     * @throws IOException if an I/O error occurs
+     * @return the number of malformed rows dropped
      */
-    public Map<String, String> readNextAsMap() throws IOException {
-        if (headers == null && hasHeader) {
-            String headerLine = bufferedReader.readLine();
-            if (headerLine == null) {
-                return Collections.emptyMap();
-            }
-            headers = parseLine(headerLine).toArray(new String[0]);
-        }
+    public long malformedRowCount() {
+        return malformedRowCount;
+    }
 
-        String line = bufferedReader.readLine();
-        if (line == null) {
-            return Collections.emptyMap();
+    /**
+     * Returns the position just past the last row read, for resuming with
+     * {@link #resumeFrom(CsvCheckpoint)} after a restart or from another process.
+     *
+     * @return a checkpoint at the next row
+     * @throws IllegalStateException if no source has been set before calling this method
+     */
+    public CsvCheckpoint checkpoint() {
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before checkpoint()");
         }
+        return new CsvCheckpoint(tokenizer.offset(), rowNumber);
+    }
 
-        if (skipEmptyLines && line.trim().isEmpty()) {
-            return readNextAsMap();
+    /**
+     * Continues reading the current source from a checkpoint. The header row, if any, is read
+     * first as usual, then the input up to the checkpoint is skipped without being parsed. A
+     * {@link File} source in UTF-8, US-ASCII or ISO-8859-1 without prefetching is read as bytes,
+     * and the skip is a seek, so resuming near the end of a large file is fast. Other charsets,
+     * prefetching and {@link Reader} or string sources decode the skipped input and discard it.
+     * A checkpoint taken before the first row resumes at the first row. Line numbers reported
+     * for {@link MalformedRow}s do not count the skipped lines.
+     *
+     * @param checkpoint the checkpoint to resume from
+     * @return this {@link CsvReader} instance
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the checkpoint is null
+     * @throws IllegalStateException    if no source has been set, or rows have already been read
+     *                                  from it
+     */
+    public CsvReader resumeFrom(CsvCheckpoint checkpoint) throws IOException {
+        if (checkpoint == null) {
+            throw new IllegalArgumentException("Checkpoint cannot be null");
         }
+        if (tokenizer == null) {
+            throw new IllegalStateException("withSource(..) must be called before resumeFrom(..)");
+        }
+        if (rowNumber > 0) {
+            throw new IllegalStateException("resumeFrom(..) must be called before any row is read");
+        }
+        skipHeader();
+        if (checkpoint.offset() > tokenizer.offset()) {
+            tokenizer.skipTo(checkpoint.offset());
+        }
+        rowNumber = checkpoint.rowNumber();
+        return this;
+    }
 
-        List<String> values = parseLine(line);
-        Map<String, String> rowMap = new HashMap<>();
-
-        for (int i = 0; i < headers.length && i < values.size(); i++) {
-            rowMap.put(headers[i], values.get(i));
+    /**
+     * Allows the user make a custom header
+     * <p>
+     * Custom headers replace the header row: if they are set before the first row is read, a
+     * header row in the source is read as data by every read method.
+     * </p>
+     *
+     * @param customHeaders the custom header the user can choose
+     */
+    public void setCustomHeaders(String[] customHeaders) {
+        this.headers = customHeaders;
+        this.customHeaders = customHeaders != null;
+        if (this.customHeaders) {
+            headerPending = false;
         }
+    }
 
-        return rowMap;
+    /**
+     * Reads the next row from the CSV source with its fields indexed by header name.
+     *
+     * @return the next row, or {@code null} if the end is reached
+     * @throws IOException if an I/O error occurs
+     * @see #rows()
+     */
+    public CsvRow readNextRow() throws IOException {
+        skipHeader();
+        if (!nextRow(tokenizer, record)) {
+            return null;
+        }
+        return new CsvRow(headerIndex(), currentRow(record));
     }
 
-    private boolean inQuotesAndNextCharIsAlsoAQuote(String line, boolean inQuotes, int i, int len) {
-        return inQuotes && i + 1 < len && line.charAt(i + 1) == quoteChar;
+    /**
+     * Reads the next row from the CSV source as a map. The map is a read-only view over the row
+     * that looks fields up through the shared header index, see {@link CsvRow#asMap()}.
+     * Rows are filtered by the configured {@link RowFilter}.
+     *
+     * @return a map where keys are header values and values are row values, or an empty map if the end is reached
+     * @throws IOException if an I/O error occurs
+     */
+    public Map<String, String> readNextAsMap() throws IOException {
+        CsvRow row = readNextRow();
+        return row == null ? Collections.emptyMap() : row.asMap();
     }
 
     @Override
     public void close() throws IOException {
         try {
-            if (bufferedReader != null) {
-                bufferedReader.close();
+            if (tokenizer != null) {
+                tokenizer.close();
             }
         } finally {
-            bufferedReader = null;
+            tokenizer = null;
         }
     }
 
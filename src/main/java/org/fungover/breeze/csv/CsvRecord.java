@@ -0,0 +1,467 @@
+package org.fungover.breeze.csv;
+
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A single parsed CSV row that refers to its fields by position in a shared character buffer, or
+ * in a shared byte buffer when the input is parsed without charset decoding.
+ * <p>
+ * Parsing a row only records where each field starts and ends; nothing is copied. A field becomes a
+ * {@link String} only when {@link #get(int)} is called, and numeric fields can be read with
+ * {@link #getInt(int)}, {@link #getLong(int)}, {@link #getDouble(int)}, {@link #getBoolean(int)} and
+ * {@link #getLocalDate(int)} straight from the buffer. Over a byte buffer, only the fields that are
+ * materialized are decoded.
+ * </p>
+ * <p>
+ * The same instance is reused by {@link CsvReader#nextRecord()} for every row, so its contents are
+ * only valid until the next row is read. Use {@link #toArray()} to keep a row.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * CsvRecord record;
+ * while ((record = reader.nextRecord()) != null) {
+ *     total += record.getLong(2);
+ * }
+ * }</pre>
+ */
+public final class CsvRecord {
+
+    private static final int INITIAL_FIELD_CAPACITY = 16;
+
+    private final char quoteChar;
+    private final boolean trimTokens;
+
+    private char[] buffer;
+    private byte[] bytes;
+    private Charset charset;
+    private int[] starts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] ends = new int[INITIAL_FIELD_CAPACITY];
+    private boolean[] quoted = new boolean[INITIAL_FIELD_CAPACITY];
+    private int size;
+    private int rawStart;
+    private int rawEnd;
+    private long lineNumber;
+    private boolean unclosedQuote;
+
+    CsvRecord(char quoteChar, boolean trimTokens) {
+        this.quoteChar = quoteChar;
+        this.trimTokens = trimTokens;
+    }
+
+    /**
+     * Starts a new row over the given buffer, discarding the previous fields.
+     */
+    void reset(char[] buffer) {
+        this.buffer = buffer;
+        this.bytes = null;
+        this.size = 0;
+    }
+
+    /**
+     * Starts a new row over the given bytes in an ASCII compatible charset, discarding the
+     * previous fields.
+     */
+    void reset(byte[] bytes, Charset charset) {
+        this.bytes = bytes;
+        this.charset = charset;
+        this.buffer = null;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the character, or for a byte buffer the unsigned byte, at position {@code i}.
+     */
+    private int charAt(int i) {
+        return bytes != null ? bytes[i] & 0xFF : buffer[i];
+    }
+
+    /**
+     * Records where the whole row lies in the buffer, excluding its line break, the input line
+     * it starts on and whether it ended inside a quoted section.
+     */
+    void complete(int start, int end, long line, boolean unclosed) {
+        this.rawStart = start;
+        this.rawEnd = end;
+        this.lineNumber = line;
+        this.unclosedQuote = unclosed;
+    }
+
+    /**
+     * Adds the field {@code buffer[start..end)}. A field that contained the quote character is
+     * stored raw and unescaped only when it is materialized. Trimming only removes whitespace
+     * around the raw field, so whitespace inside a quoted section is kept.
+     */
+    void addField(int start, int end, boolean hasQuotes) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+        if (trimTokens) {
+            while (start < end && charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && charAt(end - 1) <= ' ') {
+                end--;
+            }
+        }
+        starts[size] = start;
+        ends[size] = end;
+        quoted[size] = hasQuotes;
+        size++;
+    }
+
+    /**
+     * Returns the number of fields in this row.
+     *
+     * @return the number of fields
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the field at the given index as a new string.
+     *
+     * @param index the zero-based field index
+     * @return the field value with quotes removed and, if configured, trimmed outside quotes
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return unescape(index);
+        }
+        if (bytes != null) {
+            return new String(bytes, starts[index], ends[index] - starts[index], charset);
+        }
+        return new String(buffer, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Returns true if the field at the given index has no characters.
+     *
+     * @param index the zero-based field index
+     * @return true if the field is empty
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isEmpty(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return unescape(index).isEmpty();
+        }
+        return starts[index] == ends[index];
+    }
+
+    /**
+     * Parses the field at the given index as an int without creating a string.
+     *
+     * @param index the zero-based field index
+     * @return the parsed value
+     * @throws NumberFormatException     if the field is not a valid int
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return Integer.parseInt(unescape(index));
+        }
+        if (bytes != null) {
+            return NumberParser.parseInt(bytes, starts[index], ends[index]);
+        }
+        return NumberParser.parseInt(buffer, starts[index], ends[index]);
+    }
+
+    /**
+     * Parses the field at the given index as a long without creating a string.
+     *
+     * @param index the zero-based field index
+     * @return the parsed value
+     * @throws NumberFormatException     if the field is not a valid long
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return Long.parseLong(unescape(index));
+        }
+        if (bytes != null) {
+            return NumberParser.parseLong(bytes, starts[index], ends[index]);
+        }
+        return NumberParser.parseLong(buffer, starts[index], ends[index]);
+    }
+
+    /**
+     * Parses the field at the given index as a double, without creating a string for plain
+     * decimal values.
+     *
+     * @param index the zero-based field index
+     * @return the parsed value
+     * @throws NumberFormatException     if the field is not a valid double
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getDouble(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return Double.parseDouble(unescape(index));
+        }
+        if (bytes != null) {
+            return NumberParser.parseDouble(bytes, starts[index], ends[index]);
+        }
+        return NumberParser.parseDouble(buffer, starts[index], ends[index]);
+    }
+
+    /**
+     * Parses the field at the given index as a boolean without creating a string, following the
+     * rules of {@link Boolean#parseBoolean(String)}.
+     *
+     * @param index the zero-based field index
+     * @return true if the field equals {@code "true"}, ignoring case
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean getBoolean(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return Boolean.parseBoolean(unescape(index));
+        }
+        int start = starts[index];
+        return ends[index] - start == 4
+                && (charAt(start) | 0x20) == 't'
+                && (charAt(start + 1) | 0x20) == 'r'
+                && (charAt(start + 2) | 0x20) == 'u'
+                && (charAt(start + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * Parses the field at the given index as a {@link LocalDate}. Plain {@code yyyy-MM-dd} values
+     * are read straight from the buffer; other ISO-8601 forms fall back to {@link LocalDate#parse}.
+     *
+     * @param index the zero-based field index
+     * @return the parsed date
+     * @throws java.time.format.DateTimeParseException if the field is not a valid date
+     * @throws java.time.DateTimeException             if the date fields are out of range
+     * @throws IndexOutOfBoundsException               if the index is out of range
+     */
+    public LocalDate getLocalDate(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return LocalDate.parse(unescape(index));
+        }
+        int start = starts[index];
+        if (ends[index] - start == 10 && charAt(start + 4) == '-' && charAt(start + 7) == '-'
+                && isDigits(start, start + 4) && isDigits(start + 5, start + 7) && isDigits(start + 8, start + 10)) {
+            return LocalDate.of(digits(start, start + 4), digits(start + 5, start + 7), digits(start + 8, start + 10));
+        }
+        return LocalDate.parse(get(index));
+    }
+
+    private boolean isDigits(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (charAt(i) < '0' || charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + charAt(i) - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Returns true if the field at the given index equals {@code value}, comparing characters in
+     * place without creating a string.
+     *
+     * @param index the zero-based field index
+     * @param value the value to compare with
+     * @return true if the field has exactly the same characters as {@code value}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean contentEquals(int index, CharSequence value) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return unescape(index).contentEquals(value);
+        }
+        if (bytes != null && !isAscii(starts[index], ends[index])) {
+            return get(index).contentEquals(value);
+        }
+        return ends[index] - starts[index] == value.length() && regionMatches(starts[index], value);
+    }
+
+    /**
+     * Returns true if the field at the given index starts with {@code prefix}, comparing
+     * characters in place without creating a string.
+     *
+     * @param index  the zero-based field index
+     * @param prefix the prefix to look for
+     * @return true if the field starts with {@code prefix}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean startsWith(int index, CharSequence prefix) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return unescape(index).startsWith(prefix.toString());
+        }
+        if (bytes != null && !isAscii(starts[index], ends[index])) {
+            return get(index).startsWith(prefix.toString());
+        }
+        return ends[index] - starts[index] >= prefix.length() && regionMatches(starts[index], prefix);
+    }
+
+    /**
+     * Returns the same hash code as {@code get(index).hashCode()} without creating a string for
+     * unquoted fields.
+     */
+    int fieldHash(int index) {
+        Objects.checkIndex(index, size);
+        if (quoted[index]) {
+            return unescape(index).hashCode();
+        }
+        if (bytes != null && !isAscii(starts[index], ends[index])) {
+            return get(index).hashCode();
+        }
+        int hash = 0;
+        for (int i = starts[index]; i < ends[index]; i++) {
+            hash = 31 * hash + charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns true if the bytes in {@code [from, to)} are all ASCII, so that each byte is exactly
+     * one character.
+     */
+    private boolean isAscii(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionMatches(int from, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (charAt(from + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Materializes every field of this row.
+     *
+     * @return a new array holding all fields
+     */
+    public String[] toArray() {
+        String[] fields = new String[size];
+        for (int i = 0; i < size; i++) {
+            fields[i] = get(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Materializes only the fields at the given indices, in that order. Indices past the end of
+     * a short row yield {@code null}.
+     */
+    String[] select(int[] indices) {
+        String[] fields = new String[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            fields[i] = indices[i] < size ? get(indices[i]) : null;
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the row as it appears in the input, without its line break.
+     */
+    String rawText() {
+        return bytes != null
+                ? new String(bytes, rawStart, rawEnd - rawStart, charset)
+                : new String(buffer, rawStart, rawEnd - rawStart);
+    }
+
+    /**
+     * Returns the one-based input line the row starts on.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns true if the input ended inside a quoted section of this row.
+     */
+    boolean hasUnclosedQuote() {
+        return unclosedQuote;
+    }
+
+    /**
+     * Removes quote characters from a raw field and collapses doubled quotes inside a quoted
+     * section into a single quote character.
+     */
+    private String unescape(int index) {
+        if (bytes != null) {
+            return unescapeBytes(index);
+        }
+        int end = ends[index];
+        StringBuilder sb = new StringBuilder(end - starts[index]);
+        boolean inQuotes = false;
+        for (int i = starts[index]; i < end; i++) {
+            char c = buffer[i];
+            if (c == quoteChar) {
+                if (inQuotes && i + 1 < end && buffer[i + 1] == quoteChar) {
+                    sb.append(quoteChar);
+                    i++; // NOSONAR - Intentionally modifying loop index: Skip the second quote char
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Applies the same rules as {@link #unescape(int)} to a byte buffer, then decodes the result.
+     * The quote character is ASCII, so it never occurs inside a multibyte sequence.
+     */
+    private String unescapeBytes(int index) {
+        int end = ends[index];
+        byte quote = (byte) quoteChar;
+        byte[] out = new byte[end - starts[index]];
+        int length = 0;
+        boolean inQuotes = false;
+        for (int i = starts[index]; i < end; i++) {
+            byte b = bytes[i];
+            if (b == quote) {
+                if (inQuotes && i + 1 < end && bytes[i + 1] == quote) {
+                    out[length++] = quote;
+                    i++; // NOSONAR - Intentionally modifying loop index: Skip the second quote char
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                out[length++] = b;
+            }
+        }
+        return new String(out, 0, length, charset);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
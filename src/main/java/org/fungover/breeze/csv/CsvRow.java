@@ -0,0 +1,170 @@
+package org.fungover.breeze.csv;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A parsed CSV row whose fields can be looked up by header name.
+ * <p>
+ * Header names are resolved to column indices once, when the header row is read, and the
+ * resulting index is shared by every row. Looking up a field by name is therefore a single hash
+ * lookup, and no per-row map is built. {@link #asMap()} offers a read-only {@link Map} view over
+ * the same fields.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * reader.rows().forEach(row -> System.out.println(row.get("name") + " is " + row.get("age")));
+ * }</pre>
+ */
+public final class CsvRow {
+
+    private final HeaderIndex header;
+    private final String[] values;
+
+    CsvRow(HeaderIndex header, String[] values) {
+        this.header = header;
+        this.values = values;
+    }
+
+    /**
+     * Returns the number of fields in this row.
+     *
+     * @return the number of fields
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the field at the given index.
+     *
+     * @param index the zero-based field index
+     * @return the field value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String get(int index) {
+        return values[Objects.checkIndex(index, values.length)];
+    }
+
+    /**
+     * Returns the field in the column with the given header name.
+     *
+     * @param name the header name
+     * @return the field value, or {@code null} if this row is too short to have that column
+     * @throws IllegalArgumentException if the header has no column with that name
+     */
+    public String get(String name) {
+        int index = header.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column named '" + name + "'");
+        }
+        return index < values.length ? values[index] : null;
+    }
+
+    /**
+     * Returns true if the header has a column with the given name and this row has a field in it.
+     *
+     * @param name the header name
+     * @return true if the field is present
+     */
+    public boolean has(String name) {
+        int index = header.indexOf(name);
+        return index >= 0 && index < values.length;
+    }
+
+    /**
+     * Returns a copy of the fields of this row.
+     *
+     * @return a new array holding all fields
+     */
+    public String[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Returns a read-only map view of this row, keyed by header name. The view holds only a
+     * reference to the row and looks fields up through the shared header index. Columns beyond the
+     * end of a short row are not included.
+     *
+     * @return an unmodifiable map of header names to field values
+     */
+    public Map<String, String> asMap() {
+        return new RowMap();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+
+    private final class RowMap extends AbstractMap<String, String> {
+
+        @Override
+        public String get(Object key) {
+            int index = header.indexOf(key);
+            return index >= 0 && index < values.length ? values[index] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int index = header.indexOf(key);
+            return index >= 0 && index < values.length;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int i = 0; i < header.keyCount(); i++) {
+                        if (header.position(i) < values.length) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private int next = advance(0);
+
+        private int advance(int from) {
+            while (from < header.keyCount() && header.position(from) >= values.length) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < header.keyCount();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, String> entry =
+                    new AbstractMap.SimpleImmutableEntry<>(header.key(next), values[header.position(next)]);
+            next = advance(next + 1);
+            return entry;
+        }
+    }
+}
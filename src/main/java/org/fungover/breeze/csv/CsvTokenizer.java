@@ -0,0 +1,80 @@
+package org.fungover.breeze.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits characters from a {@link Reader} into {@link CsvRecord}s over a reusable {@code char[]}
+ * window. Records are located by offset and length only; field contents are never copied.
+ * Record boundaries, quoting and window management are described in
+ * {@link AbstractCsvTokenizer}.
+ */
+final class CsvTokenizer extends AbstractCsvTokenizer {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quoteChar;
+
+    private char[] buffer;
+
+    CsvTokenizer(Reader reader, char delimiter, char quoteChar, int bufferSize) {
+        super(delimiter, quoteChar, SimdScanner.CHAR_SPECIES.length());
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    int unitAt(int index) {
+        return buffer[index];
+    }
+
+    @Override
+    long structuralMask(int offset) {
+        return SimdScanner.structuralMask(buffer, offset, delimiter, quoteChar);
+    }
+
+    @Override
+    void resetRecord(CsvRecord record) {
+        record.reset(buffer);
+    }
+
+    @Override
+    int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    void moveToFront(int from, int length) {
+        System.arraycopy(buffer, from, buffer, 0, length);
+    }
+
+    @Override
+    void grow() {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+
+    @Override
+    int read(int offset, int length) throws IOException {
+        return reader.read(buffer, offset, length);
+    }
+
+    @Override
+    long skip(long count) throws IOException {
+        return reader.skip(count);
+    }
+
+    @Override
+    int read() throws IOException {
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
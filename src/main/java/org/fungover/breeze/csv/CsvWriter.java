@@ -0,0 +1,712 @@
+package org.fungover.breeze.csv;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * A buffered CSV writer that mirrors the options of {@link CsvReader}.
+ * <p>
+ * Fields are copied straight into one large reusable character buffer, and are quoted only when
+ * they contain the delimiter, the quote character or a line break, or start or end with
+ * whitespace. The check runs a vector at a time over the copied characters (see
+ * {@link SimdScanner}), so plain fields are written with a single copy. Numbers are formatted
+ * directly into the buffer, except for {@code float} and {@code double} values with many
+ * significant digits or outside the range that is written in plain notation. The buffer is
+ * written to a {@link Writer}, or encoded into a {@link WritableByteChannel}, only when it is full
+ * or flushed.
+ * </p>
+ * <p>
+ * Rows can be written from {@code String[]} arrays, from Java records, from
+ * {@link ColumnBatch}es, or field by field with {@link #writeField(CharSequence)},
+ * {@link #writeField(long)} and friends followed by {@link #endRow()}.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * try (CsvWriter writer = CsvWriter.builder()
+ *         .withDelimiter(';')
+ *         .build()
+ *         .withTarget(new File("out.csv"), "UTF-8")) {
+ *     writer.writeRow("id", "name");
+ *     writer.writeField(1).writeField("Alice").endRow();
+ * }
+ * }</pre>
+ */
+public class CsvWriter implements AutoCloseable, Flushable {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Enough room for the sign and digits of any long. */
+    private static final int MAX_LONG_CHARS = 20;
+    /** Enough room for the sign, seven integer digits, the point and eighteen fraction digits. */
+    private static final int MAX_DECIMAL_CHARS = 27;
+
+    /** Powers of ten that are exact as doubles, and as longs for the scales a decimal can have. */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+    /** Powers of ten that are exact as floats. */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private static final ClassValue<RecordWriter> RECORD_WRITERS = new ClassValue<>() {
+        @Override
+        protected RecordWriter computeValue(Class<?> type) {
+            return RecordWriter.of(type);
+        }
+    };
+
+    private final char delimiter;
+    private final char quoteChar;
+    private final String lineSeparator;
+
+    private char[] buffer;
+    private int position;
+    private boolean firstField = true;
+
+    private Writer writer;
+    private WritableByteChannel channel;
+    private CharsetEncoder encoder;
+    private ByteBuffer encoded;
+
+    private CsvWriter(Builder builder) {
+        this.delimiter = builder.delimiter;
+        this.quoteChar = builder.quoteChar;
+        this.lineSeparator = builder.lineSeparator;
+        this.buffer = new char[builder.bufferSize];
+    }
+
+    /**
+     * Creates a new builder instance for configuring and constructing a CsvWriter.
+     *
+     * @return a new {@link Builder} instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for CsvWriter.
+     */
+    public static class Builder {
+        private char delimiter = ',';
+        private char quoteChar = '\"';
+        private String lineSeparator = "\n";
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        private Builder() {
+            // private constructor
+        }
+
+        /**
+         * Sets the delimiter character written between fields.
+         *
+         * @param delimiter the delimiter character
+         * @return this builder instance
+         */
+        public Builder withDelimiter(char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Sets the quote character used for enclosing values that need quoting.
+         *
+         * @param quoteChar the quote character
+         * @return this builder instance
+         */
+        public Builder withQuoteChar(char quoteChar) {
+            this.quoteChar = quoteChar;
+            return this;
+        }
+
+        /**
+         * Sets the line separator written after each row (default: {@code "\n"}).
+         *
+         * @param lineSeparator the line separator
+         * @return this builder instance
+         */
+        public Builder withLineSeparator(String lineSeparator) {
+            if (lineSeparator == null || lineSeparator.isEmpty()) {
+                throw new IllegalArgumentException("Line separator cannot be empty");
+            }
+            this.lineSeparator = lineSeparator;
+            return this;
+        }
+
+        /**
+         * Sets the size in characters of the output buffer.
+         *
+         * @param bufferSize the buffer size, must be greater than 0
+         * @return this builder instance
+         */
+        public Builder withBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("Buffer size must be greater than 0");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Builds a new CsvWriter instance with the config settings
+         *
+         * @return a new {@link CsvWriter} instance
+         * @throws IllegalStateException if the delimiter and quote character are the same
+         */
+        public CsvWriter build() {
+            if (delimiter == quoteChar) {
+                throw new IllegalStateException("Delimiter and quote character must differ");
+            }
+            return new CsvWriter(this);
+        }
+    }
+
+    /**
+     * Sets the target to write CSV to.
+     *
+     * @param target the writer to write to
+     * @return this {@link CsvWriter} instance
+     */
+    public CsvWriter withTarget(Writer target) {
+        this.writer = target;
+        this.channel = null;
+        return this;
+    }
+
+    /**
+     * Sets the target to an output stream.
+     *
+     * @param target      the output stream to write to
+     * @param charsetName the character set to encode with
+     * @return this {@link CsvWriter} instance
+     */
+    public CsvWriter withTarget(OutputStream target, String charsetName) {
+        return withTarget(new OutputStreamWriter(target, Charset.forName(charsetName)));
+    }
+
+    /**
+     * Sets the target to a file, replacing its contents.
+     *
+     * @param target      the file to write to
+     * @param charsetName the character set to encode with
+     * @return this {@link CsvWriter} instance
+     * @throws FileNotFoundException if the file cannot be opened for writing
+     */
+    public CsvWriter withTarget(File target, String charsetName) throws FileNotFoundException {
+        return withTarget(new FileOutputStream(target), charsetName);
+    }
+
+    /**
+     * Sets the target to a channel. Characters are encoded from the writer's buffer directly into
+     * a reusable byte buffer, without an intermediate {@link Writer}.
+     *
+     * @param target      the channel to write to
+     * @param charsetName the character set to encode with
+     * @return this {@link CsvWriter} instance
+     */
+    public CsvWriter withTarget(WritableByteChannel target, String charsetName) {
+        this.channel = target;
+        this.writer = null;
+        this.encoder = Charset.forName(charsetName).newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.encoded = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE,
+                (long) buffer.length * (long) Math.ceil(encoder.maxBytesPerChar())));
+        return this;
+    }
+
+    /**
+     * Writes a complete row.
+     *
+     * @param fields the fields of the row; {@code null} fields are written as empty
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeRow(String... fields) throws IOException {
+        for (String field : fields) {
+            writeField(field);
+        }
+        return endRow();
+    }
+
+    /**
+     * Writes the components of a record as one row, in declaration order.
+     * <p>
+     * The accessors of each record type are looked up once and cached. {@code int},
+     * {@code long} and {@code boolean} components are written without creating strings.
+     * </p>
+     *
+     * @param record the record to write
+     * @return this {@link CsvWriter} instance
+     * @throws IOException              if an I/O error occurs
+     * @throws IllegalArgumentException if the record's accessors are not accessible
+     */
+    public CsvWriter writeRecord(Record record) throws IOException {
+        RECORD_WRITERS.get(record.getClass()).write(this, record);
+        return endRow();
+    }
+
+    /**
+     * Writes every row of a columnar batch. Null values are written as empty fields.
+     *
+     * @param batch the batch to write
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeBatch(ColumnBatch batch) throws IOException {
+        for (int row = 0; row < batch.rowCount(); row++) {
+            for (int column = 0; column < batch.columnCount(); column++) {
+                ColumnVector vector = batch.column(column);
+                if (vector.isNull(row)) {
+                    writeField((CharSequence) null);
+                    continue;
+                }
+                switch (vector) {
+                    case ColumnVector.Ints ints -> writeField(ints.get(row));
+                    case ColumnVector.Longs longs -> writeField(longs.get(row));
+                    case ColumnVector.Floats floats -> writeField(floats.get(row));
+                    case ColumnVector.Doubles doubles -> writeField(doubles.get(row));
+                    case ColumnVector.Strings strings -> writeField(strings.get(row));
+                }
+            }
+            endRow();
+        }
+        return this;
+    }
+
+    /**
+     * Writes one field of the current row, quoting it only if it contains the delimiter, the
+     * quote character or a line break, or starts or ends with whitespace so that readers that
+     * trim tokens keep it.
+     *
+     * @param value the field value; {@code null} is written as an empty field
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(CharSequence value) throws IOException {
+        startField();
+        if (value == null) {
+            return this;
+        }
+        int length = value.length();
+        // Worst case: every character is a doubled quote, plus the enclosing quotes
+        ensureCapacity(2 * length + 2);
+        int start = position;
+        if (value instanceof String s) {
+            s.getChars(0, length, buffer, start);
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer[start + i] = value.charAt(i);
+            }
+        }
+        position = start + length;
+        escapeIfNeeded(start);
+        return this;
+    }
+
+    /**
+     * Writes an int field of the current row without creating a string.
+     *
+     * @param value the field value
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(int value) throws IOException {
+        return writeField((long) value);
+    }
+
+    /**
+     * Writes a long field of the current row without creating a string.
+     *
+     * @param value the field value
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(long value) throws IOException {
+        startField();
+        ensureCapacity(2 * MAX_LONG_CHARS + 2);
+        int start = position;
+        appendLong(value);
+        escapeIfNeeded(start);
+        return this;
+    }
+
+    /**
+     * Writes a float field of the current row, formatted as by {@link Float#toString(float)}.
+     * Values from {@code 0.001} up to {@code 10^7} whose shortest decimal form has at most
+     * seven significant digits are written without creating a string. Zero, NaN, the
+     * infinities, values outside that range and some longer decimals are formatted with
+     * {@link Float#toString(float)} instead.
+     *
+     * @param value the field value
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(float value) throws IOException {
+        float magnitude = Math.abs(value);
+        if (magnitude >= 1e-3f && magnitude < 1e7f) {
+            for (int scale = 0; scale < FLOAT_POWERS_OF_TEN.length; scale++) {
+                double scaled = magnitude * DOUBLE_POWERS_OF_TEN[scale];
+                if (scaled >= 0x1p24) {
+                    break;
+                }
+                long digits = (long) Math.rint(scaled);
+                if (digits / FLOAT_POWERS_OF_TEN[scale] == magnitude) {
+                    return writeDecimal(value < 0, digits, scale);
+                }
+            }
+        }
+        return writeField(Float.toString(value));
+    }
+
+    /**
+     * Writes a double field of the current row, formatted as by {@link Double#toString(double)}.
+     * Values from {@code 0.001} up to {@code 10^7} whose shortest decimal form has at most
+     * fifteen significant digits are written without creating a string. Zero, NaN, the
+     * infinities, values outside that range and some longer decimals are formatted with
+     * {@link Double#toString(double)} instead.
+     *
+     * @param value the field value
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(double value) throws IOException {
+        double magnitude = Math.abs(value);
+        if (magnitude >= 1e-3 && magnitude < 1e7) {
+            for (int scale = 0; scale < DOUBLE_POWERS_OF_TEN.length; scale++) {
+                double scaled = magnitude * DOUBLE_POWERS_OF_TEN[scale];
+                if (scaled >= 0x1p53) {
+                    break;
+                }
+                long digits = (long) Math.rint(scaled);
+                if (digits / DOUBLE_POWERS_OF_TEN[scale] == magnitude) {
+                    return writeDecimal(value < 0, digits, scale);
+                }
+            }
+        }
+        return writeField(Double.toString(value));
+    }
+
+    /**
+     * Writes {@code digits / 10^scale} in plain notation with at least one fraction digit.
+     * The callers pick the smallest scale at which the decimal rounds back to the value, which is
+     * the shortest form that {@link Double#toString(double)} and {@link Float#toString(float)}
+     * choose as well.
+     */
+    private CsvWriter writeDecimal(boolean negative, long digits, int scale) throws IOException {
+        startField();
+        ensureCapacity(2 * MAX_DECIMAL_CHARS + 2);
+        int start = position;
+        if (negative) {
+            buffer[position++] = '-';
+        }
+        long unit = (long) DOUBLE_POWERS_OF_TEN[scale];
+        appendLong(digits / unit);
+        buffer[position++] = '.';
+        if (scale == 0) {
+            buffer[position++] = '0';
+        } else {
+            long fraction = digits % unit;
+            for (int i = position + scale - 1; i >= position; i--) {
+                buffer[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += scale;
+        }
+        escapeIfNeeded(start);
+        return this;
+    }
+
+    /**
+     * Writes a boolean field of the current row.
+     *
+     * @param value the field value
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter writeField(boolean value) throws IOException {
+        return writeField(value ? "true" : "false");
+    }
+
+    /**
+     * Ends the current row by writing the line separator.
+     *
+     * @return this {@link CsvWriter} instance
+     * @throws IOException if an I/O error occurs
+     */
+    public CsvWriter endRow() throws IOException {
+        ensureCapacity(lineSeparator.length());
+        lineSeparator.getChars(0, lineSeparator.length(), buffer, position);
+        position += lineSeparator.length();
+        firstField = true;
+        return this;
+    }
+
+    private void startField() throws IOException {
+        if (!firstField) {
+            ensureCapacity(1);
+            buffer[position++] = delimiter;
+        }
+        firstField = false;
+    }
+
+    private void appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            "-9223372036854775808".getChars(0, MAX_LONG_CHARS, buffer, position);
+            position += MAX_LONG_CHARS;
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + digitCount(value);
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Quotes {@code buffer[start..position)} in place if it contains a structural character.
+     * The caller must have reserved room for the field to grow to twice its length plus two.
+     */
+    private void escapeIfNeeded(int start) {
+        int end = position;
+        if (!needsQuotes(start, end)) {
+            return;
+        }
+        int quotes = 0;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == quoteChar) {
+                quotes++;
+            }
+        }
+        // Shift right from the back so that each character is moved exactly once
+        int target = end + quotes + 1;
+        buffer[target] = quoteChar;
+        for (int i = end - 1; i >= start; i--) {
+            buffer[--target] = buffer[i];
+            if (buffer[i] == quoteChar) {
+                buffer[--target] = quoteChar;
+            }
+        }
+        buffer[start] = quoteChar;
+        position = end + quotes + 2;
+    }
+
+    private boolean needsQuotes(int from, int to) {
+        if (from < to && (buffer[from] <= ' ' || buffer[to - 1] <= ' ')) {
+            return true;
+        }
+        int lanes = SimdScanner.CHAR_SPECIES.length();
+        int i = from;
+        for (; i + lanes <= to; i += lanes) {
+            if (SimdScanner.structuralMask(buffer, i, delimiter, quoteChar) != 0) {
+                return true;
+            }
+        }
+        for (; i < to; i++) {
+            char c = buffer[i];
+            if (c == delimiter || c == quoteChar || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes room for {@code needed} more characters, flushing the buffer first and growing it
+     * only for a single field that is larger than the whole buffer.
+     */
+    private void ensureCapacity(int needed) throws IOException {
+        if (buffer.length - position >= needed) {
+            return;
+        }
+        flushBuffer();
+        if (buffer.length - position < needed) {
+            buffer = Arrays.copyOf(buffer, position + needed);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        } else if (channel != null) {
+            CharBuffer chars = CharBuffer.wrap(buffer, 0, position);
+            encode(chars, false);
+            // A trailing high surrogate waits in the buffer for the rest of its pair
+            int remaining = chars.remaining();
+            System.arraycopy(buffer, chars.position(), buffer, 0, remaining);
+            position = remaining;
+        } else {
+            throw new IllegalStateException("withTarget(..) must be called before writing");
+        }
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, encoded, endOfInput);
+            drain();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            do {
+                result = encoder.flush(encoded);
+                drain();
+            } while (result.isOverflow());
+        }
+    }
+
+    private void drain() throws IOException {
+        encoded.flip();
+        while (encoded.hasRemaining()) {
+            channel.write(encoded);
+        }
+        encoded.clear();
+    }
+
+    /**
+     * Writes any buffered characters to the target and flushes it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writer != null) {
+                flushBuffer();
+            } else if (channel != null) {
+                encode(CharBuffer.wrap(buffer, 0, position), true);
+                position = 0;
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            } else if (channel != null) {
+                channel.close();
+            }
+            writer = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * Writes one record component into the current row.
+     */
+    @FunctionalInterface
+    private interface ComponentWriter {
+        void write(CsvWriter writer, Record record) throws Throwable;
+    }
+
+    /**
+     * The cached component writers of one record type.
+     */
+    private record RecordWriter(ComponentWriter[] components) {
+
+        static RecordWriter of(Class<?> type) {
+            RecordComponent[] recordComponents = type.getRecordComponents();
+            ComponentWriter[] writers = new ComponentWriter[recordComponents.length];
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            for (int i = 0; i < writers.length; i++) {
+                writers[i] = componentWriter(lookup, recordComponents[i]);
+            }
+            return new RecordWriter(writers);
+        }
+
+        private static ComponentWriter componentWriter(MethodHandles.Lookup lookup, RecordComponent component) {
+            Class<?> type = component.getType();
+            MethodHandle accessor;
+            try {
+                Method method = component.getAccessor();
+                try {
+                    accessor = lookup.unreflect(method);
+                } catch (IllegalAccessException e) {
+                    method.setAccessible(true);
+                    accessor = lookup.unreflect(method);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access component " + component.getName()
+                        + " of " + component.getDeclaringRecord().getName(), e);
+            }
+            if (type == int.class || type == short.class || type == byte.class) {
+                MethodHandle h = accessor.asType(MethodType.methodType(int.class, Record.class));
+                return (writer, record) -> writer.writeField((int) h.invokeExact(record));
+            }
+            if (type == long.class) {
+                MethodHandle h = accessor.asType(MethodType.methodType(long.class, Record.class));
+                return (writer, record) -> writer.writeField((long) h.invokeExact(record));
+            }
+            if (type == float.class) {
+                MethodHandle h = accessor.asType(MethodType.methodType(float.class, Record.class));
+                return (writer, record) -> writer.writeField((float) h.invokeExact(record));
+            }
+            if (type == double.class) {
+                MethodHandle h = accessor.asType(MethodType.methodType(double.class, Record.class));
+                return (writer, record) -> writer.writeField((double) h.invokeExact(record));
+            }
+            if (type == boolean.class) {
+                MethodHandle h = accessor.asType(MethodType.methodType(boolean.class, Record.class));
+                return (writer, record) -> writer.writeField((boolean) h.invokeExact(record));
+            }
+            MethodHandle h = accessor.asType(MethodType.methodType(Object.class, Record.class));
+            return (writer, record) -> {
+                Object value = h.invokeExact(record);
+                writer.writeField(value == null ? null : value.toString());
+            };
+        }
+
+        void write(CsvWriter writer, Record record) throws IOException {
+            try {
+                for (ComponentWriter component : components) {
+                    component.write(writer, record);
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to write " + record.getClass().getName(), e);
+            }
+        }
+    }
+}
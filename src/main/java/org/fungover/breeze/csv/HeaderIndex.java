@@ -0,0 +1,62 @@
+package org.fungover.breeze.csv;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps header names to column indices. It is built once per header row and shared by every
+ * {@link CsvRow} read with that header. When a name occurs more than once, the last column wins.
+ */
+final class HeaderIndex {
+
+    static final HeaderIndex EMPTY = new HeaderIndex(new String[0]);
+
+    private final Map<String, Integer> indices;
+    private final String[] keys;
+    private final int[] positions;
+
+    HeaderIndex(String[] names) {
+        this.indices = HashMap.newHashMap(names.length);
+        for (int i = 0; i < names.length; i++) {
+            indices.put(names[i], i);
+        }
+        this.keys = new String[indices.size()];
+        this.positions = new int[indices.size()];
+        int key = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (indices.get(names[i]) == i) {
+                keys[key] = names[i];
+                positions[key++] = i;
+            }
+        }
+    }
+
+    /**
+     * Returns the column index of {@code name}, or -1 if the header has no such column.
+     */
+    int indexOf(Object name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the number of distinct header names.
+     */
+    int keyCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the distinct header name with the given ordinal, in header order.
+     */
+    String key(int ordinal) {
+        return keys[ordinal];
+    }
+
+    /**
+     * Returns the column index of the distinct header name with the given ordinal.
+     */
+    int position(int ordinal) {
+        return positions[ordinal];
+    }
+}
@@ -0,0 +1,31 @@
+package org.fungover.breeze.csv;
+
+/**
+ * Thrown by {@link CsvReader} at a malformed row when the {@link MalformedRowPolicy#FAIL} policy
+ * is set.
+ */
+public class MalformedCsvException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient MalformedRow row;
+
+    /**
+     * Constructs a {@code MalformedCsvException} for the given row.
+     *
+     * @param row the rejected row
+     */
+    public MalformedCsvException(MalformedRow row) {
+        super("Malformed row at line " + row.lineNumber() + ": " + row.reason());
+        this.row = row;
+    }
+
+    /**
+     * Returns the rejected row, with its line number and raw text.
+     *
+     * @return the rejected row
+     */
+    public MalformedRow getRow() {
+        return row;
+    }
+}
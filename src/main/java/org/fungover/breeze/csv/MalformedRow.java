@@ -0,0 +1,14 @@
+package org.fungover.breeze.csv;
+
+/**
+ * A row that {@link CsvReader} rejected as malformed.
+ *
+ * @param lineNumber the one-based input line the row starts on, counting the header and any line
+ *                   breaks inside quoted fields
+ * @param rowNumber  the one-based number of the row among the data rows, see
+ *                   {@link CsvReader#rowNumber()}
+ * @param rawText    the row as it appears in the input, without its line break
+ * @param reason     why the row was rejected
+ */
+public record MalformedRow(long lineNumber, long rowNumber, String rawText, String reason) {
+}
@@ -0,0 +1,32 @@
+package org.fungover.breeze.csv;
+
+/**
+ * What {@link CsvReader} does with a malformed row: one whose number of fields differs from the
+ * header row, or from the first row when there is no header, or one where the input ends inside a
+ * quoted field.
+ *
+ * @see CsvReader.Builder#withMalformedRowPolicy(MalformedRowPolicy)
+ */
+public enum MalformedRowPolicy {
+
+    /**
+     * Returns malformed rows as parsed. Rows are not checked, so this is the fastest policy.
+     */
+    ACCEPT,
+
+    /**
+     * Throws a {@link MalformedCsvException} at the first malformed row.
+     */
+    FAIL,
+
+    /**
+     * Drops malformed rows and counts them, see {@link CsvReader#malformedRowCount()}.
+     */
+    SKIP,
+
+    /**
+     * Drops and counts malformed rows like {@link #SKIP}, and hands each one to the sink set with
+     * {@link CsvReader.Builder#withDeadLetterSink(java.util.function.Consumer)}.
+     */
+    DEAD_LETTER
+}
@@ -0,0 +1,202 @@
+package org.fungover.breeze.csv;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses numbers directly from a range of a {@code char[]}, or of a {@code byte[]} holding ASCII
+ * compatible text, without creating an intermediate {@link String}. The accepted syntax and
+ * thrown exceptions follow {@link Integer#parseInt(String)}, {@link Long#parseLong(String)} and
+ * {@link Double#parseDouble(String)}, except that ints and longs accept ASCII digits only.
+ */
+final class NumberParser {
+
+    /**
+     * Largest number of significant digits that always fits exactly in a double's 53-bit mantissa.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private NumberParser() {
+        // utility class
+    }
+
+    /**
+     * Parses {@code chars[start..end)} as a signed decimal int.
+     *
+     * @throws NumberFormatException if the range is not a valid int
+     */
+    static int parseInt(char[] chars, int start, int end) {
+        long value = parseLong(chars, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw numberFormatException(chars, start, end);
+        return (int) value;
+    }
+
+    /**
+     * Parses {@code chars[start..end)} as a signed decimal long.
+     *
+     * @throws NumberFormatException if the range is not a valid long
+     */
+    static long parseLong(char[] chars, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        if (i == end)
+            throw numberFormatException(chars, start, end);
+
+        // Accumulate negatively, since Long.MIN_VALUE has no positive counterpart
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit)
+                throw numberFormatException(chars, start, end);
+            result *= 10;
+            if (result < limit + digit)
+                throw numberFormatException(chars, start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses {@code chars[start..end)} as a double. Plain decimals with at most 15 significant
+     * digits are computed exactly from the buffer; anything else (exponents, special values,
+     * surrounding whitespace) falls back to {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException if the range is not a valid double
+     */
+    static double parseDouble(char[] chars, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_EXACT_DIGITS)
+                    return fallbackParseDouble(chars, start, end);
+                mantissa = mantissa * 10 + (c - '0');
+                if (inFraction)
+                    fractionDigits++;
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                return fallbackParseDouble(chars, start, end);
+            }
+        }
+        if (digits == 0)
+            return fallbackParseDouble(chars, start, end);
+        // Both operands are exact, so a single division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double fallbackParseDouble(char[] chars, int start, int end) {
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+
+    private static NumberFormatException numberFormatException(char[] chars, int start, int end) {
+        return new NumberFormatException("For input string: \"" + new String(chars, start, end - start) + "\"");
+    }
+
+    /**
+     * Parses {@code bytes[start..end)} as a signed decimal int.
+     *
+     * @throws NumberFormatException if the range is not a valid int
+     */
+    static int parseInt(byte[] bytes, int start, int end) {
+        long value = parseLong(bytes, start, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw numberFormatException(bytes, start, end);
+        return (int) value;
+    }
+
+    /**
+     * Parses {@code bytes[start..end)} as a signed decimal long.
+     *
+     * @throws NumberFormatException if the range is not a valid long
+     */
+    static long parseLong(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == end)
+            throw numberFormatException(bytes, start, end);
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit)
+                throw numberFormatException(bytes, start, end);
+            result *= 10;
+            if (result < limit + digit)
+                throw numberFormatException(bytes, start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses {@code bytes[start..end)} as a double, see {@link #parseDouble(char[], int, int)}.
+     *
+     * @throws NumberFormatException if the range is not a valid double
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_EXACT_DIGITS)
+                    return fallbackParseDouble(bytes, start, end);
+                mantissa = mantissa * 10 + (b - '0');
+                if (inFraction)
+                    fractionDigits++;
+            } else if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                return fallbackParseDouble(bytes, start, end);
+            }
+        }
+        if (digits == 0)
+            return fallbackParseDouble(bytes, start, end);
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double fallbackParseDouble(byte[] bytes, int start, int end) {
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    private static NumberFormatException numberFormatException(byte[] bytes, int start, int end) {
+        return new NumberFormatException("For input string: \"" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+    }
+}
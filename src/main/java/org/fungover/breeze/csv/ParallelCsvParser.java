@@ -0,0 +1,338 @@
+package org.fungover.breeze.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses a CSV file on a {@link ForkJoinPool} by splitting it into fixed-size byte chunks.
+ * <p>
+ * A chunk boundary almost never falls on a record boundary, and whether it falls inside a quoted
+ * field depends on every quote before it. Each chunk is therefore read once and summarized by the
+ * parity of its quote characters plus the first line break it would reach in either quote state.
+ * A line break is a {@code \n}, or a {@code \r} that is not followed by {@code \n}; a {@code \r}
+ * that ends a chunk is never taken as a boundary, since the next chunk may continue it. The
+ * summary is computed a vector at a time from quote and line break bitmasks, see
+ * {@link SimdScanner}.
+ * A cheap sequential pass over those summaries resolves the real quote state at every chunk
+ * start, which gives an exact record boundary per chunk. The records between boundaries are then
+ * parsed in parallel straight from the bytes, see {@link ByteCsvTokenizer}.
+ * </p>
+ * <p>
+ * Chunks are processed in windows of a few chunks per worker, so memory stays bounded by the
+ * window size no matter how large the file is. A chunk without a boundary, for example inside a
+ * very long quoted field, is appended to a carry buffer that grows by doubling, so a record that
+ * spans many chunks is copied a constant number of times per byte. Splitting on raw bytes requires a charset in which
+ * ASCII characters are always single bytes and never appear inside multibyte sequences, which
+ * holds for UTF-8, US-ASCII and ISO-8859-1.
+ * </p>
+ */
+final class ParallelCsvParser {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Path file;
+    private final Charset charset;
+    private final char delimiter;
+    private final char quoteChar;
+    private final boolean trimTokens;
+    private final boolean skipEmptyLines;
+    private final boolean hasHeader;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final boolean ordered;
+    private final int[] projection;
+    private final Predicate<CsvRecord> filter;
+
+    ParallelCsvParser(Path file, Charset charset, char delimiter, char quoteChar, boolean trimTokens,
+                      boolean skipEmptyLines, boolean hasHeader, int chunkSize, ForkJoinPool pool, boolean ordered,
+                      int[] projection, Predicate<CsvRecord> filter) {
+        if (!ByteCsvTokenizer.supports(charset, delimiter, quoteChar)) {
+            throw new IllegalArgumentException(
+                    "Parallel parsing requires an ASCII compatible charset and ASCII delimiter and quote characters");
+        }
+        this.file = file;
+        this.charset = charset;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.trimTokens = trimTokens;
+        this.skipEmptyLines = skipEmptyLines;
+        this.hasHeader = hasHeader;
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+        this.ordered = ordered;
+        this.projection = projection;
+        this.filter = filter;
+    }
+
+    /**
+     * Opens the file and returns a lazily parsed stream of its rows. The stream should be closed
+     * to release the file handle if it is not fully consumed.
+     */
+    Stream<String[]> stream() throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        WindowSpliterator spliterator = new WindowSpliterator(channel);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * A chunk of the file together with the summary needed to resolve record boundaries.
+     *
+     * @param bytes             the chunk contents
+     * @param oddQuotes         true if the chunk holds an odd number of quote characters
+     * @param boundaryIfOutside index after the first line break reached when the chunk starts outside quotes, or -1
+     * @param boundaryIfInside  index after the first line break reached when the chunk starts inside quotes, or -1
+     */
+    private record Chunk(byte[] bytes, boolean oddQuotes, int boundaryIfOutside, int boundaryIfInside) {
+    }
+
+    /**
+     * A contiguous run of complete records: the tail of one chunk followed by the head of the next.
+     */
+    private record Segment(byte[] first, int firstFrom, int firstTo, byte[] second, int secondTo,
+                           boolean startOfFile) {
+    }
+
+    private Chunk readChunk(FileChannel channel, long offset, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        ByteBuffer target = ByteBuffer.wrap(bytes);
+        while (target.hasRemaining()) {
+            if (channel.read(target, offset + target.position()) < 0) {
+                throw new IOException("File was truncated while reading");
+            }
+        }
+        byte quote = (byte) quoteChar;
+        boolean odd = false;
+        int boundaryIfOutside = -1;
+        int boundaryIfInside = -1;
+        int lanes = SimdScanner.BYTE_SPECIES.length();
+        int i = 0;
+        for (; i + lanes <= length; i += lanes) {
+            long quotes = SimdScanner.byteMask(bytes, i, quote);
+            long newlines = lineBreaks(bytes, i, lanes);
+            // Bit k is set when position i + k has seen an odd number of quotes since the chunk start
+            long inside = SimdScanner.prefixXor(quotes) ^ (odd ? -1L : 0L);
+            if (boundaryIfOutside < 0 && (newlines & ~inside) != 0) {
+                boundaryIfOutside = i + Long.numberOfTrailingZeros(newlines & ~inside) + 1;
+            }
+            if (boundaryIfInside < 0 && (newlines & inside) != 0) {
+                boundaryIfInside = i + Long.numberOfTrailingZeros(newlines & inside) + 1;
+            }
+            odd = ((inside >>> (lanes - 1)) & 1) != 0;
+        }
+        for (; i < length; i++) {
+            byte b = bytes[i];
+            if (b == quote) {
+                odd = !odd;
+            } else if (b == '\n' || (b == '\r' && i + 1 < length && bytes[i + 1] != '\n')) {
+                if (!odd && boundaryIfOutside < 0) {
+                    boundaryIfOutside = i + 1;
+                } else if (odd && boundaryIfInside < 0) {
+                    boundaryIfInside = i + 1;
+                }
+            }
+        }
+        return new Chunk(bytes, odd, boundaryIfOutside, boundaryIfInside);
+    }
+
+    /**
+     * Returns a mask of the line breaks in the vector starting at {@code offset}: every {@code \n},
+     * and every {@code \r} that is followed by a byte other than {@code \n} within the chunk.
+     */
+    private static long lineBreaks(byte[] bytes, int offset, int lanes) {
+        long lineFeeds = SimdScanner.byteMask(bytes, offset, (byte) '\n');
+        long carriageReturns = SimdScanner.byteMask(bytes, offset, (byte) '\r');
+        int next = offset + lanes;
+        // Bit k is set when position offset + k + 1 is a line feed or lies past the end of the chunk
+        long lastBeforeLineFeed = next >= bytes.length || bytes[next] == '\n' ? 1L << (lanes - 1) : 0L;
+        long beforeLineFeed = (lineFeeds >>> 1) | lastBeforeLineFeed;
+        return lineFeeds | (carriageReturns & ~beforeLineFeed);
+    }
+
+    private List<String[]> parseSegment(Segment segment) throws IOException {
+        SequenceInputStream bytes = new SequenceInputStream(
+                new ByteArrayInputStream(segment.first(), segment.firstFrom(), segment.firstTo() - segment.firstFrom()),
+                new ByteArrayInputStream(segment.second(), 0, segment.secondTo()));
+        ByteCsvTokenizer tokenizer = new ByteCsvTokenizer(bytes, charset, delimiter, quoteChar,
+                CsvTokenizer.DEFAULT_BUFFER_SIZE);
+        CsvRecord record = new CsvRecord(quoteChar, trimTokens);
+        List<String[]> rows = new ArrayList<>();
+        if (segment.startOfFile() && hasHeader) {
+            tokenizer.next(record, false);
+        }
+        while (tokenizer.next(record, skipEmptyLines)) {
+            if (filter == null || filter.test(record)) {
+                rows.add(projection == null ? record.toArray() : record.select(projection));
+            }
+        }
+        return rows;
+    }
+
+    private final class WindowSpliterator extends Spliterators.AbstractSpliterator<String[]> {
+        private final FileChannel channel;
+        private final long size;
+        private long nextOffset;
+        private boolean insideQuotes;
+        private byte[] carry = new byte[0];
+        private int carryFrom;
+        private int carryTo;
+        private boolean carryOwned;
+        private boolean carryAtStartOfFile = true;
+        private Iterator<String[]> rows = Collections.emptyIterator();
+
+        WindowSpliterator(FileChannel channel) throws IOException {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0));
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String[]> action) {
+            while (!rows.hasNext()) {
+                if (nextOffset >= size && carry == null) {
+                    close();
+                    return false;
+                }
+                rows = nextWindow().iterator();
+            }
+            action.accept(rows.next());
+            return true;
+        }
+
+        /**
+         * Reads the next window of chunks in parallel, resolves its record boundaries and parses
+         * the complete records it contains. Bytes after the last boundary are carried over to the
+         * next window without being copied.
+         */
+        private List<String[]> nextWindow() {
+            int windowChunks = pool.getParallelism() * CHUNKS_PER_WORKER;
+            List<Future<Chunk>> reads = new ArrayList<>();
+            for (int i = 0; i < windowChunks && nextOffset < size; i++) {
+                long offset = nextOffset;
+                int length = (int) Math.min(chunkSize, size - offset);
+                reads.add(pool.submit(() -> readChunk(channel, offset, length)));
+                nextOffset += length;
+            }
+
+            List<Segment> segments = new ArrayList<>();
+            for (Future<Chunk> read : reads) {
+                Chunk chunk = join(read);
+                int boundary = insideQuotes ? chunk.boundaryIfInside() : chunk.boundaryIfOutside();
+                insideQuotes ^= chunk.oddQuotes();
+                if (boundary < 0) {
+                    append(chunk.bytes());
+                    continue;
+                }
+                segments.add(new Segment(carry, carryFrom, carryTo, chunk.bytes(), boundary, carryAtStartOfFile));
+                carryAtStartOfFile = false;
+                carry = chunk.bytes();
+                carryFrom = boundary;
+                carryTo = carry.length;
+                carryOwned = false;
+            }
+
+            if (nextOffset >= size) {
+                if (carryTo > carryFrom) {
+                    segments.add(new Segment(carry, carryFrom, carryTo, new byte[0], 0, carryAtStartOfFile));
+                }
+                carry = null;
+            }
+            return parseAll(segments);
+        }
+
+        /**
+         * Appends a chunk without a record boundary to the carry. The carry is copied into a buffer
+         * of its own the first time and that buffer at least doubles whenever it is full, so a
+         * record spanning many chunks is appended in amortized linear time.
+         */
+        private void append(byte[] bytes) {
+            int length = carryTo - carryFrom;
+            int required = length + bytes.length;
+            if (!carryOwned || carry.length < required) {
+                byte[] grown = new byte[Math.max(required, carry.length * 2)];
+                System.arraycopy(carry, carryFrom, grown, 0, length);
+                carry = grown;
+                carryFrom = 0;
+                carryTo = length;
+                carryOwned = true;
+            }
+            System.arraycopy(bytes, 0, carry, carryTo, bytes.length);
+            carryTo = required;
+        }
+
+        private List<String[]> parseAll(List<Segment> segments) {
+            List<String[]> result = new ArrayList<>();
+            if (ordered) {
+                List<Future<List<String[]>>> parsed = new ArrayList<>();
+                for (Segment segment : segments) {
+                    parsed.add(pool.submit(() -> parseSegment(segment)));
+                }
+                for (Future<List<String[]>> future : parsed) {
+                    result.addAll(join(future));
+                }
+            } else {
+                CompletionService<List<String[]>> completion = new ExecutorCompletionService<>(pool);
+                for (Segment segment : segments) {
+                    completion.submit(() -> parseSegment(segment));
+                }
+                for (int i = 0; i < segments.size(); i++) {
+                    try {
+                        result.addAll(join(completion.take()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while parsing", e);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private <T> T join(Future<T> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
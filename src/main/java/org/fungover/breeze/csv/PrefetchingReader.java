@@ -0,0 +1,136 @@
+package org.fungover.breeze.csv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link Reader} that reads and decodes its source on a background thread, up to a fixed
+ * number of blocks ahead of the caller, so that I/O stalls and charset decoding overlap with
+ * parsing.
+ * <p>
+ * Blocks are handed over through a bounded queue and their buffers are recycled, so memory use
+ * is fixed at {@code blocks + 1} buffers of {@code blockSize} characters no matter how large the
+ * source is. The background thread stops at end of input, on an I/O error, which is rethrown to
+ * the caller, or when the reader is closed.
+ * </p>
+ */
+final class PrefetchingReader extends Reader {
+
+    private static final Block END = new Block(null, -1, null);
+
+    /**
+     * A decoded block, the end of input marker, or an error to rethrow.
+     */
+    private record Block(char[] chars, int length, IOException error) {
+    }
+
+    private final Reader source;
+    private final BlockingQueue<Block> filled;
+    private final BlockingQueue<char[]> free;
+    private final Thread worker;
+
+    private Block current;
+    private int offset;
+    private volatile boolean closed;
+
+    PrefetchingReader(Reader source, int blocks, int blockSize, ThreadFactory threadFactory) {
+        this.source = source;
+        this.filled = new ArrayBlockingQueue<>(blocks);
+        this.free = new ArrayBlockingQueue<>(blocks + 1);
+        for (int i = 0; i <= blocks; i++) {
+            free.add(new char[blockSize]);
+        }
+        this.worker = threadFactory.newThread(this::prefetch);
+        worker.start();
+    }
+
+    private void prefetch() {
+        try {
+            Block block;
+            do {
+                block = readBlock(free.take());
+                filled.put(block);
+            } while (block.chars() != null && !closed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fills {@code chars} until it is full, the source would block, or the input ends.
+     */
+    private Block readBlock(char[] chars) {
+        int length = 0;
+        try {
+            while (length < chars.length) {
+                int n = source.read(chars, length, chars.length - length);
+                if (n < 0) {
+                    return length == 0 ? END : new Block(chars, length, null);
+                }
+                length += n;
+                if (!source.ready()) {
+                    break;
+                }
+            }
+            return new Block(chars, length, null);
+        } catch (IOException e) {
+            return new Block(null, -1, e);
+        }
+    }
+
+    @Override
+    public int read(char[] target, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (current == END) {
+            return -1;
+        }
+        if (current == null || offset == current.length()) {
+            nextBlock();
+            if (current == END) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, current.length() - offset);
+        System.arraycopy(current.chars(), offset, target, off, n);
+        offset += n;
+        return n;
+    }
+
+    private void nextBlock() throws IOException {
+        if (current != null) {
+            free.add(current.chars());
+        }
+        try {
+            current = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            current = null;
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        offset = 0;
+        if (current.error() != null) {
+            IOException error = current.error();
+            current = END;
+            throw error;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        worker.interrupt();
+        source.close();
+    }
+}
@@ -0,0 +1,46 @@
+package org.fungover.breeze.csv;
+
+import java.io.IOException;
+
+/**
+ * A source of parsed {@link CsvRecord}s, either from decoded characters ({@link CsvTokenizer}) or
+ * from raw bytes ({@link ByteCsvTokenizer}).
+ */
+interface RecordSource {
+
+    /**
+     * Parses the next record into {@code record}.
+     *
+     * @param record    the record to fill
+     * @param skipBlank true to skip records made up of whitespace only
+     * @return false if there are no more records
+     * @throws IOException if reading from the source fails
+     */
+    boolean next(CsvRecord record, boolean skipBlank) throws IOException;
+
+    /**
+     * Returns the offset just past the last record returned, counted in the units of the
+     * source: characters for {@link CsvTokenizer}, bytes for {@link ByteCsvTokenizer}.
+     *
+     * @return the offset of the next record
+     */
+    long offset();
+
+    /**
+     * Moves forward so that the next record is parsed from {@code offset}, which should be a
+     * record boundary earlier returned by {@link #offset()}. Skipping past the end of the input
+     * leaves no more records.
+     *
+     * @param offset the offset to continue from
+     * @throws IOException              if reading from the source fails
+     * @throws IllegalArgumentException if {@code offset} is before the current offset
+     */
+    void skipTo(long offset) throws IOException;
+
+    /**
+     * Closes the underlying input.
+     *
+     * @throws IOException if closing the input fails
+     */
+    void close() throws IOException;
+}
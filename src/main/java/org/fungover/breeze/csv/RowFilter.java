@@ -0,0 +1,165 @@
+package org.fungover.breeze.csv;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A row predicate that {@link CsvReader} evaluates on the raw characters of each row before any
+ * field is turned into a string, so rows that are rejected never allocate.
+ * <p>
+ * Filters refer to columns by index or by header name and can be combined with
+ * {@link #and(RowFilter)}, {@link #or(RowFilter)} and {@link #negate()}. A row that is too short
+ * to have the tested column never matches.
+ * </p>
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>{@code
+ * CsvReader reader = CsvReader.builder()
+ *     .hasHeader(true)
+ *     .selectColumns("id", "price")
+ *     .withFilter(RowFilter.equalTo("country", "SE").and(RowFilter.between("price", 10, 100)))
+ *     .build();
+ * }</pre>
+ */
+public final class RowFilter {
+
+    @FunctionalInterface
+    private interface FieldTest {
+        boolean test(CsvRecord record, int index);
+    }
+
+    private final Function<String[], Predicate<CsvRecord>> binder;
+
+    private RowFilter(Function<String[], Predicate<CsvRecord>> binder) {
+        this.binder = binder;
+    }
+
+    private static RowFilter of(ColumnRef column, FieldTest test) {
+        return new RowFilter(headers -> {
+            int index = column.resolve(headers);
+            return row -> index < row.size() && test.test(row, index);
+        });
+    }
+
+    /**
+     * Matches rows whose field at the given index equals {@code value}.
+     *
+     * @param column the zero-based column index
+     * @param value  the value to match
+     * @return a new filter
+     */
+    public static RowFilter equalTo(int column, String value) {
+        return of(ColumnRef.of(column), (row, index) -> row.contentEquals(index, value));
+    }
+
+    /**
+     * Matches rows whose field in the named column equals {@code value}.
+     *
+     * @param column the header name
+     * @param value  the value to match
+     * @return a new filter
+     */
+    public static RowFilter equalTo(String column, String value) {
+        return of(ColumnRef.of(column), (row, index) -> row.contentEquals(index, value));
+    }
+
+    /**
+     * Matches rows whose field at the given index starts with {@code prefix}.
+     *
+     * @param column the zero-based column index
+     * @param prefix the prefix to match
+     * @return a new filter
+     */
+    public static RowFilter startsWith(int column, String prefix) {
+        return of(ColumnRef.of(column), (row, index) -> row.startsWith(index, prefix));
+    }
+
+    /**
+     * Matches rows whose field in the named column starts with {@code prefix}.
+     *
+     * @param column the header name
+     * @param prefix the prefix to match
+     * @return a new filter
+     */
+    public static RowFilter startsWith(String column, String prefix) {
+        return of(ColumnRef.of(column), (row, index) -> row.startsWith(index, prefix));
+    }
+
+    /**
+     * Matches rows whose field at the given index is a number between {@code min} and
+     * {@code max}, inclusive. Empty and non-numeric fields never match.
+     *
+     * @param column the zero-based column index
+     * @param min    the lower bound
+     * @param max    the upper bound
+     * @return a new filter
+     */
+    public static RowFilter between(int column, double min, double max) {
+        return of(ColumnRef.of(column), (row, index) -> isBetween(row, index, min, max));
+    }
+
+    /**
+     * Matches rows whose field in the named column is a number between {@code min} and
+     * {@code max}, inclusive. Empty and non-numeric fields never match.
+     *
+     * @param column the header name
+     * @param min    the lower bound
+     * @param max    the upper bound
+     * @return a new filter
+     */
+    public static RowFilter between(String column, double min, double max) {
+        return of(ColumnRef.of(column), (row, index) -> isBetween(row, index, min, max));
+    }
+
+    private static boolean isBetween(CsvRecord row, int index, double min, double max) {
+        if (row.isEmpty(index)) {
+            return false;
+        }
+        try {
+            double value = row.getDouble(index);
+            return value >= min && value <= max;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a filter that matches rows matched by both this filter and {@code other}.
+     * {@code other} is only evaluated for rows this filter matches.
+     *
+     * @param other the other filter
+     * @return a new filter
+     */
+    public RowFilter and(RowFilter other) {
+        return new RowFilter(headers -> bind(headers).and(other.bind(headers)));
+    }
+
+    /**
+     * Returns a filter that matches rows matched by this filter or by {@code other}.
+     *
+     * @param other the other filter
+     * @return a new filter
+     */
+    public RowFilter or(RowFilter other) {
+        return new RowFilter(headers -> bind(headers).or(other.bind(headers)));
+    }
+
+    /**
+     * Returns a filter that matches the rows this filter rejects.
+     *
+     * @return a new filter
+     */
+    public RowFilter negate() {
+        return new RowFilter(headers -> bind(headers).negate());
+    }
+
+    /**
+     * Resolves column names against the header row and returns the predicate to run per row.
+     *
+     * @throws IllegalStateException if a column is named that the header does not contain
+     */
+    Predicate<CsvRecord> bind(String[] headers) {
+        return binder.apply(headers);
+    }
+}
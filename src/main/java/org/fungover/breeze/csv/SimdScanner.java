@@ -0,0 +1,76 @@
+package org.fungover.breeze.csv;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds CSV structural characters (delimiter, quote and line breaks) a whole vector at a time
+ * using the Vector API, in the style of simdjson and simdcsv.
+ * <p>
+ * Each call compares one vector of characters or bytes against every structural character and
+ * returns the matches as a bitmask, where bit {@code k} stands for position {@code offset + k}.
+ * Callers then jump straight from one set bit to the next instead of testing every character.
+ * Species are capped at 512 bits so that every mask fits in a {@code long}.
+ * </p>
+ */
+final class SimdScanner {
+
+    static final VectorSpecies<Short> CHAR_SPECIES =
+            ShortVector.SPECIES_PREFERRED.length() <= Long.SIZE ? ShortVector.SPECIES_PREFERRED : ShortVector.SPECIES_512;
+    static final VectorSpecies<Byte> BYTE_SPECIES =
+            ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    private SimdScanner() {
+        // utility class
+    }
+
+    /**
+     * Returns a mask of the delimiter, quote, {@code \n} and {@code \r} characters in the
+     * {@code CHAR_SPECIES.length()} characters starting at {@code offset}.
+     */
+    static long structuralMask(char[] chars, int offset, char delimiter, char quoteChar) {
+        ShortVector v = ShortVector.fromCharArray(CHAR_SPECIES, chars, offset);
+        VectorMask<Short> mask = v.eq((short) delimiter)
+                .or(v.eq((short) quoteChar))
+                .or(v.eq((short) '\n'))
+                .or(v.eq((short) '\r'));
+        return mask.toLong();
+    }
+
+    /**
+     * Returns a mask of the delimiter, quote, {@code \n} and {@code \r} bytes in the
+     * {@code BYTE_SPECIES.length()} bytes starting at {@code offset}.
+     */
+    static long structuralMask(byte[] bytes, int offset, byte delimiter, byte quote) {
+        ByteVector v = ByteVector.fromArray(BYTE_SPECIES, bytes, offset);
+        VectorMask<Byte> mask = v.eq(delimiter)
+                .or(v.eq(quote))
+                .or(v.eq((byte) '\n'))
+                .or(v.eq((byte) '\r'));
+        return mask.toLong();
+    }
+
+    /**
+     * Returns a mask of the bytes equal to {@code value} in the {@code BYTE_SPECIES.length()}
+     * bytes starting at {@code offset}.
+     */
+    static long byteMask(byte[] bytes, int offset, byte value) {
+        return ByteVector.fromArray(BYTE_SPECIES, bytes, offset).eq(value).toLong();
+    }
+
+    /**
+     * Returns a mask where bit {@code k} is the parity of the set bits at positions {@code 0..k}.
+     * Applied to a quote mask, this marks every position that lies inside a quoted section.
+     */
+    static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+}
@@ -0,0 +1,78 @@
+package org.fungover.breeze.csv;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash table that assigns a code to each distinct field value. Fields are
+ * hashed and compared in place in the row buffer, so a value that is already in the dictionary is
+ * never copied into a string.
+ */
+final class StringDictionary {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY / 2];
+    private int size;
+
+    StringDictionary() {
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Returns the code of the field at {@code index}, adding it if it is new.
+     */
+    int code(CsvRecord record, int index) {
+        int hash = record.fieldHash(index);
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int code = slots[slot];
+            if (code < 0) {
+                return add(slot, hash, record.get(index));
+            }
+            if (hashes[code] == hash && record.contentEquals(index, values[code])) {
+                return code;
+            }
+        }
+    }
+
+    private int add(int slot, int hash, String value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int code = size++;
+        values[code] = value;
+        hashes[code] = hash;
+        slots[slot] = code;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, -1);
+        int mask = slots.length - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = mix(hashes[code]) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = code;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the distinct values, indexed by code.
+     */
+    String[] values() {
+        return Arrays.copyOf(values, size);
+    }
+}
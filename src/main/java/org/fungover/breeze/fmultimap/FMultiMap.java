@@ -1,5 +1,7 @@
 package org.fungover.breeze.fmultimap;
 
+import org.fungover.breeze.collection.FHashSet;
+
 import java.util.*;
 
 /**
@@ -155,6 +157,139 @@ public class FMultiMap<K, V> {
         return map.size();
     }
 
+    /**
+     * Returns a transient copy of this multimap for a batch of updates.
+     * The key table is copied once; the value sets are shared until they change.
+     * This multimap is not affected.
+     *
+     * @return a new transient holding the mappings of this multimap
+     */
+    public Transient<K, V> toTransient() {
+        return new Transient<>(new HashMap<>(map));
+    }
+
+    /**
+     * A mutable view of an {@code FMultiMap} for updating it in a batch.
+     *
+     * The transient owns its key table and updates it in place, so a batch of updates does not
+     * copy the table once per call as {@link FMultiMap#put} and {@link FMultiMap#remove} do.
+     * {@link #persistent()} hands the table to a new multimap without copying it, after which
+     * the transient cannot be used. A transient is not thread-safe.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    public static final class Transient<K, V> {
+        private Map<K, FSet<V>> map;
+
+        private Transient(Map<K, FSet<V>> map) {
+            this.map = map;
+        }
+
+        /**
+         * Adds the given key-value pair.
+         *
+         * @param key   the key to be added
+         * @param value the value to be added
+         * @return this transient
+         * @throws IllegalArgumentException if either the key or the value is {@code null}
+         * @throws IllegalStateException    if {@link #persistent()} has been called
+         */
+        public Transient<K, V> put(K key, V value) {
+            ensureEditable();
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null");
+            }
+
+            map.put(key, map.getOrDefault(key, FSet.empty()).add(value));
+            return this;
+        }
+
+        /**
+         * Removes the given key-value pair. The key is removed with its last value.
+         *
+         * @param key   the key whose mapping is to be removed
+         * @param value the value to be removed from the set associated with the key
+         * @return this transient
+         * @throws IllegalArgumentException if either the key or the value is {@code null}
+         * @throws IllegalStateException    if {@link #persistent()} has been called
+         */
+        public Transient<K, V> remove(K key, V value) {
+            ensureEditable();
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null");
+            }
+
+            FSet<V> currentSet = map.get(key);
+            if (currentSet != null) {
+                FSet<V> updatedSet = currentSet.remove(value);
+                if (updatedSet.isEmpty()) {
+                    map.remove(key);
+                } else {
+                    map.put(key, updatedSet);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Checks if the transient contains the specified key-value pair.
+         *
+         * @param key   the key to check for
+         * @param value the value associated with the key to check for
+         * @return {@code true} if the key-value pair is present, otherwise {@code false}
+         * @throws IllegalArgumentException if either the key or the value is {@code null}
+         * @throws IllegalStateException    if {@link #persistent()} has been called
+         */
+        public boolean containsEntry(K key, V value) {
+            ensureEditable();
+            if (key == null) {
+                throw new IllegalArgumentException("Key cannot be null");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null");
+            }
+            FSet<V> values = map.get(key);
+            return values != null && values.contains(value);
+        }
+
+        /**
+         * Returns the number of keys.
+         *
+         * @return the number of keys
+         * @throws IllegalStateException if {@link #persistent()} has been called
+         */
+        public int getKeyCount() {
+            ensureEditable();
+            return map.size();
+        }
+
+        /**
+         * Freezes the transient into an immutable multimap. The transient cannot be used afterwards.
+         *
+         * @return an {@code FMultiMap} with the mappings of the transient
+         * @throws IllegalStateException if {@link #persistent()} has already been called
+         */
+        public FMultiMap<K, V> persistent() {
+            ensureEditable();
+            FMultiMap<K, V> result = new FMultiMap<>(map);
+            map = null;
+            return result;
+        }
+
+        private void ensureEditable() {
+            if (map == null) {
+                throw new IllegalStateException("Transient cannot be used after persistent()");
+            }
+        }
+    }
+
     /**
      * Compares this multimap with another object for equality.
      * Two {@code FMultiMap} objects are considered equal if they have the same mappings.
@@ -193,15 +328,21 @@ public class FMultiMap<K, V> {
     }
 }
 
+/**
+ * The immutable set of values stored for one key. It is backed by an {@link FHashSet}, so adding
+ * or removing a value copies only the trie nodes on the path to it instead of the whole set.
+ *
+ * @param <T> the type of values in the set
+ */
 class FSet<T> {
-    private final Set<T> set;
+    private final FHashSet<T> set;
 
     private FSet() {
-        this.set = Collections.emptySet();
+        this.set = FHashSet.empty();
     }
 
-    private FSet(Set<T> set) {
-        this.set = Collections.unmodifiableSet(set);
+    private FSet(FHashSet<T> set) {
+        this.set = set;
     }
 
     public static <T> FSet<T> empty() {
@@ -213,9 +354,8 @@ class FSet<T> {
             throw new IllegalArgumentException("Element cannot be null");
         }
 
-        Set<T> newSet = new HashSet<>(set);
-        newSet.add(element);
-        return new FSet<>(newSet);
+        FHashSet<T> newSet = set.add(element);
+        return newSet == set ? this : new FSet<>(newSet);
     }
 
     public FSet<T> remove(T element) {
@@ -223,13 +363,8 @@ class FSet<T> {
             throw new IllegalArgumentException("Element cannot be null");
         }
 
-        if (!set.contains(element)) {
-            return this;
-        }
-
-        Set<T> newSet = new HashSet<>(set);
-        newSet.remove(element);
-        return new FSet<>(newSet);
+        FHashSet<T> newSet = set.remove(element);
+        return newSet == set ? this : new FSet<>(newSet);
     }
 
     public boolean contains(T element) {
@@ -245,7 +380,7 @@ class FSet<T> {
     }
 
     public Set<T> toSet() {
-        return set;
+        return set.asSet();
     }
 
     @Override
@@ -263,6 +398,6 @@ class FSet<T> {
 
     @Override
     public String toString() {
-        return set.toString();
+        return set.asSet().toString();
     }
 }
@@ -273,4 +273,76 @@ class CircularBufferTest {
         assertThat(it.hasNext()).isFalse();
         assertThatThrownBy(it::next).isInstanceOf(NoSuchElementException.class);
     }
+
+    @Test
+    @DisplayName("Invalid max capacity throws IllegalArgumentException")
+    void invalidMaxCapacityThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new CircularBuffer<String>(8, OverflowStrategy.GROW, true, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max capacity cannot be less than capacity");
+        assertThatThrownBy(() -> new CircularBuffer<String>(8, OverflowStrategy.REJECT, true, 16))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max capacity only applies to GROW overflow strategy");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Grow overflow strategy doubles capacity to next power of two and keeps FIFO order")
+    void growOverflowStrategyDoublesCapacityAndKeepsFifoOrder(boolean threadSafe) {
+        CircularBuffer<Integer> cb = new CircularBuffer<>(3, OverflowStrategy.GROW, threadSafe, 64);
+        cb.addAll(1, 2, 3);
+        cb.remove();
+        cb.add(4); // ring is now wrapped around
+        cb.add(5);
+
+        assertThat(cb.capacity()).isEqualTo(4);
+        assertThat(cb.count()).isEqualTo(4);
+        assertThat(cb.removeBatch(4)).containsExactly(2, 3, 4, 5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Grow overflow strategy throws when max capacity is reached")
+    void growOverflowStrategyThrowsWhenMaxCapacityIsReached(boolean threadSafe) {
+        CircularBuffer<Integer> cb = new CircularBuffer<>(2, OverflowStrategy.GROW, threadSafe, 6);
+        cb.addAll(1, 2, 3, 4, 5, 6);
+
+        assertThat(cb.capacity()).isEqualTo(6);
+        assertThatThrownBy(() -> cb.add(7))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Buffer is full");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Grow overflow strategy shrinks when occupancy drops to a quarter")
+    void growOverflowStrategyShrinksWhenOccupancyDrops(boolean threadSafe) {
+        CircularBuffer<Integer> cb = new CircularBuffer<>(4, OverflowStrategy.GROW, threadSafe, 1024);
+        for (int i = 0; i < 64; i++) {
+            cb.add(i);
+        }
+        assertThat(cb.capacity()).isEqualTo(64);
+
+        cb.removeBatch(47);
+        assertThat(cb.capacity()).isEqualTo(64);
+        cb.remove();
+        assertThat(cb.capacity()).isEqualTo(32);
+        assertThat(cb.peek()).isEqualTo(48);
+
+        cb.removeBatch(16);
+        assertThat(cb.capacity()).isEqualTo(4);
+        assertThat(cb).isEmpty();
+    }
+
+    @Test
+    @DisplayName("clear resets grown buffer to initial capacity")
+    void clearResetsGrownBufferToInitialCapacity() {
+        CircularBuffer<Integer> cb = new CircularBuffer<>(2, OverflowStrategy.GROW, false);
+        cb.addAll(1, 2, 3, 4, 5);
+        cb.clear();
+
+        assertThat(cb.capacity()).isEqualTo(2);
+        assertThat(cb.count()).isZero();
+        assertThat(cb.maxCapacity()).isEqualTo(Integer.MAX_VALUE - 8);
+    }
 }
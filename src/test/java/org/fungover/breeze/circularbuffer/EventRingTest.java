@@ -0,0 +1,176 @@
+package org.fungover.breeze.circularbuffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventRingTest {
+
+    static class LongEvent {
+        long value;
+    }
+
+    @Test
+    @DisplayName("Invalid constructor parameters throws IllegalArgumentException")
+    void invalidConstructorParametersThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new EventRing<>(6, LongEvent::new, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capacity must be a power of two");
+        assertThatThrownBy(() -> new EventRing<LongEvent>(8, null, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Event factory cannot be null");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Slots are pre-allocated and reused after wrapping")
+    void slotsArePreAllocatedAndReusedAfterWrapping(boolean multiProducer) {
+        EventRing<LongEvent> ring = new EventRing<>(4, LongEvent::new, multiProducer);
+        LongEvent first = ring.get(0);
+
+        assertThat(ring.get(4)).isSameAs(first);
+        assertThat(ring.get(1)).isNotSameAs(first);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Processor handles all published events as one batch")
+    void processorHandlesAllPublishedEventsAsOneBatch(boolean multiProducer) {
+        EventRing<LongEvent> ring = new EventRing<>(8, LongEvent::new, multiProducer);
+        List<Long> values = new ArrayList<>();
+        List<Boolean> endOfBatch = new ArrayList<>();
+        EventRing.Processor<LongEvent> processor = ring.addProcessor((event, sequence, end) -> {
+            values.add(event.value);
+            endOfBatch.add(end);
+        });
+
+        ring.publishEvents((event, sequence) -> event.value = sequence * 10, 3);
+
+        assertThat(processor.processAvailable()).isEqualTo(3);
+        assertThat(values).containsExactly(0L, 10L, 20L);
+        assertThat(endOfBatch).containsExactly(false, false, true);
+        assertThat(processor.processAvailable()).isZero();
+        assertThat(processor.getSequence()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Unpublished claims are not visible to processors")
+    void unpublishedClaimsAreNotVisibleToProcessors(boolean multiProducer) {
+        EventRing<LongEvent> ring = new EventRing<>(8, LongEvent::new, multiProducer);
+        EventRing.Processor<LongEvent> processor = ring.addProcessor((event, sequence, end) -> {
+        });
+
+        long sequence = ring.next();
+        assertThat(processor.processAvailable()).isZero();
+
+        ring.publish(sequence);
+        assertThat(processor.processAvailable()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Dependent stage only sees events its dependency has handled")
+    void dependentStageOnlySeesEventsItsDependencyHasHandled(boolean multiProducer) {
+        EventRing<LongEvent> ring = new EventRing<>(8, LongEvent::new, multiProducer);
+        EventRing.Processor<LongEvent> first = ring.addProcessor((event, sequence, end) -> event.value *= 2);
+        List<Long> seen = new ArrayList<>();
+        EventRing.Processor<LongEvent> second = ring.addProcessor((event, sequence, end) -> seen.add(event.value), first);
+
+        ring.publishEvents((event, sequence) -> event.value = sequence + 1, 3);
+
+        assertThat(second.processAvailable()).isZero();
+        first.processAvailable();
+        assertThat(second.processAvailable()).isEqualTo(3);
+        assertThat(seen).containsExactly(2L, 4L, 6L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("tryNext fails when the slowest final stage has not released a slot")
+    void tryNextFailsWhenSlowestFinalStageHasNotReleasedASlot(boolean multiProducer) {
+        EventRing<LongEvent> ring = new EventRing<>(4, LongEvent::new, multiProducer);
+        EventRing.Processor<LongEvent> first = ring.addProcessor((event, sequence, end) -> {
+        });
+        EventRing.Processor<LongEvent> last = ring.addProcessor((event, sequence, end) -> {
+        }, first);
+
+        ring.publishEvents((event, sequence) -> event.value = sequence, 4);
+        assertThat(ring.remainingCapacity()).isZero();
+        assertThat(ring.tryNext(1)).isEqualTo(-1);
+
+        first.processAvailable();
+        assertThat(ring.tryNext(1)).isEqualTo(-1);
+
+        last.processAvailable();
+        assertThat(ring.tryNext(1)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Adding a processor after publishing throws IllegalStateException")
+    void addingProcessorAfterPublishingThrowsIllegalStateException() {
+        EventRing<LongEvent> ring = new EventRing<>(4, LongEvent::new, false);
+        ring.publishEvent((event, sequence) -> event.value = 1);
+
+        assertThatThrownBy(() -> ring.addProcessor((event, sequence, end) -> {
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Processors must be added before publishing");
+    }
+
+    @Test
+    @DisplayName("Claiming more than capacity throws IllegalArgumentException")
+    void claimingMoreThanCapacityThrowsIllegalArgumentException() {
+        EventRing<LongEvent> ring = new EventRing<>(4, LongEvent::new, false);
+
+        assertThatThrownBy(() -> ring.next(5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("n must be between 1 and capacity");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Concurrent producers and stages deliver every event exactly once")
+    void concurrentProducersAndStagesDeliverEveryEventExactlyOnce(boolean multiProducer) throws InterruptedException {
+        int producers = multiProducer ? 3 : 1;
+        int perProducer = 20_000;
+        long total = (long) producers * perProducer;
+        EventRing<LongEvent> ring = new EventRing<>(64, LongEvent::new, multiProducer);
+        long[] sums = new long[2];
+        EventRing.Processor<LongEvent> first = ring.addProcessor((event, sequence, end) -> sums[0] += event.value);
+        EventRing.Processor<LongEvent> second = ring.addProcessor((event, sequence, end) -> sums[1] += event.value, first);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    long value = i;
+                    ring.publishEvent((event, sequence) -> event.value = value);
+                }
+            }));
+        }
+        threads.add(Thread.ofPlatform().start(() -> drain(first, total)));
+        threads.add(Thread.ofPlatform().start(() -> drain(second, total)));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long expected = producers * ((long) perProducer * (perProducer + 1) / 2);
+        assertThat(sums[0]).isEqualTo(expected);
+        assertThat(sums[1]).isEqualTo(expected);
+    }
+
+    private static void drain(EventRing.Processor<LongEvent> processor, long total) {
+        while (processor.getSequence() < total - 1) {
+            if (processor.processAvailable() == 0)
+                Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.fungover.breeze.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionBenchmarkUtilsTest {
+
+    private static final int SIZE = 1024; // smaller set for unit testing
+    private static final int ITERATIONS = 5;
+
+    @Test
+    void testBenchmarkPersistentAdd() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkPersistentAdd(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkCopyOnWriteAdd() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkCopyOnWriteAdd(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkPersistentRemove() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkPersistentRemove(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkCopyOnWriteRemove() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkCopyOnWriteRemove(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkMergeUnion() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkMergeUnion(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkInsertionUnion() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkInsertionUnion(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkBulkBuild() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkBulkBuild(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkRepeatedAdd() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkRepeatedAdd(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkPersistentHashAdd() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkPersistentHashAdd(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkCopyOnWriteHashAdd() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkCopyOnWriteHashAdd(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkTransientHashBuild() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkTransientHashBuild(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkPersistentHashBuild() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkPersistentHashBuild(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkIndexedAppend() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkIndexedAppend(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+
+    @Test
+    void testBenchmarkConsAppend() {
+        long avgTime = CollectionBenchmarkUtils.benchmarkConsAppend(SIZE, ITERATIONS);
+        assertTrue(avgTime > 0, "must be positive");
+    }
+}
@@ -0,0 +1,125 @@
+package org.fungover.breeze.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FHashMapTest {
+
+    @Test
+    @DisplayName("Putting, replacing and removing keys returns new maps")
+    void putReplaceAndRemoveTest() {
+        FHashMap<String, Integer> map = FHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+        FHashMap<String, Integer> replaced = map.put("a", 3);
+
+        assertThat(map.get("a")).contains(1);
+        assertThat(replaced.get("a")).contains(3);
+        assertThat(replaced.size()).isEqualTo(2);
+        assertThat(map.remove("a").containsKey("a")).isFalse();
+        assertThat(map.get("c")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Putting the same value or removing an absent key returns the same map")
+    void noOpUpdatesReturnSameMapTest() {
+        FHashMap<String, Integer> map = FHashMap.<String, Integer>empty().put("a", 1);
+
+        assertThat(map.put("a", 1)).isSameAs(map);
+        assertThat(map.remove("b")).isSameAs(map);
+    }
+
+    @Test
+    @DisplayName("Null keys and values are rejected")
+    void nullKeysAndValuesAreRejectedTest() {
+        FHashMap<String, Integer> map = FHashMap.empty();
+
+        assertThatThrownBy(() -> map.put(null, 1))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Key cannot be null");
+        assertThatThrownBy(() -> map.put("a", null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Value cannot be null");
+        assertThat(map.containsKey(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Random updates match HashMap, including hash code and equality")
+    void randomUpdatesMatchHashMapTest() {
+        Random random = new Random(17);
+        FHashMap<Integer, Integer> map = FHashMap.empty();
+        FHashMap<Integer, Integer> reversed = FHashMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(3_000);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(10);
+                map = map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+        for (int key = 3_000; key >= 0; key--) {
+            if (expected.containsKey(key)) {
+                reversed = reversed.put(key, expected.get(key));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.asMap()).isEqualTo(expected);
+        assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(reversed).isEqualTo(map);
+        assertThat(reversed.put(0, 99)).isNotEqualTo(map);
+    }
+
+    @Test
+    @DisplayName("The map view is read-only")
+    void mapViewIsReadOnlyTest() {
+        Map<String, Integer> view = FHashMap.<String, Integer>empty().put("a", 1).asMap();
+
+        assertThat(view).containsEntry("a", 1).hasSize(1);
+        assertThatThrownBy(() -> view.put("b", 2)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> view.entrySet().iterator().next().setValue(2))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("toString lists the mappings")
+    void toStringTest() {
+        assertThat(FHashMap.<String, Integer>empty().put("a", 1)).hasToString("FHashMap {a=1}");
+    }
+
+    @Test
+    @DisplayName("A transient batch matches HashMap and leaves the original map unchanged")
+    void transientBatchTest() {
+        Random random = new Random(9);
+        FHashMap<Integer, Integer> original = FHashMap.<Integer, Integer>empty().put(1, 1);
+        Map<Integer, Integer> expected = new HashMap<>(original.asMap());
+        FHashMap.Transient<Integer, Integer> batch = original.toTransient();
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                batch.remove(key);
+                expected.remove(key);
+            } else {
+                batch.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertThat(batch.get(1)).isEqualTo(Optional.ofNullable(expected.get(1)));
+        FHashMap<Integer, Integer> result = batch.persistent();
+        assertThat(result.asMap()).isEqualTo(expected);
+        assertThat(result.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(original.asMap()).containsExactly(Map.entry(1, 1));
+        assertThatThrownBy(() -> batch.put(1, 2)).isInstanceOf(IllegalStateException.class);
+    }
+}
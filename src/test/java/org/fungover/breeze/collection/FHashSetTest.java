@@ -0,0 +1,158 @@
+package org.fungover.breeze.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FHashSetTest {
+
+    /**
+     * A key whose hash code is chosen by the test, to force collisions.
+     */
+    private record Key(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Nested
+    class FHashSetUpdateTest {
+
+        @Test
+        @DisplayName("Adding and removing elements returns new sets")
+        void addAndRemoveTest() {
+            FHashSet<String> empty = FHashSet.empty();
+            FHashSet<String> set = empty.add("a").add("b");
+
+            assertThat(empty.isEmpty()).isTrue();
+            assertThat(set.size()).isEqualTo(2);
+            assertThat(set.contains("a")).isTrue();
+            assertThat(set.remove("a").contains("a")).isFalse();
+            assertThat(set.contains("a")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Adding a present or removing an absent element returns the same set")
+        void noOpUpdatesReturnSameSetTest() {
+            FHashSet<String> set = FHashSet.<String>empty().add("a");
+
+            assertThat(set.add("a")).isSameAs(set);
+            assertThat(set.remove("b")).isSameAs(set);
+        }
+
+        @Test
+        @DisplayName("Null elements are rejected")
+        void nullElementsAreRejectedTest() {
+            FHashSet<String> set = FHashSet.empty();
+
+            assertThatThrownBy(() -> set.add(null))
+                    .isInstanceOf(NullPointerException.class)
+                    .hasMessage("Cannot add null element to FHashSet");
+            assertThatThrownBy(() -> set.remove(null)).isInstanceOf(NullPointerException.class);
+            assertThat(set.contains(null)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Elements with colliding hash codes are kept apart")
+        void collidingHashCodesTest() {
+            FHashSet<Key> set = FHashSet.<Key>empty().add(new Key(1, 7)).add(new Key(2, 7)).add(new Key(3, 7));
+
+            assertThat(set.size()).isEqualTo(3);
+            assertThat(set.contains(new Key(2, 7))).isTrue();
+            assertThat(set.remove(new Key(2, 7)).contains(new Key(2, 7))).isFalse();
+            assertThat(set.remove(new Key(2, 7)).remove(new Key(1, 7)).contains(new Key(3, 7))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Random updates match HashSet")
+    void randomUpdatesMatchHashSetTest() {
+        Random random = new Random(9);
+        FHashSet<Object> set = FHashSet.empty();
+        Set<Object> expected = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            Object element = random.nextBoolean() ? random.nextInt(3_000) : new Key(random.nextInt(300), random.nextInt(4));
+            if (random.nextInt(3) == 0) {
+                set = set.remove(element);
+                expected.remove(element);
+            } else {
+                set = set.add(element);
+                expected.add(element);
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(set.asSet()).isEqualTo(expected);
+        assertThat(set.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(set).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Sets built in different orders are equal")
+    void setsBuiltInDifferentOrdersAreEqualTest() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            values.add(i * 31);
+        }
+        FHashSet<Integer> set = FHashSet.of(values);
+        Collections.shuffle(values, new Random(4));
+        FHashSet<Integer> shuffled = FHashSet.of(values);
+
+        assertThat(shuffled).isEqualTo(set).hasSameHashCodeAs(set);
+        assertThat(shuffled.remove(0)).isNotEqualTo(set);
+        assertThat(shuffled.remove(0).add(0)).isEqualTo(set);
+    }
+
+    @Test
+    @DisplayName("The set view is read-only")
+    void setViewIsReadOnlyTest() {
+        Set<Integer> view = FHashSet.of(List.of(1, 2, 3)).asSet();
+
+        assertThat(view).containsExactlyInAnyOrder(1, 2, 3);
+        assertThatThrownBy(() -> view.add(4)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> view.iterator().remove()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("toString lists the elements")
+    void toStringTest() {
+        assertThat(FHashSet.of(List.of(1))).hasToString("FHashSet {1}");
+        assertThat(FHashSet.empty()).hasToString("FHashSet {}");
+    }
+
+    @Test
+    @DisplayName("A transient batch matches persistent updates and leaves the original set unchanged")
+    void transientBatchTest() {
+        Random random = new Random(8);
+        FHashSet<Integer> original = FHashSet.of(List.of(1, 2, 3));
+        FHashSet<Integer> expected = original;
+        FHashSet.Transient<Integer> batch = original.toTransient();
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                batch.remove(value);
+                expected = expected.remove(value);
+            } else {
+                batch.add(value);
+                expected = expected.add(value);
+            }
+        }
+
+        assertThat(batch.size()).isEqualTo(expected.size());
+        FHashSet<Integer> result = batch.persistent();
+        assertThat(result).isEqualTo(expected).hasSameHashCodeAs(expected);
+        assertThat(original.asSet()).containsExactlyInAnyOrder(1, 2, 3);
+        assertThatThrownBy(() -> batch.add(1)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -3,6 +3,10 @@ package org.fungover.breeze.collection;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FListTest {
@@ -120,4 +124,132 @@ class FListTest {
         assertEquals(1, cachedList.reverse().head());
     }
 
+    @Test
+    @DisplayName("Test Transient Batch")
+    void testTransientBatch() {
+        FList<Integer> list = FList.<Integer>empty().prepend(2);
+        FList.Transient<Integer> batch = list.toTransient().append(3).prepend(1).append(4).prepend(0);
+        assertEquals(5, batch.size());
+
+        FList<Integer> result = batch.persistent();
+        assertEquals(5, result.size());
+        assertEquals(0, result.head());
+        assertEquals(1, result.tail().head());
+        assertEquals(2, result.tail().tail().head());
+        assertEquals(4, result.reverse().head());
+        assertEquals(1, list.size());
+        assertThrows(IllegalStateException.class, () -> batch.append(5));
+    }
+
+    @Test
+    @DisplayName("Test Transient Batch On IndexedFList Keeps Indexed Access")
+    void testIndexedFListTransientBatch() {
+        FList.IndexedFList<Integer> list = new FList.IndexedFList<Integer>().append(2).append(3);
+        FList.Transient<Integer> batch = list.toTransient().append(4).prepend(1).prepend(0);
+
+        FList<Integer> result = batch.persistent();
+        assertInstanceOf(FList.IndexedFList.class, result);
+        FList.IndexedFList<Integer> indexed = (FList.IndexedFList<Integer>) result;
+        assertEquals(5, indexed.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, indexed.get(i));
+        }
+        assertEquals(9, indexed.update(2, 9).get(2));
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    @DisplayName("Test Map And Filter On Long List")
+    void testMapAndFilterOnLongList() {
+        FList<Integer> list = FList.empty();
+        for (int i = 0; i < 200_000; i++) {
+            list = list.prepend(i);
+        }
+
+        FList<Integer> result = list.map(x -> x + 1).filter(x -> x % 2 == 0);
+
+        assertEquals(100_000, result.size());
+        assertEquals(200_000, result.head());
+        assertEquals(199_998, result.tail().head());
+    }
+
+    @Test
+    @DisplayName("Test Indexed FList Matches ArrayList")
+    void testIndexedFListMatchesArrayList() {
+        Random random = new Random(17);
+        FList.IndexedFList<Integer> list = new FList.IndexedFList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int operation = random.nextInt(6);
+            if (operation < 2) {
+                list = list.append(i);
+                expected.add(i);
+            } else if (operation == 2) {
+                list = list.prepend(i);
+                expected.add(0, i);
+            } else if (operation == 3 && !expected.isEmpty()) {
+                list = list.tail();
+                expected.remove(0);
+            } else if (operation == 4 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                list = list.update(index, -i);
+                expected.set(index, -i);
+            } else if (operation == 5 && expected.size() > 10) {
+                int from = random.nextInt(expected.size() / 2);
+                int to = from + random.nextInt(expected.size() - from + 1);
+                list = list.slice(from, to).concat(list.slice(0, from));
+                List<Integer> rotated = new ArrayList<>(expected.subList(from, to));
+                rotated.addAll(expected.subList(0, from));
+                expected = rotated;
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        List<Integer> iterated = new ArrayList<>();
+        list.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    @DisplayName("Test Indexed FList Operations")
+    void testIndexedFListOperations() {
+        FList.IndexedFList<Integer> list = new FList.IndexedFList<>(FList.<Integer>empty().prepend(2).prepend(1));
+        FList.IndexedFList<Integer> longer = list.append(3).append(4);
+
+        assertEquals(2, list.size());
+        assertEquals(4, longer.size());
+        assertEquals(1, longer.head());
+        assertEquals(2, longer.tail().head());
+        assertEquals(4, longer.reverse().head());
+        assertEquals(3, longer.get(2));
+        assertEquals(30, longer.update(2, 30).get(2));
+        assertEquals(3, longer.get(2));
+        assertEquals(6, longer.map(x -> x * 2).get(2));
+        assertEquals(2, longer.filter(x -> x % 2 == 0).head());
+        assertEquals(3, longer.slice(1, 3).tail().head());
+        assertTrue(longer.slice(2, 2).isEmpty());
+        assertEquals(6, longer.concat(list).size());
+        assertEquals(1, longer.concat(list).get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> longer.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> longer.slice(3, 2));
+        assertThrows(UnsupportedOperationException.class, () -> new FList.IndexedFList<Integer>().head());
+    }
+
+    @Test
+    @DisplayName("Test Indexed FList Handles Many Appends")
+    void testIndexedFListHandlesManyAppends() {
+        FList.IndexedFList<Integer> list = new FList.IndexedFList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            list = list.append(i);
+        }
+
+        assertEquals(1_000_000, list.size());
+        assertEquals(0, list.head());
+        assertEquals(654_321, list.get(654_321));
+        assertEquals(500_000, list.filter(x -> x % 2 == 0).size());
+        assertEquals(999_999, list.reverse().head());
+    }
 }
@@ -87,4 +87,21 @@ class FPriorityQueueTest {
         queue = queue.dequeue();
         assertEquals("C", queue.peek(), "Highest priority element should be 'C'");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTransientBatchKeepsPriorityOrder() {
+        FPriorityQueue<String> queue = new FPriorityQueue<String>().enqueue("B", 2);
+        FPriorityQueue.Transient<String> batch = queue.toTransient()
+                .enqueue("D", 4)
+                .enqueue("A", 1)
+                .enqueue("C", 3)
+                .dequeue();
+
+        assertEquals("B", batch.peek(), "The transient should dequeue the highest priority element in place");
+        FPriorityQueue<String> result = batch.persistent();
+        assertEquals(3, result.size());
+        assertEquals("C", result.dequeue().peek(), "The frozen queue should keep the heap order");
+        assertEquals(1, queue.size(), "The original queue should not be modified");
+        assertThrows(IllegalStateException.class, () -> batch.enqueue("E", 5));
+    }
+}
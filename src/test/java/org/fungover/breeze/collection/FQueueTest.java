@@ -86,4 +86,22 @@ class FQueueTest {
 
         assertThat(queue.toList()).containsExactly(10,20,30);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTransientBatchKeepsFifoOrder() {
+        FQueue<Integer> queue = FQueue.<Integer>empty().enqueue(1).enqueue(2);
+        FQueue.Transient<Integer> batch = queue.toTransient();
+        for (int i = 3; i <= 5; i++) {
+            batch.enqueue(i);
+        }
+        batch.dequeue();
+
+        assertEquals(Optional.of(2), batch.peek());
+        assertEquals(4, batch.size());
+        FQueue<Integer> result = batch.persistent();
+        assertThat(result.toList()).containsExactly(2, 3, 4, 5);
+        assertThat(result.enqueue(6).dequeue().toList()).containsExactly(3, 4, 5, 6);
+        assertThat(queue.toList()).containsExactly(1, 2);
+        assertThrows(IllegalStateException.class, () -> batch.enqueue(6));
+    }
+}
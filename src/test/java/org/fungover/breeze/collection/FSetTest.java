@@ -4,6 +4,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+
 import static org.assertj.core.api.Assertions.*;
 
 class FSetTest {
@@ -190,6 +197,24 @@ class FSetTest {
             
         }
 
+        @Test
+        @DisplayName("FSets of the same size are equal only if every element matches, whatever the tree shape")
+        void fSetEqualsComparesElementsInOrderTest() {
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                values.add(i);
+            }
+            FSet<Integer> built = FSet.fromSorted(values);
+            FSet<Integer> added = new FSet<>();
+            for (int i = 999; i >= 0; i--) {
+                added = added.add(i);
+            }
+
+            assertThat(built.equals(added)).isTrue();
+            assertThat(built.equals(added.remove(0).add(1_000))).isFalse();
+            assertThat(built.equals(added.remove(999).add(-1))).isFalse();
+        }
+
         @Test
         @DisplayName("FSet with different data type isFalse")
         void fSetWithDifferentDataTypeIsFalse() {
@@ -288,4 +313,273 @@ class FSetTest {
         assertThat(fSet.toString()).matches("FSet \\{\\d+, \\d+, \\d+}");
 
     }
+
+    @Test
+    @DisplayName("FSet toString lists elements in ascending order")
+    void fSetToStringListsElementsInOrderTest() {
+        FSet<Integer> fSet = new FSet<Integer>().add(3).add(1).add(2);
+        assertThat(fSet).hasToString("FSet {1, 2, 3}");
+    }
+
+    @Test
+    @DisplayName("Adding a present or removing an absent element returns the same FSet")
+    void noOpUpdatesReturnSameFSetTest() {
+        FSet<Integer> fSet = new FSet<Integer>().add(1);
+        assertThat(fSet.add(1)).isSameAs(fSet);
+        assertThat(fSet.remove(2)).isSameAs(fSet);
+    }
+
+    @Test
+    @DisplayName("FSets built in different orders are equal")
+    void fSetsBuiltInDifferentOrdersAreEqualTest() {
+        FSet<String> fSet = new FSet<String>().add("a").add("b").add("c");
+        FSet<String> fSet2 = new FSet<String>().add("c").add("a").add("b");
+        assertThat(fSet).isEqualTo(fSet2).hasSameHashCodeAs(fSet2);
+        assertThat(fSet.remove("c")).isNotEqualTo(fSet2);
+    }
+
+    @Test
+    @DisplayName("Large FSet supports adding and removing every element")
+    void largeFSetAddAndRemoveTest() {
+        FSet<Integer> fSet = new FSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            fSet = fSet.add((i * 7919) % 100_000);
+        }
+        FSet<Integer> full = fSet;
+        for (int i = 0; i < 100_000; i += 2) {
+            fSet = fSet.remove(i);
+        }
+        assertThat(full.size()).isEqualTo(100_000);
+        assertThat(fSet.size()).isEqualTo(50_000);
+        assertThat(fSet.contains(1)).isTrue();
+        assertThat(fSet.contains(2)).isFalse();
+    }
+
+    @Nested
+    class FSetBulkConstructionTest {
+
+        @Test
+        @DisplayName("FSet.of sorts and deduplicates a collection")
+        void ofSortsAndDeduplicatesTest() {
+            FSet<Integer> fSet = FSet.of(List.of(5, 1, 3, 1, 5, 2));
+            assertThat(fSet).hasToString("FSet {1, 2, 3, 5}");
+            assertThat(fSet).isEqualTo(new FSet<Integer>().add(2).add(3).add(5).add(1));
+        }
+
+        @Test
+        @DisplayName("FSet.of an empty collection is empty")
+        void ofEmptyCollectionTest() {
+            assertThat(FSet.<Integer>of(List.of()).isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("FSet.of rejects null elements")
+        void ofRejectsNullTest() {
+            List<Integer> values = Arrays.asList(1, null, 3);
+            assertThatThrownBy(() -> FSet.of(values))
+                    .isInstanceOf(NullPointerException.class)
+                    .hasMessage("Cannot add null element to FSet");
+        }
+
+        @Test
+        @DisplayName("FSet.fromSorted builds a set from ascending elements")
+        void fromSortedTest() {
+            FSet<String> fSet = FSet.fromSorted(List.of("a", "b", "c"));
+            assertThat(fSet).hasToString("FSet {a, b, c}");
+            assertThat(fSet.add("d").contains("d")).isTrue();
+        }
+
+        @Test
+        @DisplayName("FSet.fromSorted rejects unordered or duplicate elements")
+        void fromSortedRejectsUnorderedTest() {
+            assertThatThrownBy(() -> FSet.fromSorted(List.of(1, 3, 2)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Elements must be in strictly ascending order");
+            assertThatThrownBy(() -> FSet.fromSorted(List.of(1, 1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Builder collects elements and builds a deduplicated FSet")
+        void builderTest() {
+            FSet.Builder<Integer> builder = FSet.<Integer>builder().add(3).addAll(List.of(1, 2, 3));
+            FSet<Integer> first = builder.build();
+            FSet<Integer> second = builder.add(0).build();
+
+            assertThat(first).hasToString("FSet {1, 2, 3}");
+            assertThat(second).hasToString("FSet {0, 1, 2, 3}");
+        }
+
+        @Test
+        @DisplayName("Large bulk built FSet matches one built by adding")
+        void largeBulkBuildTest() {
+            List<Integer> values = new ArrayList<>();
+            FSet<Integer> added = new FSet<>();
+            for (int i = 0; i < 200_000; i++) {
+                int value = (i * 7919) % 150_000;
+                values.add(value);
+                added = added.add(value);
+            }
+
+            FSet<Integer> built = FSet.of(values);
+
+            assertThat(built.size()).isEqualTo(150_000);
+            assertThat(built).isEqualTo(added);
+            assertThat(built.remove(0).contains(0)).isFalse();
+        }
+    }
+
+    @Nested
+    class FSetNavigationTest {
+        FSet<Integer> fSet = FSet.of(List.of(10, 20, 30, 40));
+
+        @Test
+        @DisplayName("First and last return the smallest and largest elements")
+        void firstAndLastTest() {
+            assertThat(fSet.first()).contains(10);
+            assertThat(fSet.last()).contains(40);
+            assertThat(new FSet<Integer>().first()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Floor, ceiling, lower and higher find the nearest elements")
+        void floorCeilingLowerHigherTest() {
+            assertThat(fSet.floor(25)).contains(20);
+            assertThat(fSet.floor(20)).contains(20);
+            assertThat(fSet.floor(5)).isEmpty();
+            assertThat(fSet.ceiling(25)).contains(30);
+            assertThat(fSet.ceiling(45)).isEmpty();
+            assertThat(fSet.lower(20)).contains(10);
+            assertThat(fSet.higher(20)).contains(30);
+            assertThat(fSet.higher(40)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Rank and select convert between elements and indexes")
+        void rankAndSelectTest() {
+            assertThat(fSet.rank(30)).isEqualTo(2);
+            assertThat(fSet.rank(35)).isEqualTo(3);
+            assertThat(fSet.select(0)).isEqualTo(10);
+            assertThat(fSet.select(3)).isEqualTo(40);
+            assertThatThrownBy(() -> fSet.select(4)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("Range iterates the half-open interval lazily")
+        void rangeTest() {
+            List<Integer> values = new ArrayList<>();
+            fSet.range(15, 40).forEachRemaining(values::add);
+            assertThat(values).containsExactly(20, 30);
+            assertThat(fSet.range(20, 20).hasNext()).isFalse();
+            assertThatThrownBy(() -> fSet.range(30, 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("From cannot be greater than to");
+        }
+
+        @Test
+        @DisplayName("Navigation rejects null elements")
+        void navigationRejectsNullTest() {
+            assertThatThrownBy(() -> fSet.floor(null)).isInstanceOf(NullPointerException.class);
+            assertThatThrownBy(() -> fSet.range(null, 20)).isInstanceOf(NullPointerException.class);
+        }
+    }
+
+    @Nested
+    class FSetIterationTest {
+
+        @Test
+        @DisplayName("FSet iterates its elements in ascending order")
+        void iteratesInAscendingOrderTest() {
+            FSet<Integer> fSet = FSet.of(List.of(3, 1, 2));
+            List<Integer> values = new ArrayList<>();
+            for (Integer value : fSet) {
+                values.add(value);
+            }
+            assertThat(values).containsExactly(1, 2, 3);
+            assertThat(new FSet<Integer>().iterator().hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("FSet spliterator reports sized, sorted and distinct characteristics")
+        void spliteratorCharacteristicsTest() {
+            Spliterator<Integer> spliterator = FSet.of(List.of(1, 2, 3, 4)).spliterator();
+            assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+            assertThat(spliterator.hasCharacteristics(Spliterator.SORTED | Spliterator.DISTINCT)).isTrue();
+            assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(4);
+            assertThat(spliterator.getComparator()).isNull();
+            assertThat(spliterator.trySplit().estimateSize()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("FSet streams sequentially and in parallel")
+        void streamTest() {
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < 100_000; i++) {
+                values.add(i);
+            }
+            FSet<Integer> fSet = FSet.fromSorted(values);
+
+            assertThat(fSet.stream().limit(3).toList()).containsExactly(0, 1, 2);
+            assertThat(fSet.parallelStream().mapToLong(Integer::longValue).sum()).isEqualTo(4_999_950_000L);
+            assertThat(fSet.parallelStream().toList()).containsExactlyElementsOf(values);
+        }
+    }
+
+    @Nested
+    class FSetTransientTest {
+
+        @Test
+        @DisplayName("A transient applies a batch of updates without changing the original set")
+        void transientBatchTest() {
+            FSet<Integer> original = FSet.of(List.of(1, 2, 3));
+            FSet.Transient<Integer> batch = original.toTransient();
+            for (int i = 10; i > 3; i--) {
+                batch.add(i).add(i);
+            }
+            batch.remove(2);
+
+            assertThat(batch.contains(10)).isTrue();
+            assertThat(batch.size()).isEqualTo(9);
+            FSet<Integer> result = batch.add(0).persistent();
+            assertThat(result.stream().toList()).containsExactly(0, 1, 3, 4, 5, 6, 7, 8, 9, 10);
+            assertThat(original.stream().toList()).containsExactly(1, 2, 3);
+        }
+
+        @Test
+        @DisplayName("A transient interleaving queries and updates matches a TreeSet and leaves earlier sets intact")
+        void transientInterleavedTest() {
+            Random random = new Random(48);
+            TreeSet<Integer> expected = new TreeSet<>();
+            FSet<Integer> start = FSet.of(List.of(5, 50, 500));
+            expected.addAll(List.of(5, 50, 500));
+            FSet.Transient<Integer> batch = start.toTransient();
+            for (int i = 0; i < 20_000; i++) {
+                int value = random.nextInt(2_000);
+                if (random.nextInt(3) == 0) {
+                    batch.remove(value);
+                    expected.remove(value);
+                } else if (!batch.contains(value)) {
+                    batch.add(value);
+                    expected.add(value);
+                }
+                assertThat(batch.size()).isEqualTo(expected.size());
+            }
+            FSet<Integer> result = batch.persistent();
+            FSet<Integer> next = result.toTransient().add(-1).remove(expected.first()).persistent();
+
+            assertThat(result.stream().toList()).containsExactlyElementsOf(expected);
+            assertThat(next.size()).isEqualTo(expected.size());
+            assertThat(start.stream().toList()).containsExactly(5, 50, 500);
+        }
+
+        @Test
+        @DisplayName("A transient cannot be used after persistent() and rejects null")
+        void transientFrozenTest() {
+            FSet.Transient<Integer> batch = new FSet<Integer>().toTransient();
+            assertThatThrownBy(() -> batch.add(null)).isInstanceOf(NullPointerException.class);
+            batch.persistent();
+            assertThatThrownBy(() -> batch.add(1)).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(batch::persistent).isInstanceOf(IllegalStateException.class);
+        }
+    }
 }
@@ -1,6 +1,13 @@
 package org.fungover.breeze.collection;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FTreeTest {
@@ -95,14 +102,123 @@ class FTreeTest {
 
         FTree<Integer> mappedTree = tree.mapAndRebuild(i -> i);
 
-        assertEquals(5, mappedTree.value());
-        assertInstanceOf(EmptyTree.class, mappedTree.left());
+        // The mapped values are sorted and built into a balanced tree around the middle value.
+        assertEquals(10, mappedTree.value());
 
-        assertEquals(10, mappedTree.right().value());
+        assertEquals(5, mappedTree.left().value());
+        assertInstanceOf(EmptyTree.class, mappedTree.left().left());
+        assertInstanceOf(EmptyTree.class, mappedTree.left().right());
+
+        assertEquals(20, mappedTree.right().value());
         assertInstanceOf(EmptyTree.class, mappedTree.right().left());
+        assertInstanceOf(EmptyTree.class, mappedTree.right().right());
+    }
+
+    @Test
+    void testSortedInsertsStayBalanced() {
+        FTree<Integer> tree = FTree.empty();
+        for (int i = 0; i < 1_000_000; i++) {
+            tree = tree.insert(i);
+        }
+
+        assertEquals(1_000_000, tree.size());
+        assertTrue(tree.contains(0));
+        assertTrue(tree.contains(999_999));
+        assertFalse(tree.contains(1_000_000));
+        assertTrue(((NonEmptyTree<Integer>) tree).height() <= 21);
+    }
+
+    @Test
+    void testInOrderTraversalVisitsValuesInOrder() {
+        FTree<Integer> tree = FTree.empty();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(500);
+            tree = tree.insert(value);
+            expected.add(value);
+        }
+        Collections.sort(expected);
+
+        List<Integer> values = new ArrayList<>();
+        FTree.inOrderTraversal(tree, Function.identity(), values);
+
+        assertEquals(expected, values);
+        for (int value = 0; value < 500; value++) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+    }
+
+    @Test
+    void testGetAndRankUseSubtreeSizes() {
+        FTree<Integer> tree = FTree.empty();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(12);
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(1_000) * 2;
+            tree = tree.insert(value);
+            expected.add(value);
+        }
+        Collections.sort(expected);
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+        for (int i = 0; i < expected.size(); i += 50) {
+            int value = expected.get(i);
+            assertEquals(expected.indexOf(value), tree.rank(value));
+            assertEquals(expected.lastIndexOf(value) + 1, tree.rank(value + 1));
+        }
+        FTree<Integer> filled = tree;
+        assertThrows(IndexOutOfBoundsException.class, () -> filled.get(expected.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> FTree.<Integer>empty().get(0));
+    }
+
+    @Test
+    void testEqualityAndHashCodeUseCachedStructure() {
+        FTree<Integer> tree = FTree.empty();
+        FTree<Integer> same = FTree.empty();
+        for (int i = 0; i < 1_000; i++) {
+            tree = tree.insert(i);
+            same = same.insert(i);
+        }
+
+        assertNotSame(tree, same);
+        assertEquals(tree, same);
+        assertEquals(tree.hashCode(), same.hashCode());
+        assertNotEquals(tree, same.insert(1_000));
+        assertNotEquals(tree, tree.map(x -> x + 1));
+        assertEquals(0, FTree.<Integer>empty().hashCode());
+    }
+
+    @Test
+    void testNodeRejectsInconsistentCachedValues() {
+        FTree<Integer> leaf = FTree.<Integer>empty().insert(1);
+        NonEmptyTree<Integer> node = new NonEmptyTree<>(2, leaf, FTree.empty());
+
+        assertEquals(node, new NonEmptyTree<>(2, leaf, FTree.empty(), node.height(), node.size(), node.hash()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NonEmptyTree<>(2, leaf, FTree.empty(), node.height() + 1, node.size(), node.hash()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NonEmptyTree<>(2, leaf, FTree.empty(), node.height(), node.size() + 1, node.hash()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NonEmptyTree<>(2, leaf, FTree.empty(), node.height(), node.size(), node.hash() + 1));
+    }
+
+    @Test
+    void testMapAndRebuildReturnsBalancedTree() {
+        FTree<Integer> tree = FTree.empty();
+        for (int i = 0; i < 1_023; i++) {
+            tree = tree.insert(i);
+        }
+
+        FTree<Integer> mappedTree = tree.mapAndRebuild(i -> -i);
 
-        assertEquals(20, mappedTree.right().right().value());
-        assertInstanceOf(EmptyTree.class, mappedTree.right().right().left());
-        assertInstanceOf(EmptyTree.class, mappedTree.right().right().right());
+        assertEquals(1_023, mappedTree.size());
+        assertEquals(10, ((NonEmptyTree<Integer>) mappedTree).height());
+        assertEquals(-1_022, mappedTree.get(0));
+        assertEquals(-511, mappedTree.value());
+        assertTrue(mappedTree.contains(-1_022));
     }
 }
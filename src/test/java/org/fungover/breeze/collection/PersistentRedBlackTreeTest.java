@@ -0,0 +1,286 @@
+package org.fungover.breeze.collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentRedBlackTreeTest {
+
+    private static List<Integer> values(PersistentRedBlackTree<Integer> tree) {
+        List<Integer> values = new ArrayList<>();
+        tree.forEach(values::add);
+        return values;
+    }
+
+    /**
+     * Checks ordering, that no red node has a red child and that every path has the same number
+     * of black nodes, and returns that number.
+     */
+    private static int blackHeight(PersistentRedBlackTree.TreeNode<Integer> node, Integer low, Integer high) {
+        if (node == null) {
+            return 1;
+        }
+        assertThat(low == null || node.value > low).isTrue();
+        assertThat(high == null || node.value < high).isTrue();
+        if (node.isRed()) {
+            assertThat(node.left == null || node.left.isBlack()).isTrue();
+            assertThat(node.right == null || node.right.isBlack()).isTrue();
+        }
+        int left = blackHeight(node.left, low, node.value);
+        int right = blackHeight(node.right, node.value, high);
+        assertThat(left).isEqualTo(right);
+        return left + (node.isBlack() ? 1 : 0);
+    }
+
+    @Test
+    @DisplayName("Random inserts and removes keep the Red-Black properties and match TreeSet")
+    void randomUpdates_keepInvariants() {
+        Random random = new Random(7);
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                tree = tree.remove(value);
+                expected.remove(value);
+            } else {
+                tree = tree.insert(value);
+                expected.add(value);
+            }
+            assertThat(tree.root() == null || tree.root().isBlack()).isTrue();
+            blackHeight(tree.root(), null, null);
+        }
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(values(tree)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Owned updates edit nodes in place, keep the Red-Black properties and leave the unowned tree intact")
+    void ownedUpdates_editInPlaceAndKeepInvariants() {
+        Random random = new Random(48);
+        Object[] sorted = new Object[200];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i * 5;
+        }
+        PersistentRedBlackTree<Integer> original = PersistentRedBlackTree.fromSorted(sorted, sorted.length);
+        List<Integer> originalValues = values(original);
+        TreeSet<Integer> expected = new TreeSet<>(originalValues);
+        Object owner = new Object();
+        PersistentRedBlackTree<Integer> tree = original;
+
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) {
+                tree = tree.remove(owner, value);
+                expected.remove(value);
+            } else {
+                tree = tree.insert(owner, value);
+                expected.add(value);
+            }
+            assertThat(tree.root() == null || tree.root().isBlack()).isTrue();
+            blackHeight(tree.root(), null, null);
+            assertThat(tree.root() == null ? 0 : tree.root().size).isEqualTo(expected.size());
+        }
+        PersistentRedBlackTree.TreeNode<Integer> root = tree.root();
+        PersistentRedBlackTree<Integer> updated = tree.insert(owner, 1_001);
+
+        assertThat(updated.root()).isSameAs(root);
+        assertThat(values(updated.remove(owner, 1_001))).containsExactlyElementsOf(expected);
+        assertThat(values(original)).containsExactlyElementsOf(originalValues);
+    }
+
+    @Test
+    @DisplayName("Earlier versions are unchanged by later updates")
+    void earlierVersions_areUnchanged() {
+        PersistentRedBlackTree<Integer> first = PersistentRedBlackTree.<Integer>empty().insert(2).insert(1).insert(3);
+
+        PersistentRedBlackTree<Integer> second = first.insert(4).remove(1);
+
+        assertThat(values(first)).containsExactly(1, 2, 3);
+        assertThat(values(second)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("An insert shares every subtree off the path to the new element")
+    void insert_sharesUntouchedSubtrees() {
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.empty();
+        for (int i = 0; i < 1_000; i++) {
+            tree = tree.insert(i * 2);
+        }
+
+        PersistentRedBlackTree<Integer> updated = tree.insert(1_999);
+
+        assertThat(updated.root().left).isSameAs(tree.root().left);
+    }
+
+    @Test
+    @DisplayName("Inserting a present element or removing an absent one returns the same tree")
+    void noOpUpdates_returnSameTree() {
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.<Integer>empty().insert(1);
+
+        assertThat(tree.insert(1)).isSameAs(tree);
+        assertThat(tree.remove(2)).isSameAs(tree);
+    }
+
+    @Test
+    @DisplayName("Trees built from sorted values of every size keep the Red-Black properties")
+    void fromSorted_keepsInvariants() {
+        for (int length = 0; length <= 300; length++) {
+            Object[] sorted = new Object[length];
+            for (int i = 0; i < length; i++) {
+                sorted[i] = i;
+            }
+
+            PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.fromSorted(sorted, length);
+
+            assertThat(tree.size()).isEqualTo(length);
+            assertThat(tree.root() == null || tree.root().isBlack()).isTrue();
+            blackHeight(tree.root(), null, null);
+            blackHeight(tree.insert(-1).remove(length / 2).root(), null, null);
+        }
+    }
+
+    @Test
+    @DisplayName("Merged set operations match TreeSet and keep the Red-Black properties")
+    void mergedSetOperations_matchTreeSet() {
+        Random random = new Random(13);
+        for (int round = 0; round < 500; round++) {
+            PersistentRedBlackTree<Integer> left = PersistentRedBlackTree.empty();
+            PersistentRedBlackTree<Integer> right = PersistentRedBlackTree.empty();
+            TreeSet<Integer> expectedLeft = new TreeSet<>();
+            TreeSet<Integer> expectedRight = new TreeSet<>();
+            for (int i = random.nextInt(50); i > 0; i--) {
+                int value = random.nextInt(80);
+                left = left.insert(value);
+                expectedLeft.add(value);
+            }
+            for (int i = random.nextInt(50); i > 0; i--) {
+                int value = random.nextInt(80);
+                right = right.insert(value);
+                expectedRight.add(value);
+            }
+            TreeSet<Integer> union = new TreeSet<>(expectedLeft);
+            union.addAll(expectedRight);
+            TreeSet<Integer> intersection = new TreeSet<>(expectedLeft);
+            intersection.retainAll(expectedRight);
+            TreeSet<Integer> difference = new TreeSet<>(expectedLeft);
+            difference.removeAll(expectedRight);
+            TreeSet<Integer> symmetricDifference = new TreeSet<>(union);
+            symmetricDifference.removeAll(intersection);
+
+            assertThat(values(left.union(right))).containsExactlyElementsOf(union);
+            assertThat(values(left.intersection(right))).containsExactlyElementsOf(intersection);
+            assertThat(values(left.difference(right))).containsExactlyElementsOf(difference);
+            assertThat(values(left.symmetricDifference(right))).containsExactlyElementsOf(symmetricDifference);
+            blackHeight(left.union(right).root(), null, null);
+            blackHeight(left.symmetricDifference(right).root(), null, null);
+        }
+    }
+
+    @Test
+    @DisplayName("Trees built from unsorted values with duplicates hold each value once in order")
+    void fromUnsorted_sortsAndDeduplicates() {
+        Random random = new Random(21);
+        Object[] values = new Object[20_000];
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < values.length; i++) {
+            int value = random.nextInt(5_000);
+            values[i] = value;
+            expected.add(value);
+        }
+
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.fromUnsorted(values, values.length);
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(values(tree)).containsExactlyElementsOf(expected);
+        blackHeight(tree.root(), null, null);
+    }
+
+    @Test
+    @DisplayName("Navigation, rank, select and range iteration match TreeSet after random updates")
+    void navigation_matchesTreeSet() {
+        Random random = new Random(3);
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(400);
+            if (random.nextInt(3) == 0) {
+                tree = tree.remove(value);
+                expected.remove(value);
+            } else {
+                tree = tree.insert(value);
+                expected.add(value);
+            }
+            int query = random.nextInt(420) - 10;
+
+            assertThat(tree.floor(query)).isEqualTo(expected.floor(query));
+            assertThat(tree.ceiling(query)).isEqualTo(expected.ceiling(query));
+            assertThat(tree.lower(query)).isEqualTo(expected.lower(query));
+            assertThat(tree.higher(query)).isEqualTo(expected.higher(query));
+            assertThat(tree.rank(query)).isEqualTo(expected.headSet(query).size());
+            if (tree.root() != null) {
+                assertThat(tree.root().size).isEqualTo(expected.size());
+                assertThat(tree.select(tree.rank(expected.first()))).isEqualTo(expected.first());
+                assertThat(tree.select(tree.size() - 1)).isEqualTo(expected.last());
+            }
+        }
+
+        List<Integer> range = new ArrayList<>();
+        tree.iterator(100, 200).forEachRemaining(range::add);
+        assertThat(range).containsExactlyElementsOf(expected.subSet(100, 200));
+        assertThat(tree.first()).isEqualTo(expected.first());
+        assertThat(tree.last()).isEqualTo(expected.last());
+    }
+
+    @Test
+    @DisplayName("Select returns every element of a built tree by index")
+    void select_returnsElementAtIndex() {
+        Object[] sorted = new Object[1_000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i * 2;
+        }
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.fromSorted(sorted, sorted.length);
+
+        for (int i = 0; i < sorted.length; i++) {
+            assertThat(tree.select(i)).isEqualTo(i * 2);
+            assertThat(tree.rank(i * 2)).isEqualTo(i);
+            assertThat(tree.rank(i * 2 + 1)).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Iterators positioned by index and split spliterators cover the tree in order")
+    void iteratorAtAndSpliterator_coverTreeInOrder() {
+        Random random = new Random(5);
+        PersistentRedBlackTree<Integer> tree = PersistentRedBlackTree.empty();
+        for (int i = 0; i < 2_000; i++) {
+            tree = tree.insert(random.nextInt(10_000));
+        }
+        List<Integer> all = values(tree);
+
+        for (int index = 0; index <= all.size(); index += 37) {
+            List<Integer> rest = new ArrayList<>();
+            tree.iteratorAt(index).forEachRemaining(rest::add);
+            assertThat(rest).containsExactlyElementsOf(all.subList(index, all.size()));
+        }
+
+        Spliterator<Integer> suffix = tree.spliterator();
+        List<Integer> visited = new ArrayList<>();
+        suffix.tryAdvance(visited::add);
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertThat(prefix.estimateSize() + suffix.estimateSize() + 1).isEqualTo(all.size());
+        prefix.forEachRemaining(visited::add);
+        suffix.forEachRemaining(visited::add);
+        assertThat(visited).containsExactlyElementsOf(all);
+    }
+}
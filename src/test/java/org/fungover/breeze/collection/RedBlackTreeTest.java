@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -397,12 +401,42 @@ class RedBlackTreeTest {
 
     }
 
+    @Test
+    @DisplayName("Zig-zag insertions keep the tree ordered and complete")
+    void zigZagInsertionsKeepTreeOrderedTest() {
+        Random random = new Random(11);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(20000);
+            tree.insert(value);
+            expected.add(value);
+        }
 
+        List<Integer> actual = new ArrayList<>();
+        tree.forEach(actual::add);
 
+        assertThat(tree.getSize()).isEqualTo(expected.size());
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
 
+    @Test
+    @DisplayName("Traversals of a large tree visit every value")
+    void largeTreeTraversalsVisitEveryValueTest() {
+        for (int i = 0; i < 200_000; i++) {
+            tree.insert(i);
+        }
 
-
-
-
-
+        RedBlackTree<Integer> copy = new RedBlackTree<>();
+        copy.insertFromAnotherTree(tree);
+        RedBlackTree<Integer> skipped = new RedBlackTree<>();
+        skipped.removalBySkip(tree, 100);
+        List<Integer> actual = new ArrayList<>();
+        copy.forEach(actual::add);
+
+        assertThat(copy.getSize()).isEqualTo(200_000);
+        assertThat(actual).hasSize(200_000).isSorted();
+        assertThat(skipped.getSize()).isEqualTo(199_999);
+        assertThat(skipped.isNodeWithValueFound(100)).isFalse();
+        assertThat(tree.stringSetBuilder().split(", ")).hasSize(200_000);
+    }
 }
@@ -0,0 +1,110 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ByteCsvTokenizerTest {
+
+    private static final String CSV = "id,city,note\r\n"
+            + "1,Malmö,plain\n"
+            + "2,\"Göteborg, Hisingen\",\"says \"\"hej\"\"\"\n"
+            + "\n"
+            + "3,Umeå,\"two\nlines\"\n"
+            + "4,𝄞,-17";
+
+    private static List<String> fields(RecordSource source) throws IOException {
+        List<String> rows = new ArrayList<>();
+        CsvRecord record = new CsvRecord('"', false);
+        while (source.next(record, true)) {
+            rows.add(Arrays.toString(record.toArray()));
+        }
+        return rows;
+    }
+
+    private static List<String> charFields(String csv, int bufferSize) throws IOException {
+        return fields(new CsvTokenizer(new StringReader(csv), ',', '"', bufferSize));
+    }
+
+    private static List<String> byteFields(String csv, Charset charset, int bufferSize) throws IOException {
+        return fields(new ByteCsvTokenizer(new ByteArrayInputStream(csv.getBytes(charset)), charset, ',', '"',
+                bufferSize));
+    }
+
+    @Test
+    @DisplayName("UTF-8 bytes split into the same records as decoded characters")
+    void utf8Bytes_matchDecodedCharacters() throws IOException {
+        assertThat(byteFields(CSV, StandardCharsets.UTF_8, 8192)).containsExactlyElementsOf(charFields(CSV, 8192));
+    }
+
+    @Test
+    @DisplayName("Records spanning many small buffer refills are reassembled")
+    void smallBuffers_reassembleRecords() throws IOException {
+        for (int bufferSize = 1; bufferSize <= 40; bufferSize++) {
+            assertThat(byteFields(CSV, StandardCharsets.UTF_8, bufferSize))
+                    .as("buffer size %d", bufferSize)
+                    .containsExactlyElementsOf(charFields(CSV, bufferSize));
+        }
+    }
+
+    @Test
+    @DisplayName("ISO-8859-1 bytes above 0x7F decode to the same characters")
+    void latin1Bytes_decodeHighCharacters() throws IOException {
+        String csv = CSV.replace("𝄞", "ÿ");
+
+        assertThat(byteFields(csv, StandardCharsets.ISO_8859_1, 16)).containsExactlyElementsOf(charFields(csv, 16));
+    }
+
+    @Test
+    @DisplayName("Typed getters read fields straight from the byte buffer")
+    void typedGetters_readBytes() throws IOException {
+        String csv = "42,-9000000000,3.25,true,2024-02-29,Malmö\n";
+        ByteCsvTokenizer tokenizer = new ByteCsvTokenizer(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ',', '"', 64);
+        CsvRecord record = new CsvRecord('"', false);
+
+        assertThat(tokenizer.next(record, true)).isTrue();
+        assertThat(record.getInt(0)).isEqualTo(42);
+        assertThat(record.getLong(1)).isEqualTo(-9_000_000_000L);
+        assertThat(record.getDouble(2)).isEqualTo(3.25);
+        assertThat(record.getBoolean(3)).isTrue();
+        assertThat(record.getLocalDate(4)).hasToString("2024-02-29");
+        assertThat(record.contentEquals(5, "Malmö")).isTrue();
+        assertThat(record.startsWith(5, "Mal")).isTrue();
+        assertThat(record.fieldHash(5)).isEqualTo("Malmö".hashCode());
+        assertThat(tokenizer.next(record, true)).isFalse();
+    }
+
+    @Test
+    @DisplayName("CsvReader parses UTF-8 streams on bytes")
+    void csvReader_parsesUtf8Streams() throws IOException {
+        List<String[]> rows = CsvReader.builder().hasHeader(true).build()
+                .withSource(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), "UTF-8")
+                .readAll();
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows.get(1)).containsExactly("2", "Göteborg, Hisingen", "says \"hej\"");
+        assertThat(rows.get(3)).containsExactly("4", "𝄞", "-17");
+    }
+
+    @Test
+    @DisplayName("Charsets that are not ASCII compatible are rejected")
+    void unsupportedCharset_isRejected() {
+        assertThat(ByteCsvTokenizer.supports(StandardCharsets.UTF_16, ',', '"')).isFalse();
+        assertThat(ByteCsvTokenizer.supports(StandardCharsets.UTF_8, '§', '"')).isFalse();
+        assertThatThrownBy(() -> new ByteCsvTokenizer(new ByteArrayInputStream(new byte[0]),
+                StandardCharsets.UTF_16, ',', '"', 64))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnBatchTest {
+
+    private static final String CSV = """
+            id,country,price,qty
+            1,SE,1.5,10
+            2,NO,,20
+            3,SE,4.5,30
+            4,,6.0,40
+            5,DK,7.5
+            """;
+
+    private static final BatchSchema SCHEMA = BatchSchema.builder()
+            .intColumn("id")
+            .stringColumn("country")
+            .doubleColumn("price")
+            .longColumn(3)
+            .build();
+
+    @Test
+    @DisplayName("Rows are split into batches of primitive column vectors")
+    void batches_splitRowsIntoColumnVectors() {
+        List<ColumnBatch> batches = CsvReader.builder().hasHeader(true).build().withSource(CSV)
+                .batches(SCHEMA, 3)
+                .toList();
+
+        assertThat(batches).extracting(ColumnBatch::rowCount).containsExactly(3, 2);
+        ColumnBatch first = batches.getFirst();
+        assertThat(first.column("id", ColumnVector.Ints.class).values()).containsExactly(1, 2, 3);
+        assertThat(first.column("price", ColumnVector.Doubles.class).values()).containsExactly(1.5, 0.0, 4.5);
+        assertThat(first.column("qty", ColumnVector.Longs.class).values()).containsExactly(10L, 20L, 30L);
+    }
+
+    @Test
+    @DisplayName("Empty and missing fields are marked in the null bitmap")
+    void emptyAndMissingFields_areNull() throws IOException {
+        ColumnBatch batch = CsvReader.builder().hasHeader(true).build().withSource(CSV).nextBatch(SCHEMA, 10);
+
+        ColumnVector price = batch.column("price");
+        ColumnVector qty = batch.column(3);
+        assertThat(price.isNull(1)).isTrue();
+        assertThat(price.isNull(0)).isFalse();
+        assertThat(price.nullCount()).isEqualTo(1);
+        assertThat(qty.isNull(4)).isTrue();
+        assertThat(qty.nullBitmap()).containsExactly(0b10000L);
+    }
+
+    @Test
+    @DisplayName("String columns are dictionary encoded")
+    void stringColumns_areDictionaryEncoded() throws IOException {
+        ColumnBatch batch = CsvReader.builder().hasHeader(true).build().withSource(CSV).nextBatch(SCHEMA, 10);
+
+        ColumnVector.Strings country = batch.column("country", ColumnVector.Strings.class);
+        assertThat(country.dictionary()).containsExactly("SE", "NO", "DK");
+        assertThat(country.codes()).containsExactly(0, 1, 0, -1, 2);
+        assertThat(country.get(2)).isEqualTo("SE");
+        assertThat(country.get(3)).isNull();
+    }
+
+    @Test
+    @DisplayName("Float columns can feed float array kernels")
+    void floatColumns_holdFloatValues() throws IOException {
+        BatchSchema schema = BatchSchema.builder().floatColumn(0).build();
+
+        ColumnBatch batch = CsvReader.builder().build().withSource("0.5\n1.25\n").nextBatch(schema, 8);
+
+        assertThat(((ColumnVector.Floats) batch.column(0)).values()).containsExactly(0.5f, 1.25f);
+    }
+
+    @Test
+    @DisplayName("nextBatch returns null at the end")
+    void nextBatch_returnsNullAtEnd() throws IOException {
+        CsvReader reader = CsvReader.builder().build().withSource("1\n");
+        BatchSchema schema = BatchSchema.builder().intColumn(0).build();
+
+        assertThat(reader.nextBatch(schema, 8).rowCount()).isEqualTo(1);
+        assertThat(reader.nextBatch(schema, 8)).isNull();
+    }
+
+    @Test
+    @DisplayName("Requesting a column with the wrong type throws exception")
+    void column_withWrongType_throwsException() throws IOException {
+        ColumnBatch batch = CsvReader.builder().hasHeader(true).build().withSource(CSV).nextBatch(SCHEMA, 10);
+
+        assertThatThrownBy(() -> batch.column("id", ColumnVector.Doubles.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Column 'id' is not of type Doubles");
+    }
+
+    @Test
+    @DisplayName("Batch size must be positive")
+    void nextBatch_withNonPositiveSize_throwsException() {
+        CsvReader reader = CsvReader.builder().build().withSource("1\n");
+
+        assertThatThrownBy(() -> reader.nextBatch(SCHEMA, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch size must be greater than 0");
+    }
+
+    @Test
+    @DisplayName("Schema without columns is rejected")
+    void emptySchema_throwsException() {
+        BatchSchema.Builder builder = BatchSchema.builder();
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Schema must have at least one column");
+    }
+}
@@ -0,0 +1,170 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CsvMapperTest {
+
+    record Trade(String symbol, int quantity, double price, LocalDate date, boolean settled, Long reference) {
+    }
+
+    record Point(int x, int y) {
+    }
+
+    record Unsupported(Object value) {
+    }
+
+    static final class Person {
+        private String name;
+        private int age;
+        private long id;
+
+        void setName(String name) {
+            this.name = name;
+        }
+
+        void setAge(int age) {
+            this.age = age;
+        }
+
+        void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Records are mapped by header name regardless of column order")
+    void records_areMappedByHeaderName() {
+        String csv = """
+                date,price,symbol,quantity,reference,settled
+                2024-03-01,12.5,ACME,100,,true
+                2024-03-02,7.25,INIT,-3,42,false
+                """;
+
+        List<Trade> trades = CsvReader.builder().hasHeader(true).build().withSource(csv)
+                .readAll(CsvMapper.forRecord(Trade.class));
+
+        assertThat(trades).containsExactly(
+                new Trade("ACME", 100, 12.5, LocalDate.of(2024, 3, 1), true, null),
+                new Trade("INIT", -3, 7.25, LocalDate.of(2024, 3, 2), false, 42L));
+    }
+
+    @Test
+    @DisplayName("Records are mapped by position when there is no header")
+    void records_areMappedByPositionWithoutHeader() {
+        List<Point> points = CsvReader.builder().build().withSource("1,2\n3,4\n")
+                .stream(CsvMapper.forRecord(Point.class))
+                .toList();
+
+        assertThat(points).containsExactly(new Point(1, 2), new Point(3, 4));
+    }
+
+    @Test
+    @DisplayName("Builder mapper fills objects by name and index")
+    void builder_fillsObjectsByNameAndIndex() {
+        CsvMapper<Person> mapper = CsvMapper.builder(Person::new)
+                .stringColumn("name", Person::setName)
+                .intColumn("age", Person::setAge)
+                .longColumn(0, Person::setId)
+                .build();
+
+        List<Person> people = CsvReader.builder().hasHeader(true).trimTokens(true).build()
+                .withSource("id, name, age\n7, Alice, 30\n8, Bob, 25\n")
+                .readAll(mapper);
+
+        assertThat(people).extracting(p -> p.id, p -> p.name, p -> p.age)
+                .containsExactly(
+                        tuple(7L, "Alice", 30),
+                        tuple(8L, "Bob", 25));
+    }
+
+    @Test
+    @DisplayName("Custom headers are used to resolve column names")
+    void customHeaders_areUsedToResolveColumnNames() {
+        CsvReader reader = CsvReader.builder().build().withSource("3,4\n");
+        reader.setCustomHeaders(new String[]{"y", "x"});
+
+        List<Point> points = reader.readAll(CsvMapper.forRecord(Point.class));
+
+        assertThat(points).containsExactly(new Point(4, 3));
+    }
+
+    @Test
+    @DisplayName("Duplicate header names resolve to the same column as CsvRow")
+    void duplicateHeaderNames_resolveLikeCsvRow() throws IOException {
+        String csv = "x,y,x\n1,2,3\n";
+        CsvMapper<Person> mapper = CsvMapper.builder(Person::new)
+                .stringColumn("x", Person::setName)
+                .build();
+
+        List<Person> people = CsvReader.builder().hasHeader(true).build().withSource(csv).readAll(mapper);
+        List<Point> points = CsvReader.builder().hasHeader(true).build().withSource(csv)
+                .readAll(CsvMapper.forRecord(Point.class));
+        CsvRow row = CsvReader.builder().hasHeader(true).build().withSource(csv).readNextRow();
+
+        assertThat(row.get("x")).isEqualTo("3");
+        assertThat(people).extracting(p -> p.name).containsExactly("3");
+        assertThat(points).containsExactly(new Point(3, 2));
+    }
+
+    @Test
+    @DisplayName("Unknown column name throws IllegalStateException")
+    void unknownColumnName_throwsException() {
+        CsvMapper<Person> mapper = CsvMapper.builder(Person::new)
+                .stringColumn("missing", Person::setName)
+                .build();
+        CsvReader reader = CsvReader.builder().hasHeader(true).build().withSource("name\nAlice\n");
+
+        assertThatThrownBy(() -> reader.readAll(mapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("No column named 'missing'");
+    }
+
+    @Test
+    @DisplayName("Column names without a header row throw IllegalStateException")
+    void columnNameWithoutHeader_throwsException() {
+        CsvMapper<Person> mapper = CsvMapper.builder(Person::new)
+                .stringColumn("name", Person::setName)
+                .build();
+        CsvReader reader = CsvReader.builder().build().withSource("Alice\n");
+
+        assertThatThrownBy(() -> reader.readAll(mapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Column 'name' requires a header row");
+    }
+
+    @Test
+    @DisplayName("Unsupported record component types are rejected")
+    void unsupportedComponentType_throwsException() {
+        assertThatThrownBy(() -> CsvMapper.forRecord(Unsupported.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported column type: java.lang.Object");
+    }
+
+    @Test
+    @DisplayName("Negative column index is rejected")
+    void negativeColumnIndex_throwsException() {
+        CsvMapper.Builder<Person> builder = CsvMapper.builder(Person::new);
+
+        assertThatThrownBy(() -> builder.intColumn(-1, Person::setAge))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Column index cannot be negative");
+    }
+
+    @Test
+    @DisplayName("Invalid field values surface as NumberFormatException")
+    void invalidFieldValues_throwNumberFormatException() {
+        CsvReader reader = CsvReader.builder().build().withSource("1,x\n");
+
+        assertThatThrownBy(() -> reader.readAll(CsvMapper.forRecord(Point.class)))
+                .isInstanceOf(NumberFormatException.class);
+    }
+}
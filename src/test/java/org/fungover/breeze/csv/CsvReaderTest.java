@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -12,6 +13,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -345,6 +347,33 @@ class CsvReaderTest {
         assertEquals("4", secondRow.get("Amount"));
     }
 
+    @Test
+    @DisplayName("Custom headers turn the header row into data for every read method")
+    void customHeaders_readHeaderRowAsDataConsistently() throws IOException {
+
+        // Arrange
+        String csvContent = "a,b,c\n1,2\n3,4,5\n";
+        CsvReader.Builder builder = CsvReader.builder()
+                .hasHeader(true)
+                .withMalformedRowPolicy(MalformedRowPolicy.SKIP);
+        CsvReader allReader = builder.build().withSource(csvContent);
+        allReader.setCustomHeaders(new String[]{"x", "y", "z"});
+        CsvReader rowReader = builder.build().withSource(csvContent);
+        rowReader.setCustomHeaders(new String[]{"x", "y", "z"});
+
+        // Act
+        List<String[]> all = allReader.readAll();
+        List<String[]> rows = new ArrayList<>();
+        for (CsvRow row = rowReader.readNextRow(); row != null; row = rowReader.readNextRow()) {
+            rows.add(row.toArray());
+        }
+
+        // Assert
+        assertThat(all).containsExactly(new String[]{"a", "b", "c"}, new String[]{"3", "4", "5"});
+        assertThat(rows).containsExactlyElementsOf(all);
+        assertThat(rowReader.malformedRowCount()).isEqualTo(allReader.malformedRowCount()).isEqualTo(1);
+    }
+
     @Test
     void testStreamWithValidSource() {
         String csvContent = "name,age\nAlice,30\nBob,25";
@@ -511,4 +540,441 @@ class CsvReaderTest {
         // Assert
         assertThatCode(classUnderTest::close).doesNotThrowAnyException();
     }
+
+    @Test
+    @DisplayName("Quoted fields may contain line breaks")
+    void readAll_quotedFieldWithLineBreaks() throws IOException {
+
+        // Arrange
+        String csvContent = "id,text\r\n1,\"line one\r\nline two\"\r\n2,\"a\n\nb\",x\r\n";
+        CsvReader classUnderTest = CsvReader.builder().hasHeader(true).build();
+
+        // Act
+        List<String[]> actual = classUnderTest.withSource(csvContent).readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(
+                new String[]{"1", "line one\r\nline two"},
+                new String[]{"2", "a\n\nb", "x"});
+    }
+
+    @Test
+    @DisplayName("stream and readNext handle quoted fields with line breaks")
+    void streamAndReadNext_quotedFieldWithLineBreaks() throws IOException {
+
+        // Arrange
+        String csvContent = "\"multi\nline\",1\nsingle,2\n";
+
+        // Act
+        List<String[]> streamed = CsvReader.builder().build().withSource(csvContent).stream().toList();
+        CsvReader reader = CsvReader.builder().build().withSource(csvContent);
+        String[] first = reader.readNext();
+        String[] second = reader.readNext();
+
+        // Assert
+        assertThat(streamed).containsExactly(
+                new String[]{"multi\nline", "1"},
+                new String[]{"single", "2"});
+        assertArrayEquals(new String[]{"multi\nline", "1"}, first);
+        assertArrayEquals(new String[]{"single", "2"}, second);
+        assertThat(reader.readNext()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Unterminated quote runs to end of input without the final line break")
+    void readAll_unterminatedQuoteAtEndOfInput() throws IOException {
+
+        // Arrange
+        String csvContent = "a,\"open\nstill open\n";
+
+        // Act
+        List<String[]> actual = CsvReader.builder().build().withSource(csvContent).readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"a", "open\nstill open"});
+    }
+
+    @ParameterizedTest(name = "parallelStream with chunk size {0} matches sequential parsing")
+    @MethodSource("provideChunkSizesFor_parallelStream")
+    void parallelStream_matchesSequentialParsing(int chunkSize) throws IOException {
+
+        // Arrange
+        StringBuilder csvContent = new StringBuilder("id,text,value\n");
+        for (int i = 0; i < 500; i++) {
+            String text = switch (i % 4) {
+                case 0 -> "\"multi\nline \"\"quoted\"\"\"";
+                case 1 -> "\"a,b\"";
+                case 2 -> "åäö";
+                default -> "plain";
+            };
+            csvContent.append(i).append(',').append(text).append(',').append(i * 2).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvReader classUnderTest = CsvReader.builder().hasHeader(true).withChunkSize(chunkSize).build();
+        List<String[]> expected = CsvReader.builder().hasHeader(true).build().withSource(csvContent.toString()).readAll();
+
+        // Act
+        List<String[]> actual;
+        try (Stream<String[]> rows = classUnderTest.parallelStream(file.toPath(), "UTF-8", true)) {
+            actual = rows.toList();
+        }
+
+        // Assert
+        assertThat(actual).hasSize(500).containsExactlyElementsOf(expected);
+    }
+
+    private static Stream<Arguments> provideChunkSizesFor_parallelStream() {
+        return Stream.of(
+                Arguments.of(1),
+                Arguments.of(7),
+                Arguments.of(64),
+                Arguments.of(1 << 20)
+        );
+    }
+
+    @Test
+    @DisplayName("Unordered parallelStream returns every row")
+    void parallelStream_unorderedReturnsEveryRow() throws IOException {
+
+        // Arrange
+        String csvContent = "1,a\n2,b\n3,\"c\nc\"\n4,d\n";
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvReader classUnderTest = CsvReader.builder().withChunkSize(4).build();
+
+        // Act
+        List<String[]> actual;
+        try (Stream<String[]> rows = classUnderTest.parallelStream(file.toPath(), "UTF-8", false)) {
+            actual = rows.toList();
+        }
+
+        // Assert
+        assertThat(actual).containsExactlyInAnyOrder(
+                new String[]{"1", "a"},
+                new String[]{"2", "b"},
+                new String[]{"3", "c\nc"},
+                new String[]{"4", "d"});
+    }
+
+    @ParameterizedTest(name = "parallelStream splits a CR-only file with chunk size {0}")
+    @ValueSource(ints = {1, 3, 16, 100})
+    void parallelStream_splitsCarriageReturnOnlyFile(int chunkSize) throws IOException {
+
+        // Arrange
+        StringBuilder csvContent = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            csvContent.append(i).append(",\"x\ry\",").append(i % 7).append('\r');
+        }
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvReader classUnderTest = CsvReader.builder().withChunkSize(chunkSize).build();
+        List<String[]> expected = CsvReader.builder().build().withSource(csvContent.toString()).readAll();
+
+        // Act
+        List<String[]> actual;
+        try (Stream<String[]> rows = classUnderTest.parallelStream(file.toPath(), "UTF-8", true)) {
+            actual = rows.toList();
+        }
+
+        // Assert
+        assertThat(actual).hasSize(300).containsExactlyElementsOf(expected);
+        assertThat(actual.get(299)).containsExactly("299", "x\ry", "5");
+    }
+
+    @Test
+    @DisplayName("parallelStream reads a quoted field spanning many chunks")
+    void parallelStream_readsQuotedFieldSpanningManyChunks() throws IOException {
+
+        // Arrange
+        String longField = "line,with \"quotes\"\r\n".repeat(5_000);
+        String csvContent = "1,before\n2,\"" + longField.replace("\"", "\"\"") + "\"\n3,after\n";
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvReader classUnderTest = CsvReader.builder().withChunkSize(64).build();
+
+        // Act
+        List<String[]> actual;
+        try (Stream<String[]> rows = classUnderTest.parallelStream(file.toPath(), "UTF-8", true)) {
+            actual = rows.toList();
+        }
+
+        // Assert
+        assertThat(actual).containsExactly(
+                new String[]{"1", "before"},
+                new String[]{"2", longField},
+                new String[]{"3", "after"});
+    }
+
+    @Test
+    @DisplayName("parallelStream rejects charsets that are not ASCII compatible")
+    void parallelStream_rejectsNonAsciiCompatibleCharset() throws IOException {
+
+        // Arrange
+        File file = Files.createTempFile("testCsv", ".csv").toFile();
+        CsvReader classUnderTest = CsvReader.builder().build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> classUnderTest.parallelStream(file.toPath(), "UTF-16", true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Selected columns are returned by name in the requested order")
+    void selectColumns_returnsColumnsByNameInOrder() throws IOException {
+
+        // Arrange
+        String csvContent = "id,name,age\n1,Alice,30\n2,Bob\n";
+        CsvReader classUnderTest = CsvReader.builder()
+                .hasHeader(true)
+                .selectColumns("age", "id")
+                .build()
+                .withSource(csvContent);
+
+        // Act
+        List<String[]> actual = classUnderTest.readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(
+                new String[]{"30", "1"},
+                new String[]{null, "2"});
+    }
+
+    @Test
+    @DisplayName("Row filter drops rows before they are returned")
+    void withFilter_dropsRejectedRows() throws IOException {
+
+        // Arrange
+        String csvContent = "1,SE,15\n2,NO,20\n3,SE,200\n4,SE,99.5\n";
+        CsvReader classUnderTest = CsvReader.builder()
+                .selectColumns(0)
+                .withFilter(RowFilter.equalTo(1, "SE").and(RowFilter.between(2, 10, 100)))
+                .build()
+                .withSource(csvContent);
+
+        // Act
+        List<String[]> actual = classUnderTest.stream().toList();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1"}, new String[]{"4"});
+    }
+
+    @Test
+    @DisplayName("parallelStream applies selected columns and row filter")
+    void parallelStream_appliesProjectionAndFilter() throws IOException {
+
+        // Arrange
+        String csvContent = "id,country\n1,SE\n2,\"N\nO\"\n3,SE\n";
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvReader classUnderTest = CsvReader.builder()
+                .hasHeader(true)
+                .withChunkSize(5)
+                .selectColumns("id")
+                .withFilter(RowFilter.equalTo("country", "SE"))
+                .build();
+
+        // Act
+        List<String[]> actual;
+        try (Stream<String[]> rows = classUnderTest.parallelStream(file.toPath(), "UTF-8", true)) {
+            actual = rows.toList();
+        }
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1"}, new String[]{"3"});
+    }
+
+    @Test
+    @DisplayName("Selecting a column name without a header throws exception")
+    void selectColumns_withoutHeader_throwsException() {
+
+        // Arrange
+        CsvReader classUnderTest = CsvReader.builder().selectColumns("id").build().withSource("1\n");
+
+        // Act & Assert
+        assertThatThrownBy(classUnderTest::readAll)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Column 'id' requires a header row");
+    }
+
+    @Test
+    @DisplayName("Resuming a file from a checkpoint returns the remaining rows")
+    void resumeFrom_file_returnsRemainingRows() throws IOException {
+
+        // Arrange
+        StringBuilder csvContent = new StringBuilder("id,city\n");
+        for (int i = 0; i < 30_000; i++) {
+            csvContent.append(i).append(i % 5 == 0 ? ",\"Malmö\r\nSkåne\"\r\n" : ",Umeå\n");
+        }
+        File file = Files.writeString(Files.createTempFile("testCsv", ".csv"), csvContent).toFile();
+        CsvCheckpoint checkpoint;
+        try (CsvReader first = CsvReader.builder().hasHeader(true).build().withSource(file, "UTF-8")) {
+            for (int i = 0; i < 25_000; i++) {
+                first.nextRecord();
+            }
+            checkpoint = first.checkpoint();
+        }
+
+        // Act
+        List<String[]> actual;
+        long firstRowNumber;
+        try (CsvReader resumed = CsvReader.builder().hasHeader(true).build().withSource(file, "UTF-8")) {
+            resumed.resumeFrom(checkpoint);
+            CsvRow row = resumed.readNextRow();
+            firstRowNumber = resumed.rowNumber();
+            actual = resumed.readAll();
+            actual.addFirst(row.toArray());
+        }
+
+        // Assert
+        assertThat(checkpoint.rowNumber()).isEqualTo(25_000);
+        assertThat(firstRowNumber).isEqualTo(25_001);
+        assertThat(actual).hasSize(5_000);
+        assertThat(actual.getFirst()).containsExactly("25000", "Malmö\r\nSkåne");
+        assertThat(actual.getLast()).containsExactly("29999", "Umeå");
+    }
+
+    @Test
+    @DisplayName("Resuming a string source from a checkpoint counts characters")
+    void resumeFrom_string_continuesAfterCheckpoint() throws IOException {
+
+        // Arrange
+        String csvContent = "id,name\n1,Åsa\n2,Björn\n3,Cecilia\n";
+        CsvReader first = CsvReader.builder().hasHeader(true).build().withSource(csvContent);
+        first.nextRecord();
+
+        // Act
+        CsvCheckpoint checkpoint = first.checkpoint();
+        List<String[]> actual = CsvReader.builder().hasHeader(true).build()
+                .withSource(csvContent)
+                .resumeFrom(checkpoint)
+                .readAll();
+
+        // Assert
+        assertThat(checkpoint).isEqualTo(new CsvCheckpoint(14, 1));
+        assertThat(actual).containsExactly(new String[]{"2", "Björn"}, new String[]{"3", "Cecilia"});
+    }
+
+    @Test
+    @DisplayName("A checkpoint taken before any row resumes at the first row")
+    void resumeFrom_initialCheckpoint_startsAtFirstRow() throws IOException {
+
+        // Arrange
+        CsvCheckpoint checkpoint = CsvReader.builder().hasHeader(true).build().withSource("a\n1\n").checkpoint();
+
+        // Act
+        List<String[]> actual = CsvReader.builder().hasHeader(true).build()
+                .withSource("a\n1\n")
+                .resumeFrom(checkpoint)
+                .readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1"});
+    }
+
+    @Test
+    @DisplayName("Resuming after rows were read throws exception")
+    void resumeFrom_afterReading_throwsException() throws IOException {
+
+        // Arrange
+        CsvReader classUnderTest = CsvReader.builder().build().withSource("1\n2\n");
+        classUnderTest.nextRecord();
+
+        // Act & Assert
+        assertThatThrownBy(() -> classUnderTest.resumeFrom(new CsvCheckpoint(0, 0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("resumeFrom(..) must be called before any row is read");
+    }
+
+    @Test
+    @DisplayName("Negative checkpoint offsets are rejected")
+    void checkpoint_negativeOffset_throwsException() {
+        assertThatThrownBy(() -> new CsvCheckpoint(-1, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Offset cannot be negative");
+    }
+
+    @Test
+    @DisplayName("Malformed rows are accepted as parsed by default")
+    void malformedRows_areAcceptedByDefault() throws IOException {
+
+        // Arrange
+        CsvReader classUnderTest = CsvReader.builder().hasHeader(true).build().withSource("a,b\n1\n2,3\n");
+
+        // Act
+        List<String[]> actual = classUnderTest.readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1"}, new String[]{"2", "3"});
+        assertThat(classUnderTest.malformedRowCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Fail policy throws at the first malformed row with its line number")
+    void failPolicy_throwsAtFirstMalformedRow() {
+
+        // Arrange
+        CsvReader classUnderTest = CsvReader.builder()
+                .hasHeader(true)
+                .withMalformedRowPolicy(MalformedRowPolicy.FAIL)
+                .build()
+                .withSource("id,text\n1,\"two\nlines\"\n2\n3,ok\n");
+
+        // Act
+        Throwable actual = catchThrowable(() -> classUnderTest.stream().toList());
+
+        // Assert
+        assertThat(actual)
+                .isInstanceOf(MalformedCsvException.class)
+                .hasMessage("Malformed row at line 4: Expected 2 fields but found 1");
+        assertThat(((MalformedCsvException) actual).getRow())
+                .isEqualTo(new MalformedRow(4, 2, "2", "Expected 2 fields but found 1"));
+    }
+
+    @Test
+    @DisplayName("Skip policy drops and counts malformed rows")
+    void skipPolicy_dropsAndCountsMalformedRows() throws IOException {
+
+        // Arrange
+        CsvReader classUnderTest = CsvReader.builder()
+                .withMalformedRowPolicy(MalformedRowPolicy.SKIP)
+                .build()
+                .withSource("1,a\n2\n3,c,extra\n4,d\n");
+
+        // Act
+        List<String[]> actual = classUnderTest.readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1", "a"}, new String[]{"4", "d"});
+        assertThat(classUnderTest.malformedRowCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Dead letter sink receives line number and raw text of malformed rows")
+    void deadLetterSink_receivesMalformedRows() throws IOException {
+
+        // Arrange
+        String csvContent = "id,city\n1,Malmö\n2,Umeå,extra\n\n3,\"Lund";
+        List<MalformedRow> deadLetters = new ArrayList<>();
+        CsvReader classUnderTest = CsvReader.builder()
+                .hasHeader(true)
+                .withDeadLetterSink(deadLetters::add)
+                .build()
+                .withSource(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+
+        // Act
+        List<String[]> actual = classUnderTest.readAll();
+
+        // Assert
+        assertThat(actual).containsExactly(new String[]{"1", "Malmö"});
+        assertThat(deadLetters).containsExactly(
+                new MalformedRow(3, 2, "2,Umeå,extra", "Expected 2 fields but found 3"),
+                new MalformedRow(5, 3, "3,\"Lund", "Unterminated quote"));
+        assertThat(classUnderTest.malformedRowCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Dead letter policy without a sink throws exception")
+    void deadLetterPolicy_withoutSink_throwsException() {
+        CsvReader.Builder builder = CsvReader.builder().withMalformedRowPolicy(MalformedRowPolicy.DEAD_LETTER);
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("withDeadLetterSink(..) must be set for the DEAD_LETTER policy");
+    }
 }
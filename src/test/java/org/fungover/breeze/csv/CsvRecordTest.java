@@ -0,0 +1,135 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordTest {
+
+    @Test
+    @DisplayName("nextRecord returns fields lazily and null at the end")
+    void nextRecord_returnsFieldsAndNullAtEnd() throws IOException {
+        CsvReader reader = CsvReader.builder().build().withSource("a,b,c\n1,2,3\n");
+
+        CsvRecord first = reader.nextRecord();
+        assertThat(first.size()).isEqualTo(3);
+        assertThat(first.get(1)).isEqualTo("b");
+
+        CsvRecord second = reader.nextRecord();
+        assertThat(second.toArray()).containsExactly("1", "2", "3");
+        assertThat(reader.nextRecord()).isNull();
+    }
+
+    @Test
+    @DisplayName("The same record instance is reused for every row")
+    void nextRecord_reusesInstance() throws IOException {
+        CsvReader reader = CsvReader.builder().build().withSource("a\nb\n");
+
+        CsvRecord first = reader.nextRecord();
+        CsvRecord second = reader.nextRecord();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.get(0)).isEqualTo("b");
+    }
+
+    @Test
+    @DisplayName("Numbers are parsed directly from the buffer")
+    void numbersAreParsedDirectlyFromBuffer() throws IOException {
+        CsvReader reader = CsvReader.builder()
+                .trimTokens(true)
+                .build()
+                .withSource(" 42 ,-9223372036854775808,123.456,1e3,\"7\"");
+
+        CsvRecord record = reader.nextRecord();
+
+        assertThat(record.getInt(0)).isEqualTo(42);
+        assertThat(record.getLong(1)).isEqualTo(Long.MIN_VALUE);
+        assertThat(record.getDouble(2)).isEqualTo(123.456);
+        assertThat(record.getDouble(3)).isEqualTo(1000.0);
+        assertThat(record.getInt(4)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Invalid numbers throw NumberFormatException")
+    void invalidNumbersThrowNumberFormatException() throws IOException {
+        CsvRecord record = CsvReader.builder().build().withSource("2147483648,12a,,abc").nextRecord();
+
+        assertThatThrownBy(() -> record.getInt(0))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessage("For input string: \"2147483648\"");
+        assertThatThrownBy(() -> record.getLong(1)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> record.getLong(2)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> record.getDouble(3)).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    @DisplayName("Quoted fields are unescaped when materialized")
+    void quotedFieldsAreUnescapedWhenMaterialized() throws IOException {
+        CsvRecord record = CsvReader.builder().build()
+                .withSource("\"Cathy \"\"Kitty\"\" Carpenter\",\"a,b\",\"\"")
+                .nextRecord();
+
+        assertThat(record.get(0)).isEqualTo("Cathy \"Kitty\" Carpenter");
+        assertThat(record.get(1)).isEqualTo("a,b");
+        assertThat(record.isEmpty(2)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Header and blank lines are skipped")
+    void headerAndBlankLinesAreSkipped() throws IOException {
+        CsvReader reader = CsvReader.builder()
+                .hasHeader(true)
+                .build()
+                .withSource("name,age\r\n\r\n   \r\nAlice,30\r\n");
+
+        assertThat(reader.nextRecord().toArray()).containsExactly("Alice", "30");
+        assertThat(reader.nextRecord()).isNull();
+    }
+
+    @Test
+    @DisplayName("Accessing a field out of range throws IndexOutOfBoundsException")
+    void accessingFieldOutOfRangeThrowsIndexOutOfBoundsException() throws IOException {
+        CsvRecord record = CsvReader.builder().build().withSource("a,b").nextRecord();
+
+        assertThatThrownBy(() -> record.get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Throw exception if source is missing when calling nextRecord")
+    void nextRecord_whenSourceIsMissing_throwException() {
+        CsvReader reader = CsvReader.builder().build();
+
+        assertThatThrownBy(reader::nextRecord)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("withSource(..) must be called before nextRecord()");
+    }
+
+    @Test
+    @DisplayName("Booleans and ISO dates are parsed directly from the buffer")
+    void booleansAndDatesAreParsedDirectlyFromBuffer() throws IOException {
+        CsvRecord record = CsvReader.builder().build()
+                .withSource("TRUE,yes,true1,2024-02-29,+10000-01-01,\"1999-12-31\"").nextRecord();
+
+        assertThat(record.getBoolean(0)).isTrue();
+        assertThat(record.getBoolean(1)).isFalse();
+        assertThat(record.getBoolean(2)).isFalse();
+        assertThat(record.getLocalDate(3)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(record.getLocalDate(4)).isEqualTo(LocalDate.of(10000, 1, 1));
+        assertThat(record.getLocalDate(5)).isEqualTo(LocalDate.of(1999, 12, 31));
+    }
+
+    @Test
+    @DisplayName("Invalid dates throw DateTimeException")
+    void invalidDatesThrowDateTimeException() throws IOException {
+        CsvRecord record = CsvReader.builder().build().withSource("2023-02-29,2023-1-01").nextRecord();
+
+        assertThatThrownBy(() -> record.getLocalDate(0)).isInstanceOf(DateTimeException.class);
+        assertThatThrownBy(() -> record.getLocalDate(1)).isInstanceOf(DateTimeException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class CsvRowTest {
+
+    private static final String CSV = "name,age,city\nAlice,30,Paris\nBob,25\n";
+
+    @Test
+    @DisplayName("Streamed rows look fields up by header name")
+    void rows_lookUpFieldsByHeaderName() {
+        List<CsvRow> rows = CsvReader.builder().hasHeader(true).build().withSource(CSV).rows().toList();
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("city")).isEqualTo("Paris");
+        assertThat(rows.get(1).get("age")).isEqualTo("25");
+        assertThat(rows.get(1).get("city")).isNull();
+        assertThat(rows.get(1).has("city")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Map view contains the fields present in the row")
+    void asMap_containsPresentFields() throws IOException {
+        CsvReader reader = CsvReader.builder().hasHeader(true).build().withSource(CSV);
+
+        Map<String, String> first = reader.readNextRow().asMap();
+        Map<String, String> second = reader.readNextAsMap();
+
+        assertThat(first).containsExactly(entry("name", "Alice"), entry("age", "30"), entry("city", "Paris"));
+        assertThat(first).isEqualTo(Map.of("name", "Alice", "age", "30", "city", "Paris"));
+        assertThat(second).hasSize(2).doesNotContainKey("city");
+        assertThat(reader.readNextRow()).isNull();
+    }
+
+    @Test
+    @DisplayName("Map view is read-only")
+    void asMap_isReadOnly() throws IOException {
+        Map<String, String> row = CsvReader.builder().hasHeader(true).build().withSource(CSV).readNextAsMap();
+
+        assertThatThrownBy(() -> row.put("name", "Eve")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Selected columns keep their header names")
+    void rows_withSelectedColumns_keepHeaderNames() {
+        List<CsvRow> rows = CsvReader.builder().hasHeader(true).selectColumns("city", "name").build()
+                .withSource(CSV).rows().toList();
+
+        assertThat(rows.get(0).toArray()).containsExactly("Paris", "Alice");
+        assertThat(rows.get(0).get("name")).isEqualTo("Alice");
+    }
+
+    @Test
+    @DisplayName("Custom headers resolve field names")
+    void rows_withCustomHeaders_resolveNames() throws IOException {
+        CsvReader reader = CsvReader.builder().build().withSource("1,2\n3,4\n");
+        reader.setCustomHeaders(new String[]{"x", "y"});
+
+        assertThat(reader.readNextRow().get("y")).isEqualTo("2");
+        assertThat(reader.readNextRow().get("x")).isEqualTo("3");
+    }
+
+    @Test
+    @DisplayName("Unknown header name throws exception")
+    void get_withUnknownName_throwsException() throws IOException {
+        CsvRow row = CsvReader.builder().hasHeader(true).build().withSource(CSV).readNextRow();
+
+        assertThatThrownBy(() -> row.get("country"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No column named 'country'");
+    }
+}
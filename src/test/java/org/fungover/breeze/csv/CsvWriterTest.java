@@ -0,0 +1,158 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvWriterTest {
+
+    record Trade(int id, long volume, double price, boolean settled, String symbol) {
+    }
+
+    private static String write(CsvWriter writer, String... row) throws IOException {
+        StringWriter target = new StringWriter();
+        try (CsvWriter csv = writer.withTarget(target)) {
+            csv.writeRow(row);
+        }
+        return target.toString();
+    }
+
+    @Test
+    @DisplayName("Fields are quoted only when they contain special characters")
+    void writeRow_quotesOnlyWhenNeeded() throws IOException {
+        String actual = write(CsvWriter.builder().build(), "plain", "a,b", "say \"hi\"", "two\nlines", "", null);
+
+        assertThat(actual).isEqualTo("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",,\n");
+    }
+
+    @Test
+    @DisplayName("Delimiter and quote character are configurable")
+    void writeRow_usesConfiguredDelimiterAndQuote() throws IOException {
+        CsvWriter writer = CsvWriter.builder().withDelimiter(';').withQuoteChar('\'').withLineSeparator("\r\n").build();
+
+        String actual = write(writer, "a,b", "c;d", "it's");
+
+        assertThat(actual).isEqualTo("a,b;'c;d';'it''s'\r\n");
+    }
+
+    @Test
+    @DisplayName("Numbers are written field by field")
+    void writeField_formatsNumbers() throws IOException {
+        StringWriter target = new StringWriter();
+        try (CsvWriter writer = CsvWriter.builder().build().withTarget(target)) {
+            writer.writeField(Integer.MIN_VALUE).writeField(Long.MIN_VALUE).writeField(0)
+                    .writeField(2.0).writeField(-0.0).writeField(0.1).writeField(1.5f).writeField(true)
+                    .endRow();
+        }
+
+        assertThat(target).hasToString("-2147483648,-9223372036854775808,0,2.0,-0.0,0.1,1.5,true\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.1, -12.375, 0.001, 1234567.25, 9999999.999999, 0.30000000000000004, 1e-4, 1e7, 3.0e-3})
+    @DisplayName("Doubles and floats are formatted as by Double.toString and Float.toString")
+    void writeField_formatsDecimalsLikeToString(double value) throws IOException {
+        StringWriter target = new StringWriter();
+        try (CsvWriter writer = CsvWriter.builder().withDelimiter(';').build().withTarget(target)) {
+            writer.writeField(value).writeField((float) value).endRow();
+        }
+
+        assertThat(target).hasToString(Double.toString(value) + ";" + Float.toString((float) value) + "\n");
+    }
+
+    @Test
+    @DisplayName("Fields with leading or trailing whitespace are quoted and kept by a trimming reader")
+    void writeRow_quotesSurroundingWhitespace() throws IOException {
+        String[] row = {" lead", "trail ", "\ttab", "in side"};
+
+        String actual = write(CsvWriter.builder().build(), row);
+        List<String[]> readBack = CsvReader.builder().trimTokens(true).build().withSource(actual).readAll();
+
+        assertThat(actual).isEqualTo("\" lead\",\"trail \",\"\ttab\",in side\n");
+        assertThat(readBack).containsExactly(row);
+    }
+
+    @Test
+    @DisplayName("Records are written in component order")
+    void writeRecord_writesComponentsInOrder() throws IOException {
+        StringWriter target = new StringWriter();
+        try (CsvWriter writer = CsvWriter.builder().build().withTarget(target)) {
+            writer.writeRecord(new Trade(1, 1_000L, 9.5, true, "A,B"));
+        }
+
+        assertThat(target).hasToString("1,1000,9.5,true,\"A,B\"\n");
+    }
+
+    @Test
+    @DisplayName("Column batches are written with nulls as empty fields")
+    void writeBatch_writesNullsAsEmptyFields() throws IOException {
+        BatchSchema schema = BatchSchema.builder().intColumn(0).stringColumn(1).doubleColumn(2).build();
+        ColumnBatch batch = CsvReader.builder().build().withSource("1,SE,1.5\n,NO,\n").nextBatch(schema, 10);
+        StringWriter target = new StringWriter();
+
+        try (CsvWriter writer = CsvWriter.builder().build().withTarget(target)) {
+            writer.writeBatch(batch);
+        }
+
+        assertThat(target).hasToString("1,SE,1.5\n,NO,\n");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 16, 64 * 1024})
+    @DisplayName("Output read back by CsvReader matches the input for any buffer size")
+    void writtenOutput_roundTripsThroughReader(int bufferSize) throws IOException {
+        String[] row = {"x".repeat(100) + "\"quoted\"", "a,b", "multi\nline", "plain"};
+        StringWriter target = new StringWriter();
+        try (CsvWriter writer = CsvWriter.builder().withBufferSize(bufferSize).build().withTarget(target)) {
+            writer.writeRow(row).writeRow(row);
+        }
+
+        List<String[]> actual = CsvReader.builder().build().withSource(target.toString()).readAll();
+
+        assertThat(actual).containsExactly(row, row);
+    }
+
+    @Test
+    @DisplayName("Channel target encodes characters outside the BMP correctly")
+    void channelTarget_encodesSupplementaryCharacters() throws IOException {
+        Path file = Files.createTempFile("testCsv", ".csv");
+        try (CsvWriter writer = CsvWriter.builder().withBufferSize(3).build()
+                .withTarget(FileChannel.open(file, StandardOpenOption.WRITE), "UTF-8")) {
+            writer.writeRow("é😀", "ok");
+        }
+
+        assertThat(Files.readString(file)).isEqualTo("é😀,ok\n");
+    }
+
+    @Test
+    @DisplayName("Writing without a target throws exception")
+    void write_withoutTarget_throwsException() {
+        CsvWriter writer = CsvWriter.builder().withBufferSize(1).build();
+
+        assertThatThrownBy(() -> writer.writeRow("abc"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("withTarget(..) must be called before writing");
+    }
+
+    @Test
+    @DisplayName("Delimiter equal to the quote character is rejected")
+    void build_withSameDelimiterAndQuote_throwsException() {
+        CsvWriter.Builder builder = CsvWriter.builder().withDelimiter('"');
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Delimiter and quote character must differ");
+    }
+}
@@ -0,0 +1,103 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrefetchingReaderTest {
+
+    @Test
+    @DisplayName("Prefetched rows equal rows read on the calling thread")
+    void prefetchedRows_equalSequentialRows() throws IOException {
+        StringBuilder csv = new StringBuilder("id,text\n");
+        for (int i = 0; i < 50_000; i++) {
+            csv.append(i).append(",\"multi\nline ").append(i).append("\"\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<String[]> expected = CsvReader.builder().hasHeader(true).build()
+                .withSource(new ByteArrayInputStream(bytes), "UTF-8").readAll();
+        List<String[]> actual;
+        try (CsvReader reader = CsvReader.builder().hasHeader(true).withPrefetch(2).build()
+                .withSource(new ByteArrayInputStream(bytes), "UTF-8")) {
+            actual = reader.readAll();
+        }
+
+        assertThat(actual).hasSize(50_000).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Small blocks are reassembled in order")
+    void smallBlocks_areReassembledInOrder() throws IOException {
+        String text = "abcdefghijklmnopqrstuvwxyz".repeat(100);
+        StringBuilder actual = new StringBuilder();
+        char[] chunk = new char[7];
+
+        try (Reader reader = new PrefetchingReader(new StringReader(text), 1, 3, Thread::new)) {
+            int n;
+            while ((n = reader.read(chunk, 0, chunk.length)) >= 0) {
+                actual.append(chunk, 0, n);
+            }
+        }
+
+        assertThat(actual).hasToString(text);
+    }
+
+    @Test
+    @DisplayName("I/O errors from the background thread are rethrown to the caller")
+    void ioErrors_areRethrown() {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("disk failure");
+            }
+        };
+        CsvReader reader = CsvReader.builder().withPrefetch(1).build().withSource(failing, "UTF-8");
+
+        assertThatThrownBy(reader::readAll)
+                .isInstanceOf(IOException.class)
+                .hasMessage("disk failure");
+    }
+
+    @Test
+    @DisplayName("Closing the reader stops the background thread")
+    void close_stopsBackgroundThread() throws Exception {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        String csv = "a,b\n".repeat(100_000);
+        CsvReader reader = CsvReader.builder()
+                .withPrefetch(1, task -> {
+                    Thread thread = new Thread(task);
+                    worker.set(thread);
+                    return thread;
+                })
+                .build()
+                .withSource(csv);
+
+        reader.readNext();
+        reader.close();
+        worker.get().join(5_000);
+
+        assertThat(worker.get().isAlive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Negative prefetch is rejected")
+    void withPrefetch_negative_throwsException() {
+        CsvReader.Builder builder = CsvReader.builder();
+
+        assertThatThrownBy(() -> builder.withPrefetch(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Prefetch blocks cannot be negative");
+    }
+}
@@ -0,0 +1,86 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowFilterTest {
+
+    private static CsvRecord row(String csv) throws IOException {
+        return CsvReader.builder().build().withSource(csv).nextRecord();
+    }
+
+    @Test
+    @DisplayName("equalTo compares raw and quoted fields")
+    void equalTo_comparesRawAndQuotedFields() throws IOException {
+        CsvRecord record = row("abc,\"a\"\"b\",ab");
+
+        assertThat(RowFilter.equalTo(0, "abc").bind(null).test(record)).isTrue();
+        assertThat(RowFilter.equalTo(1, "a\"b").bind(null).test(record)).isTrue();
+        assertThat(RowFilter.equalTo(2, "abc").bind(null).test(record)).isFalse();
+    }
+
+    @Test
+    @DisplayName("startsWith matches prefixes only")
+    void startsWith_matchesPrefixes() throws IOException {
+        CsvRecord record = row("prefix-1,pre");
+
+        assertThat(RowFilter.startsWith(0, "prefix").bind(null).test(record)).isTrue();
+        assertThat(RowFilter.startsWith(1, "prefix").bind(null).test(record)).isFalse();
+    }
+
+    @Test
+    @DisplayName("between is inclusive and rejects empty and non-numeric fields")
+    void between_isInclusiveAndRejectsNonNumbers() throws IOException {
+        CsvRecord record = row("10,100,x,,50.5");
+
+        assertThat(RowFilter.between(0, 10, 100).bind(null).test(record)).isTrue();
+        assertThat(RowFilter.between(1, 10, 100).bind(null).test(record)).isTrue();
+        assertThat(RowFilter.between(2, 10, 100).bind(null).test(record)).isFalse();
+        assertThat(RowFilter.between(3, 10, 100).bind(null).test(record)).isFalse();
+        assertThat(RowFilter.between(4, 10, 50).bind(null).test(record)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Filters combine with and, or and negate")
+    void filters_combine() throws IOException {
+        CsvRecord record = row("SE,42");
+        RowFilter sweden = RowFilter.equalTo(0, "SE");
+        RowFilter large = RowFilter.between(1, 100, 1000);
+
+        assertThat(sweden.and(large).bind(null).test(record)).isFalse();
+        assertThat(sweden.or(large).bind(null).test(record)).isTrue();
+        assertThat(large.negate().bind(null).test(record)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Named columns are resolved against the headers")
+    void namedColumns_areResolvedAgainstHeaders() throws IOException {
+        Predicate<CsvRecord> filter = RowFilter.equalTo("country", "SE").bind(new String[]{"id", "country"});
+
+        assertThat(filter.test(row("1,SE"))).isTrue();
+        assertThat(filter.test(row("2,NO"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rows too short for the column never match")
+    void shortRows_neverMatch() throws IOException {
+        assertThat(RowFilter.equalTo(3, "").bind(null).test(row("a,b"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Unknown column name throws IllegalStateException")
+    void unknownColumnName_throwsException() {
+        RowFilter filter = RowFilter.equalTo("missing", "x");
+        String[] headers = {"id"};
+
+        assertThatThrownBy(() -> filter.bind(headers))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("No column named 'missing'");
+    }
+}
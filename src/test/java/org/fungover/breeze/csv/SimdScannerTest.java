@@ -0,0 +1,74 @@
+package org.fungover.breeze.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimdScannerTest {
+
+    @Test
+    @DisplayName("Char structural mask marks delimiters, quotes and line breaks")
+    void charStructuralMaskMarksStructuralCharacters() {
+        int lanes = SimdScanner.CHAR_SPECIES.length();
+        char[] chars = new char[lanes];
+        for (int i = 0; i < lanes; i++) {
+            chars[i] = "ab;\"c\r\nx".charAt(i % 8);
+        }
+
+        long mask = SimdScanner.structuralMask(chars, 0, ';', '"');
+
+        for (int i = 0; i < lanes; i++) {
+            boolean structural = chars[i] == ';' || chars[i] == '"' || chars[i] == '\r' || chars[i] == '\n';
+            assertThat((mask >>> i) & 1).as("lane %d", i).isEqualTo(structural ? 1L : 0L);
+        }
+    }
+
+    @Test
+    @DisplayName("Byte structural mask marks delimiters, quotes and line breaks")
+    void byteStructuralMaskMarksStructuralBytes() {
+        int lanes = SimdScanner.BYTE_SPECIES.length();
+        byte[] bytes = new byte[lanes + 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) "x,\"y\nz\r".charAt(i % 7);
+        }
+
+        long mask = SimdScanner.structuralMask(bytes, 3, (byte) ',', (byte) '"');
+
+        for (int i = 0; i < lanes; i++) {
+            byte b = bytes[i + 3];
+            boolean structural = b == ',' || b == '"' || b == '\r' || b == '\n';
+            assertThat((mask >>> i) & 1).as("lane %d", i).isEqualTo(structural ? 1L : 0L);
+        }
+    }
+
+    @Test
+    @DisplayName("prefixXor marks positions between opening and closing quotes")
+    void prefixXorMarksQuotedPositions() {
+        long quotes = 0b1000_0100L; // quotes at positions 2 and 7
+
+        long inside = SimdScanner.prefixXor(quotes);
+
+        assertThat(inside & 0xFFL).isEqualTo(0b0111_1100L);
+    }
+
+    @Test
+    @DisplayName("Fields longer than a vector parse the same as short fields")
+    void fieldsLongerThanAVectorParseCorrectly() throws IOException {
+        String longText = "x".repeat(150);
+        String csvContent = longText + ",\"" + longText + ",\"\"" + longText + "\"\"\"\n" + "a," + longText + "\r\n";
+
+        List<String[]> rows = CsvReader.builder().build()
+                .withSource(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), "UTF-8")
+                .readAll();
+
+        assertThat(rows).containsExactly(
+                new String[]{longText, longText + ",\"" + longText + "\""},
+                new String[]{"a", longText});
+    }
+}
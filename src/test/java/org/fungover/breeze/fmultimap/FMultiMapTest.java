@@ -269,4 +269,23 @@ class FMultiMapTest {
         assertFalse(map.containsKey("key1"), "The original map should not be modified");
         assertTrue(updatedMap.containsKey("key1"), "The updated map should contain the new key-value pair");
     }
+
+    @Test
+    void shouldApplyTransientBatchWithoutModifyingOriginalMap() {
+        FMultiMap<String, String> map = FMultiMap.<String, String>empty().put("key1", "value1");
+        FMultiMap.Transient<String, String> batch = map.toTransient()
+                .put("key1", "value2")
+                .put("key2", "value1")
+                .remove("key1", "value1");
+
+        assertTrue(batch.containsEntry("key1", "value2"));
+        assertEquals(2, batch.getKeyCount());
+        FMultiMap<String, String> result = batch.persistent();
+
+        assertEquals(map.put("key1", "value2").put("key2", "value1").remove("key1", "value1"), result,
+                "The transient should produce the same map as persistent updates");
+        assertEquals(Set.of("value1"), map.get("key1"), "The original map should not be modified");
+        assertThrows(IllegalStateException.class, () -> batch.put("key3", "value3"));
+        assertThrows(IllegalArgumentException.class, () -> map.toTransient().put(null, "value"));
+    }
 }